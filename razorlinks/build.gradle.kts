@@ -4,6 +4,7 @@ plugins {
 	id("io.spring.dependency-management") version "1.1.7"
     id("gg.jte.gradle") version "3.2.3"
     id("jacoco")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.razorquake"
@@ -42,12 +43,17 @@ dependencies {
 	annotationProcessor("org.projectlombok:lombok")
     implementation("org.springframework.boot:spring-boot-starter-cache")
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.boot:spring-boot-starter-data-jpa-test")
     testImplementation("org.springframework.boot:spring-boot-starter-webmvc-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 	testRuntimeOnly("com.h2database:h2")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+	implementation("org.springframework.boot:spring-boot-starter-flyway")
+	runtimeOnly("org.flywaydb:flyway-mysql")
+	runtimeOnly("org.flywaydb:flyway-database-postgresql")
 	runtimeOnly("com.mysql:mysql-connector-j")
 	runtimeOnly("org.postgresql:postgresql")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:3.0.2")
@@ -61,10 +67,11 @@ dependencies {
 	runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.13.0")
     implementation("com.warrenstrange:googleauth:1.5.0")
     implementation("com.google.zxing:core:3.5.4")
-    implementation("com.google.zxing:javase:3.5.4")
     implementation("gg.jte:jte:3.2.3")
     implementation("gg.jte:jte-spring-boot-starter-3:3.2.3")
     implementation("com.bucket4j:bucket4j_jdk17-core:8.14.0")
+    jmh("com.h2database:h2")
+    jmh("org.springframework:spring-test")
 }
 
 // JTE Configuration
@@ -92,6 +99,24 @@ tasks.named<org.springframework.boot.gradle.tasks.bundling.BootJar>("bootJar") {
     }
 }
 
+// Microbenchmarks live in src/jmh/java; run with ./gradlew benchmark (-PjmhInclude=Redirect to filter)
+jmh {
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    if (project.hasProperty("jmhInclude")) {
+        includes = listOf(project.property("jmhInclude").toString())
+    }
+}
+
+tasks.register("benchmark") {
+    group = "verification"
+    description = "Runs the JMH benchmarks with the GC profiler; results go to build/results/jmh"
+    dependsOn("jmh")
+}
+
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
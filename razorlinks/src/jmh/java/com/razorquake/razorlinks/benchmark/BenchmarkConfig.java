@@ -0,0 +1,109 @@
+package com.razorquake.razorlinks.benchmark;
+
+import com.razorquake.razorlinks.config.RedisCacheConfig;
+import com.razorquake.razorlinks.config.ShortCodeConfig;
+import com.razorquake.razorlinks.models.UrlMapping;
+import com.razorquake.razorlinks.repository.UrlMappingRepository;
+import com.razorquake.razorlinks.service.*;
+import com.razorquake.razorlinks.service.audit.BufferedAuditSink;
+import com.razorquake.razorlinks.service.bulk.LinkDeletionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Minimal context for the redirect benchmarks: the real services and repositories on an in-memory
+ * H2 database, with {@link SerializingCacheManager} standing in for Redis.
+ */
+@Configuration
+@EnableCaching
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackageClasses = UrlMappingRepository.class)
+@Import({
+        UrlRedirectLookupService.class,
+        UrlMappingService.class,
+        AuditLogService.class,
+        BufferedAuditSink.class,
+        ClickIngestionService.class,
+        ClickCounterService.class,
+        LinkDeletionService.class,
+        ShortCodeConfig.class
+})
+public class BenchmarkConfig {
+
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
+    @Bean
+    public DataSource dataSource() {
+        return new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(UrlMapping.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // Same table and column names as the Spring Boot application, for the native SQL writers
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()
+        ));
+        return factory;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public CacheManager cacheManager() {
+        RedisSerializationContext.SerializationPair<?> valueSerialization =
+                new RedisCacheConfig().redisCacheConfiguration().getValueSerializationPair();
+        return new SerializingCacheManager((RedisSerializationContext.SerializationPair<Object>) valueSerialization);
+    }
+}
@@ -0,0 +1,79 @@
+package com.razorquake.razorlinks.benchmark;
+
+import com.razorquake.razorlinks.service.email.TemplateRenderService;
+import gg.jte.ContentType;
+import gg.jte.TemplateEngine;
+import gg.jte.output.StringOutput;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification mails rendered from the precompiled templates, per message: the path
+ * {@code EmailService.renderTemplate} used before, with a fresh {@code HashMap} and
+ * {@code StringOutput} each time, {@link TemplateRenderService#render} on a pooled buffer, and
+ * {@link TemplateRenderService#renderAll} over a campaign-sized batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmailTemplateBenchmark {
+
+    private static final String TEMPLATE = "emails/email-verification.jte";
+    private static final int BATCH_SIZE = 500;
+
+    private TemplateEngine templateEngine;
+    private TemplateRenderService renderService;
+    private List<Map<String, Object>> recipients;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        templateEngine = TemplateEngine.createPrecompiled(ContentType.Html);
+        renderService = new TemplateRenderService(templateEngine);
+        ReflectionTestUtils.setField(renderService, "bufferPoolSize", 16);
+        ReflectionTestUtils.setField(renderService, "bufferCapacity", 16384);
+        renderService.initPool();
+
+        recipients = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            recipients.add(Map.of(
+                    "verificationUrl", "https://razorlinks.example/verify-email?token=" + Integer.toHexString(i * 7919),
+                    "username", "user" + i));
+        }
+    }
+
+    private Map<String, Object> nextRecipient() {
+        next = (next + 1) % BATCH_SIZE;
+        return recipients.get(next);
+    }
+
+    @Benchmark
+    public String stringOutput() {
+        Map<String, Object> recipient = nextRecipient();
+        Map<String, Object> params = new HashMap<>();
+        params.put("verificationUrl", recipient.get("verificationUrl"));
+        params.put("username", recipient.get("username"));
+
+        StringOutput output = new StringOutput();
+        templateEngine.render(TEMPLATE, params, output);
+        return output.toString();
+    }
+
+    @Benchmark
+    public String pooled() {
+        return renderService.render(TEMPLATE, nextRecipient());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void bulk(Blackhole blackhole) {
+        blackhole.consume(renderService.renderAll(TEMPLATE, recipients));
+    }
+}
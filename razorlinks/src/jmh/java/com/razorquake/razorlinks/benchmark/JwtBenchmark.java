@@ -0,0 +1,68 @@
+package com.razorquake.razorlinks.benchmark;
+
+import com.razorquake.razorlinks.security.jwt.JwtUtils;
+import com.razorquake.razorlinks.security.service.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification as done by the JWT filter on every authenticated API request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "jwt.secret", "dGVzdC1zZWNyZXQta2V5LXRoYXQtaXMtbG9uZy1lbm91Z2gtZm9yLWhzMjU2LWFuZC1ldmVuLWxvbmdlcg==",
+                "jwt.expiration", 86_400_000
+        )));
+        context.register(JwtUtils.class);
+        context.refresh();
+        jwtUtils = context.getBean(JwtUtils.class);
+
+        token = jwtUtils.generateToken(new UserDetailsImpl(
+                1L, "bench", "bench@example.com", null, false,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        ));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUserNameFromJwtToken() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    /**
+     * What the filter does per request: validate, then extract the username.
+     */
+    @Benchmark
+    public void filterPath(Blackhole blackhole) {
+        if (jwtUtils.validateToken(token)) {
+            blackhole.consume(jwtUtils.getUserNameFromJwtToken(token));
+        }
+    }
+}
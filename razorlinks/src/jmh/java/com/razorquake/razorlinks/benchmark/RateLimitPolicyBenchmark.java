@@ -0,0 +1,33 @@
+package com.razorquake.razorlinks.benchmark;
+
+import com.razorquake.razorlinks.config.RateLimitPolicy;
+import com.razorquake.razorlinks.config.RateLimitTier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tier classification on its own. Run with the gc profiler to confirm it allocates nothing; the
+ * per-tier filter cost, including client IP parsing, is covered by {@link RateLimitingFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitPolicyBenchmark {
+
+    @Param({"/abc12345", "/api/urls/myurls", "/api/auth/public/login"})
+    public String path;
+
+    private RateLimitPolicy policy;
+
+    @Setup
+    public void setUp() {
+        policy = RateLimitPolicy.compile(
+                "POST /api/urls/shorten=AUTHENTICATED," + RateLimitPolicy.DEFAULT_ROUTES, RateLimitTier.REDIRECT);
+    }
+
+    @Benchmark
+    public RateLimitTier resolve() {
+        return policy.resolve("GET", path);
+    }
+}
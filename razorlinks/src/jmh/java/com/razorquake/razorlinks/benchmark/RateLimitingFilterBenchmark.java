@@ -0,0 +1,94 @@
+package com.razorquake.razorlinks.benchmark;
+
+import com.razorquake.razorlinks.config.RateLimitConfig;
+import com.razorquake.razorlinks.security.RateLimitingFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link RateLimitingFilter} for each route tier. Limits are set high enough
+ * that every request is admitted, so the numbers cover bucket lookup and consumption.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitingFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private AnnotationConfigApplicationContext context;
+    private RateLimitingFilter filter;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "rate-limit.redirect.capacity", Integer.MAX_VALUE,
+                "rate-limit.redirect.refill-tokens", Integer.MAX_VALUE,
+                "rate-limit.authenticated.capacity", Integer.MAX_VALUE,
+                "rate-limit.authenticated.refill-tokens", Integer.MAX_VALUE
+        )));
+        context.register(RateLimitConfig.class, RateLimitingFilter.class);
+        context.refresh();
+        filter = context.getBean(RateLimitingFilter.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class AnonymousRedirect {
+        MockHttpServletRequest request;
+
+        @Setup
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/abc12345");
+            request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1");
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AuthenticatedApi {
+        MockHttpServletRequest request;
+
+        @Setup
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/api/urls/myurls");
+            SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                    "bench", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        }
+
+        @TearDown
+        public void tearDown() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymousRedirect(AnonymousRedirect state) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(state.request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedApi(AuthenticatedApi state) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(state.request, response, NO_OP_CHAIN);
+        return response;
+    }
+}
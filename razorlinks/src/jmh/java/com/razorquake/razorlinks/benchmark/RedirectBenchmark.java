@@ -0,0 +1,76 @@
+package com.razorquake.razorlinks.benchmark;
+
+import com.razorquake.razorlinks.dtos.UrlRedirectCache;
+import com.razorquake.razorlinks.models.UrlMapping;
+import com.razorquake.razorlinks.models.User;
+import com.razorquake.razorlinks.repository.UrlMappingRepository;
+import com.razorquake.razorlinks.repository.UserRepository;
+import com.razorquake.razorlinks.service.UrlMappingService;
+import com.razorquake.razorlinks.service.UrlRedirectLookupService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The redirect path: cache hit, cache miss (DB lookup plus cache fill) and the full
+ * {@link UrlMappingService#getOriginalUrl} including click recording.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RedirectBenchmark {
+
+    private static final String SHORT_URL = "bench001";
+
+    private AnnotationConfigApplicationContext context;
+    private UrlRedirectLookupService lookupService;
+    private UrlMappingService urlMappingService;
+    private Cache redirectCache;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        lookupService = context.getBean(UrlRedirectLookupService.class);
+        urlMappingService = context.getBean(UrlMappingService.class);
+        redirectCache = context.getBean(CacheManager.class).getCache("redirects");
+
+        User user = new User();
+        user.setUsername("bench");
+        user.setEmail("bench@example.com");
+        user = context.getBean(UserRepository.class).save(user);
+
+        UrlMapping urlMapping = new UrlMapping();
+        urlMapping.setShortUrl(SHORT_URL);
+        urlMapping.setOriginalUrl("https://example.com/benchmark");
+        urlMapping.setUser(user);
+        urlMapping.setCreatedDate(LocalDateTime.now());
+        context.getBean(UrlMappingRepository.class).save(urlMapping);
+
+        lookupService.resolve(SHORT_URL);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UrlRedirectCache resolveCacheHit() {
+        return lookupService.resolve(SHORT_URL);
+    }
+
+    @Benchmark
+    public UrlRedirectCache resolveCacheMiss() {
+        redirectCache.evict(SHORT_URL);
+        return lookupService.resolve(SHORT_URL);
+    }
+
+    @Benchmark
+    public String getOriginalUrl() {
+        return urlMappingService.getOriginalUrl(SHORT_URL);
+    }
+}
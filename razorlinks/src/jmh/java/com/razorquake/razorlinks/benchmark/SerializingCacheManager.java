@@ -0,0 +1,100 @@
+package com.razorquake.razorlinks.benchmark;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for the Redis cache: values go through the same serializer as in production
+ * and are stored as bytes, so a cache hit pays the deserialization cost but no network round-trip.
+ */
+public class SerializingCacheManager implements CacheManager {
+
+    private final RedisSerializationContext.SerializationPair<Object> valueSerialization;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public SerializingCacheManager(RedisSerializationContext.SerializationPair<Object> valueSerialization) {
+        this.valueSerialization = valueSerialization;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, SerializingCache::new);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return caches.keySet();
+    }
+
+    private class SerializingCache extends AbstractValueAdaptingCache {
+
+        private final String name;
+        private final Map<Object, byte[]> store = new ConcurrentHashMap<>();
+
+        SerializingCache(String name) {
+            super(false);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return store;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            byte[] bytes = store.get(key);
+            return bytes == null ? null : valueSerialization.read(ByteBuffer.wrap(bytes));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            Object value = lookup(key);
+            if (value != null) {
+                return (T) value;
+            }
+            try {
+                T loaded = valueLoader.call();
+                put(key, loaded);
+                return loaded;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (value == null) {
+                return;
+            }
+            ByteBuffer buffer = valueSerialization.write(value);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            store.put(key, bytes);
+        }
+
+        @Override
+        public void evict(Object key) {
+            store.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            store.clear();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.razorquake.razorlinks.benchmark;
+
+import com.razorquake.razorlinks.service.shortcode.BlockShortCodeGenerator;
+import com.razorquake.razorlinks.service.shortcode.RandomShortCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of producing one short code in each generator mode. The uniqueness check and block
+ * allocation are in-memory stand-ins, so the numbers isolate the generators themselves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShortCodeGeneratorBenchmark {
+
+    private RandomShortCodeGenerator threadLocalRandom;
+    private RandomShortCodeGenerator secureRandom;
+    private BlockShortCodeGenerator block;
+
+    @Setup
+    public void setUp() {
+        threadLocalRandom = new RandomShortCodeGenerator(RandomShortCodeGenerator.Source.THREAD_LOCAL, code -> false, 5);
+        secureRandom = new RandomShortCodeGenerator(RandomShortCodeGenerator.Source.SECURE, code -> false, 5);
+
+        AtomicLong sequence = new AtomicLong();
+        block = new BlockShortCodeGenerator(blockSize -> sequence.getAndAdd(blockSize), 1000);
+    }
+
+    @Benchmark
+    public String randomThreadLocal() {
+        return threadLocalRandom.generate();
+    }
+
+    @Benchmark
+    public String randomSecure() {
+        return secureRandom.generate();
+    }
+
+    @Benchmark
+    public String block() {
+        return block.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String blockContended() {
+        return block.generate();
+    }
+}
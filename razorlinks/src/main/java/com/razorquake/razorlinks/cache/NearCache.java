@@ -0,0 +1,128 @@
+package com.razorquake.razorlinks.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * A Spring {@link org.springframework.cache.Cache} that keeps a bounded in-process copy of the
+ * entries of a shared (Redis) cache.
+ * <p>
+ * Reads are served from the local copy when possible and fall through to the shared cache
+ * otherwise. Evictions and clears are applied to both tiers and then broadcast, so other nodes
+ * drop their local copies too. A local entry that misses a broadcast is still bounded by the
+ * near cache TTL.
+ */
+public class NearCache implements org.springframework.cache.Cache {
+
+    private final org.springframework.cache.Cache delegate;
+    private final Cache<Object, Object> near;
+    private final BiConsumer<String, Object> invalidationPublisher;
+
+    /**
+     * @param invalidationPublisher called with the cache name and evicted key, or a {@code null}
+     *                              key when the whole cache was cleared
+     */
+    public NearCache(org.springframework.cache.Cache delegate,
+                     Cache<Object, Object> near,
+                     BiConsumer<String, Object> invalidationPublisher) {
+        this.delegate = delegate;
+        this.near = near;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    public Cache<Object, Object> getNearCache() {
+        return near;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = near.getIfPresent(key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            near.put(key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value = delegate.get(key, valueLoader);
+        if (value != null) {
+            near.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        if (value != null) {
+            near.put(key, value);
+        } else {
+            near.invalidate(key);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        near.invalidate(key);
+        invalidationPublisher.accept(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        near.invalidateAll();
+        invalidationPublisher.accept(getName(), null);
+    }
+
+    /**
+     * Drops a local entry without touching the shared tier; used when another node evicted it.
+     */
+    public void evictLocal(Object key) {
+        near.invalidate(key);
+    }
+
+    /**
+     * Drops all local entries without touching the shared tier; used when another node cleared it.
+     */
+    public void clearLocal() {
+        near.invalidateAll();
+    }
+}
@@ -0,0 +1,114 @@
+package com.razorquake.razorlinks.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every cache of a shared {@link CacheManager} in a {@link NearCache} and keeps the near
+ * caches of all nodes consistent through a Redis pub/sub channel.
+ * <p>
+ * An invalidation message is the cache name, optionally followed by a newline and the evicted
+ * key; a message without a key clears the whole cache. Keys travel as strings, which matches
+ * the {@code String} keys the application caches by.
+ */
+@Slf4j
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    private static final char KEY_SEPARATOR = '\n';
+
+    private final CacheManager delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long maximumSize;
+    private final Duration timeToLive;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, NearCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry registry for the near cache hit/miss metrics, or {@code null} to skip them
+     */
+    public NearCacheManager(CacheManager delegate,
+                            StringRedisTemplate redisTemplate,
+                            String channel,
+                            long maximumSize,
+                            Duration timeToLive,
+                            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        NearCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache shared = delegate.getCache(name);
+        if (shared == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> createNearCache(shared));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private NearCache createNearCache(Cache shared) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> near = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, near, shared.getName() + ".near");
+        }
+        return new NearCache(shared, near, this::publishInvalidation);
+    }
+
+    private void publishInvalidation(String cacheName, Object key) {
+        String message = key == null ? cacheName : cacheName + KEY_SEPARATOR + key;
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the near cache TTL for this entry
+            log.warn("Failed to publish near cache invalidation for {}: {}", message, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(KEY_SEPARATOR);
+        String cacheName = separator < 0 ? body : body.substring(0, separator);
+
+        NearCache cache = caches.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (separator < 0) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(body.substring(separator + 1));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.razorquake.razorlinks.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Bounded store of rate limit buckets for one tier. A bucket is evicted once it has been idle for
+ * as long as it takes to refill completely, at which point a freshly built bucket is
+ * indistinguishable from it. The maximum size caps the heap used by floods of distinct keys;
+ * evicting a partially drained bucket under that pressure resets its limit early.
+ */
+public class BucketStore {
+
+    private final Cache<String, Bucket> buckets;
+    private final Supplier<Bucket> bucketFactory;
+
+    public BucketStore(String name, long maximumSize, Duration idleExpiry,
+                       Supplier<Bucket> bucketFactory, MeterRegistry meterRegistry) {
+        this.bucketFactory = bucketFactory;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(idleExpiry)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            // Exposes size (occupancy), evictions, hits (known keys) and misses (new keys)
+            CaffeineCacheMetrics.monitor(meterRegistry, buckets, name);
+        }
+    }
+
+    /**
+     * Resolves the bucket for the key, creating it on first use or after it was evicted.
+     */
+    public Bucket resolve(String key) {
+        return buckets.get(key, k -> bucketFactory.get());
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+}
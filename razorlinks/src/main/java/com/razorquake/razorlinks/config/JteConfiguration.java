@@ -12,20 +12,20 @@ import java.nio.file.Path;
 @Configuration
 public class JteConfiguration {
 
-    @Value("${spring.profiles.active:dev}")
-    private String activeProfile;
+    @Value("${jte.development-mode:false}")
+    private boolean developmentMode;
 
     @Bean
     public TemplateEngine templateEngine() {
         // For development - hot reload templates from src/main/jte
-        if ("dev".equals(activeProfile) || "local".equals(activeProfile)) {
+        if (developmentMode) {
             Path templatePath = Path.of("src", "main", "jte");
             DirectoryCodeResolver codeResolver = new DirectoryCodeResolver(templatePath);
             return TemplateEngine.create(codeResolver, ContentType.Html);
         }
 
-        // For production - use precompiled templates from classpath
+        // Everywhere else - the classes precompiled into build/jte-classes by generateJte
         return TemplateEngine.createPrecompiled(ContentType.Html);
     }
 
-}
\ No newline at end of file
+}
@@ -2,18 +2,25 @@ package com.razorquake.razorlinks.config;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Configuration
 @Getter
+@RequiredArgsConstructor
 public class RateLimitConfig {
 
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<RedisRateLimiter> redisRateLimiter;
+
     // --- Auth endpoints (per IP) ---
     @Value("${rate-limit.auth.capacity:10}")
     private int authCapacity;
@@ -44,31 +51,82 @@ public class RateLimitConfig {
     @Value("${rate-limit.authenticated.refill-duration-seconds:60}")
     private int authenticatedRefillDurationSeconds;
 
-    // Separate maps for each tier to avoid key collisions
+    // --- Bucket stores (per tier) ---
+    @Value("${rate-limit.bucket-store.maximum-size:100000}")
+    private long bucketStoreMaximumSize;
+
+    // Separate stores for each tier to avoid key collisions
     // (e.g., IP "10.0.0.1" and username "10.0.0.1" won't clash)
-    private final Map<String, Bucket> authBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> redirectBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> authenticatedBuckets = new ConcurrentHashMap<>();
+    private BucketStore authBuckets;
+    private BucketStore redirectBuckets;
+    private BucketStore authenticatedBuckets;
+
+    @PostConstruct
+    public void initBucketStores() {
+        authBuckets = buildStore("rate-limit.auth",
+                authCapacity, authRefillTokens, authRefillDurationSeconds);
+        redirectBuckets = buildStore("rate-limit.redirect",
+                redirectCapacity, redirectRefillTokens, redirectRefillDurationSeconds);
+        authenticatedBuckets = buildStore("rate-limit.authenticated",
+                authenticatedCapacity, authenticatedRefillTokens, authenticatedRefillDurationSeconds);
+    }
+
+    /**
+     * Takes one token for the key in the given tier. With {@code rate-limit.distributed.enabled} the
+     * bucket is shared by all nodes through Redis; otherwise, or while Redis is unreachable, the
+     * local bucket is used.
+     */
+    public ConsumptionProbe tryConsume(RateLimitTier tier, String key) {
+        RedisRateLimiter distributed = redisRateLimiter.getIfAvailable();
+        if (distributed != null) {
+            ConsumptionProbe probe = switch (tier) {
+                case AUTH -> distributed.tryConsume(tier, key,
+                        authCapacity, authRefillTokens, authRefillDurationSeconds);
+                case REDIRECT -> distributed.tryConsume(tier, key,
+                        redirectCapacity, redirectRefillTokens, redirectRefillDurationSeconds);
+                case AUTHENTICATED -> distributed.tryConsume(tier, key,
+                        authenticatedCapacity, authenticatedRefillTokens, authenticatedRefillDurationSeconds);
+            };
+            if (probe != null) {
+                return probe;
+            }
+        }
+
+        Bucket bucket = switch (tier) {
+            case AUTH -> resolveAuthBucket(key);
+            case REDIRECT -> resolveRedirectBucket(key);
+            case AUTHENTICATED -> resolveAuthenticatedBucket(key);
+        };
+        return bucket.tryConsumeAndReturnRemaining(1);
+    }
 
     /**
      * Resolves (or creates) a rate limit bucket for auth endpoints, keyed by IP.
      */
     public Bucket resolveAuthBucket(String ip) {
-        return authBuckets.computeIfAbsent(ip, k -> buildBucket(authCapacity, authRefillTokens, authRefillDurationSeconds));
+        return authBuckets.resolve(ip);
     }
 
     /**
      * Resolves (or creates) a rate limit bucket for redirect endpoints, keyed by IP.
      */
     public Bucket resolveRedirectBucket(String ip) {
-        return redirectBuckets.computeIfAbsent(ip, k -> buildBucket(redirectCapacity, redirectRefillTokens, redirectRefillDurationSeconds));
+        return redirectBuckets.resolve(ip);
     }
 
     /**
      * Resolves (or creates) a rate limit bucket for authenticated API endpoints, keyed by username.
      */
     public Bucket resolveAuthenticatedBucket(String username) {
-        return authenticatedBuckets.computeIfAbsent(username, k -> buildBucket(authenticatedCapacity, authenticatedRefillTokens, authenticatedRefillDurationSeconds));
+        return authenticatedBuckets.resolve(username);
+    }
+
+    private BucketStore buildStore(String name, int capacity, int refillTokens, int refillDurationSeconds) {
+        // An idle bucket is only evicted once it would have refilled completely
+        long refillPeriods = Math.ceilDiv((long) capacity, refillTokens);
+        Duration timeToFull = Duration.ofSeconds(refillDurationSeconds).multipliedBy(Math.max(1, refillPeriods));
+        return new BucketStore(name, bucketStoreMaximumSize, timeToFull,
+                () -> buildBucket(capacity, refillTokens, refillDurationSeconds), meterRegistry.getIfAvailable());
     }
 
     private Bucket buildBucket(int capacity, int refillTokens, int refillDurationSeconds) {
@@ -0,0 +1,70 @@
+package com.razorquake.razorlinks.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Maps a request to its rate limit tier using path-prefix rules compiled once at startup.
+ * <p>
+ * Rules are written as {@code [METHOD ]prefix=TIER}, separated by commas, for example
+ * {@code POST /api/urls/shorten=AUTHENTICATED, /api/auth/public=AUTH}. The longest matching prefix
+ * wins, and a rule with a method beats one without for the same prefix. Requests that match no
+ * rule fall into the default tier. Resolving a tier does not allocate.
+ */
+public final class RateLimitPolicy {
+
+    public static final String DEFAULT_ROUTES = "/api/auth/public=AUTH,/api/=AUTHENTICATED";
+
+    private static final Comparator<Rule> MOST_SPECIFIC_FIRST = Comparator
+            .comparingInt((Rule rule) -> rule.prefix().length()).reversed()
+            .thenComparing(rule -> rule.method() == null);
+
+    private final Rule[] rules;
+    private final RateLimitTier defaultTier;
+
+    private RateLimitPolicy(Rule[] rules, RateLimitTier defaultTier) {
+        this.rules = rules;
+        this.defaultTier = defaultTier;
+    }
+
+    public static RateLimitPolicy compile(String routes, RateLimitTier defaultTier) {
+        List<Rule> rules = new ArrayList<>();
+        for (String entry : routes.split(",")) {
+            String route = entry.strip();
+            if (route.isEmpty()) {
+                continue;
+            }
+
+            int equals = route.lastIndexOf('=');
+            if (equals <= 0 || equals == route.length() - 1) {
+                throw new IllegalArgumentException("Invalid rate limit route '" + route + "', expected [METHOD ]prefix=TIER");
+            }
+            String target = route.substring(0, equals).strip();
+            RateLimitTier tier = RateLimitTier.valueOf(route.substring(equals + 1).strip().toUpperCase(Locale.ROOT));
+
+            int space = target.indexOf(' ');
+            String method = space < 0 ? null : target.substring(0, space).toUpperCase(Locale.ROOT);
+            String prefix = space < 0 ? target : target.substring(space + 1).strip();
+            if (!prefix.startsWith("/")) {
+                throw new IllegalArgumentException("Rate limit route prefix must start with '/': " + route);
+            }
+            rules.add(new Rule(method, prefix, tier));
+        }
+        rules.sort(MOST_SPECIFIC_FIRST);
+        return new RateLimitPolicy(rules.toArray(Rule[]::new), defaultTier);
+    }
+
+    public RateLimitTier resolve(String method, String path) {
+        for (Rule rule : rules) {
+            if (path.startsWith(rule.prefix()) && (rule.method() == null || rule.method().equalsIgnoreCase(method))) {
+                return rule.tier();
+            }
+        }
+        return defaultTier;
+    }
+
+    private record Rule(String method, String prefix, RateLimitTier tier) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.razorquake.razorlinks.config;
+
+public enum RateLimitTier {
+    /** Public auth endpoints and unauthenticated API calls, keyed by IP. */
+    AUTH,
+    /** Redirects and other public pages, keyed by IP. */
+    REDIRECT,
+    /** Authenticated API endpoints, keyed by username. */
+    AUTHENTICATED
+}
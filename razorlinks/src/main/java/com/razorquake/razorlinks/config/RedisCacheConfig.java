@@ -1,10 +1,20 @@
 package com.razorquake.razorlinks.config;
 
+import com.razorquake.razorlinks.cache.NearCacheManager;
 import com.razorquake.razorlinks.dtos.UrlRedirectCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -14,6 +24,15 @@ import java.time.Duration;
 @EnableCaching
 public class RedisCacheConfig {
 
+    @Value("${redirect-cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${redirect-cache.near.ttl-seconds:60}")
+    private long nearCacheTtlSeconds;
+
+    @Value("${redirect-cache.invalidation-channel:razorlinks:cache-invalidation}")
+    private String invalidationChannel;
+
     @Bean
     public RedisCacheConfiguration redisCacheConfiguration() {
         JacksonJsonRedisSerializer<UrlRedirectCache> serializer =
@@ -25,4 +44,38 @@ public class RedisCacheConfig {
                         RedisSerializationContext.SerializationPair.fromSerializer(serializer)
                 );
     }
+
+    /**
+     * Redis remains the shared tier; every cache gets a bounded in-process near cache in front of it.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public NearCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                         RedisCacheConfiguration redisCacheConfiguration,
+                                         StringRedisTemplate stringRedisTemplate,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new NearCacheManager(
+                redisCacheManager,
+                stringRedisTemplate,
+                invalidationChannel,
+                nearCacheMaximumSize,
+                Duration.ofSeconds(nearCacheTtlSeconds),
+                meterRegistry.getIfAvailable()
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            NearCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return container;
+    }
 }
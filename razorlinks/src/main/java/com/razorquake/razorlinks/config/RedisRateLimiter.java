@@ -0,0 +1,200 @@
+package com.razorquake.razorlinks.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.ConsumptionProbe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets shared by all nodes, kept in Redis and updated atomically by a Lua script.
+ * <p>
+ * To keep Redis off the path of most requests, a node leases a few tokens at a time and hands
+ * them out locally until they run out or the lease lapses, so the shared limit is never exceeded.
+ * Each key starts with a lease of one token. The lease doubles when it is used up before it lapses,
+ * up to a tenth of the tier's capacity, and halves when it lapses; tokens left in a lapsed lease
+ * are given back with the next lease. A client slower than one request per lease therefore pays
+ * one token per request. A rejection is remembered locally until the bucket would have a token again.
+ * <p>
+ * When Redis cannot be reached, {@link #tryConsume} returns {@code null} and callers fall back
+ * to local buckets; Redis is not tried again until {@code rate-limit.distributed.retry-after-failure-ms}
+ * has passed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limit.distributed.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RedisRateLimiter {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    // Gives back the unused tokens of a lapsed lease, then takes up to the requested tokens.
+    // Returns {granted, tokens left in Redis, millis until the next token if nothing was granted}
+    private static final RedisScript<List> TAKE_TOKENS_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local refill_tokens = tonumber(ARGV[2])
+            local refill_ms = tonumber(ARGV[3])
+            local requested = tonumber(ARGV[4])
+            local returned = tonumber(ARGV[5])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1])
+            local ts = tonumber(state[2])
+            if tokens == nil or ts == nil then
+                tokens = capacity
+                ts = now
+            end
+            if now > ts then
+                tokens = math.min(capacity, tokens + (now - ts) * refill_tokens / refill_ms)
+                ts = now
+            end
+            tokens = math.min(capacity, tokens + returned)
+            local granted = math.min(requested, math.floor(tokens))
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))
+            redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) * refill_ms / refill_tokens) + 1000)
+            local wait = 0
+            if granted == 0 then
+                wait = math.ceil((1 - tokens) * refill_ms / refill_tokens)
+            end
+            return {granted, math.floor(tokens), wait}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${rate-limit.distributed.max-lease-size:10}")
+    private int maxLeaseSize;
+
+    @Value("${rate-limit.distributed.lease-ttl-ms:1000}")
+    private long leaseTtlMs;
+
+    @Value("${rate-limit.distributed.retry-after-failure-ms:5000}")
+    private long retryAfterFailureMs;
+
+    @Value("${rate-limit.bucket-store.maximum-size:100000}")
+    private long maximumLeases;
+
+    private volatile Cache<String, Lease> leases;
+    private volatile long unavailableUntil;
+    private volatile boolean unavailable;
+
+    /**
+     * Takes one token from the shared bucket, or returns {@code null} if Redis is unavailable.
+     */
+    public ConsumptionProbe tryConsume(RateLimitTier tier, String key,
+                                       int capacity, int refillTokens, int refillDurationSeconds) {
+        long now = System.nanoTime();
+        if (unavailable) {
+            if (now - unavailableUntil < 0) {
+                return null;
+            }
+            unavailable = false;
+        }
+
+        String redisKey = KEY_PREFIX + tier.name().toLowerCase(Locale.ROOT) + ":" + key;
+        Lease lease = leases().get(redisKey, k -> new Lease(now));
+        // A lock rather than synchronized: the Redis call below would pin a virtual thread to its carrier
+        lease.lock.lock();
+        try {
+            if (lease.tokens > 0 && now - lease.expiresAt < 0) {
+                lease.tokens--;
+                return ConsumptionProbe.consumed(lease.remainingInRedis + lease.tokens, 0);
+            }
+            if (now - lease.deniedUntil < 0) {
+                long wait = lease.deniedUntil - now;
+                return ConsumptionProbe.rejected(0, wait, wait);
+            }
+
+            // Used up before it lapsed: the client is fast enough for a bigger lease
+            boolean usedUp = lease.tokens == 0 && now - lease.expiresAt < 0;
+            int maxSize = Math.max(1, Math.min(maxLeaseSize, capacity / 10));
+            int leaseSize = Math.min(maxSize, usedUp ? lease.size * 2 : Math.max(1, lease.size / 2));
+            List<?> result;
+            try {
+                result = redisTemplate.execute(TAKE_TOKENS_SCRIPT, List.of(redisKey),
+                        String.valueOf(capacity),
+                        String.valueOf(refillTokens),
+                        String.valueOf(TimeUnit.SECONDS.toMillis(refillDurationSeconds)),
+                        String.valueOf(leaseSize),
+                        String.valueOf(lease.tokens));
+            } catch (DataAccessException e) {
+                markUnavailable(now, e);
+                return null;
+            }
+            if (result == null || result.size() < 3) {
+                markUnavailable(now, null);
+                return null;
+            }
+
+            long granted = ((Number) result.get(0)).longValue();
+            long remaining = ((Number) result.get(1)).longValue();
+            lease.size = leaseSize;
+            if (granted > 0) {
+                lease.tokens = granted - 1;
+                lease.remainingInRedis = remaining;
+                lease.expiresAt = now + TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+                return ConsumptionProbe.consumed(remaining + lease.tokens, 0);
+            }
+
+            long wait = TimeUnit.MILLISECONDS.toNanos(((Number) result.get(2)).longValue());
+            lease.tokens = 0;
+            lease.deniedUntil = now + Math.min(wait, TimeUnit.MILLISECONDS.toNanos(leaseTtlMs));
+            return ConsumptionProbe.rejected(remaining, wait, wait);
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    private Cache<String, Lease> leases() {
+        Cache<String, Lease> cache = leases;
+        if (cache == null) {
+            synchronized (this) {
+                cache = leases;
+                if (cache == null) {
+                    cache = Caffeine.newBuilder()
+                            .maximumSize(maximumLeases)
+                            .expireAfterAccess(Duration.ofMillis(leaseTtlMs))
+                            .build();
+                    leases = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    private void markUnavailable(long now, DataAccessException e) {
+        if (!unavailable) {
+            log.warn("Redis rate limiting unavailable, using local buckets for {} ms", retryAfterFailureMs, e);
+        }
+        unavailableUntil = now + TimeUnit.MILLISECONDS.toNanos(retryAfterFailureMs);
+        unavailable = true;
+    }
+
+    private static final class Lease {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long tokens;
+        private int size = 1;
+        private long remainingInRedis;
+        private long expiresAt;
+        private long deniedUntil;
+
+        private Lease(long now) {
+            this.expiresAt = now;
+            this.deniedUntil = now;
+        }
+    }
+}
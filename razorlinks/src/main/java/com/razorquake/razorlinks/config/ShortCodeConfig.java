@@ -0,0 +1,35 @@
+package com.razorquake.razorlinks.config;
+
+import com.razorquake.razorlinks.repository.UrlMappingRepository;
+import com.razorquake.razorlinks.service.shortcode.BlockShortCodeGenerator;
+import com.razorquake.razorlinks.service.shortcode.JdbcShortCodeBlockAllocator;
+import com.razorquake.razorlinks.service.shortcode.RandomShortCodeGenerator;
+import com.razorquake.razorlinks.service.shortcode.ShortCodeGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class ShortCodeConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "short-code.generator", havingValue = "random", matchIfMissing = true)
+    public ShortCodeGenerator randomShortCodeGenerator(
+            UrlMappingRepository urlMappingRepository,
+            @Value("${short-code.random.source:THREAD_LOCAL}") RandomShortCodeGenerator.Source source,
+            @Value("${short-code.random.max-attempts:5}") int maxAttempts) {
+        return new RandomShortCodeGenerator(source, urlMappingRepository::existsByShortUrl, maxAttempts);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "short-code.generator", havingValue = "block")
+    public ShortCodeGenerator blockShortCodeGenerator(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${short-code.block.size:1000}") int blockSize) {
+        return new BlockShortCodeGenerator(new JdbcShortCodeBlockAllocator(jdbcTemplate, transactionTemplate), blockSize);
+    }
+}
@@ -0,0 +1,107 @@
+package com.razorquake.razorlinks.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, from the JFR
+ * {@code jdk.VirtualThreadPinned} event. On Java 21 a virtual thread that blocks inside
+ * {@code synchronized} holds its carrier, so enough of them stall every virtual thread in the JVM.
+ * <p>
+ * Each pinning is counted in {@code razorlinks.virtual-threads.pinned}, tagged with the innermost
+ * frame of our own code, which is where a {@code synchronized} block would need to become a
+ * {@code ReentrantLock}. The first pinning at each site is logged with its stack.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String APPLICATION_PACKAGE = "com.razorquake.razorlinks.";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    @Value("${virtual-threads.pinning-monitor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${virtual-threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for {} ms or longer", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<String> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames().stream()
+                .map(VirtualThreadPinningMonitor::describe)
+                .toList();
+        recordPinning(frames, event.getDuration());
+    }
+
+    void recordPinning(List<String> frames, Duration duration) {
+        String site = pinningSite(frames);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Counter.builder("razorlinks.virtual-threads.pinned")
+                    .description("Virtual threads pinned to their carrier beyond the reporting threshold")
+                    .tag("site", site)
+                    .register(registry)
+                    .increment();
+        }
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\t{}", duration.toMillis(), site,
+                    String.join("\n\t", frames));
+        }
+    }
+
+    /**
+     * The innermost frame of our own code, or the innermost frame if the pinning happened entirely
+     * in library code.
+     */
+    static String pinningSite(List<String> frames) {
+        return frames.stream()
+                .filter(frame -> frame.startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(frames.isEmpty() ? "unknown" : frames.getFirst());
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
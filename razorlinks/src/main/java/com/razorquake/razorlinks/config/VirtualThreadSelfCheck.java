@@ -0,0 +1,116 @@
+package com.razorquake.razorlinks.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Sizes the connection pool wait for virtual threads, and checks at startup that
+ * {@code spring.threads.virtual.enabled} took effect for the async executor and the
+ * {@code @Scheduled} jobs.
+ * <p>
+ * With virtual threads, Tomcat no longer caps concurrent requests at its worker pool; they are
+ * bounded by {@code server.tomcat.max-connections} instead, and the Hikari pool becomes the limit on
+ * database work. During a database stall every request then waits on the pool for up to
+ * {@code spring.datasource.hikari.connection-timeout}, so a long timeout lets thousands of requests
+ * pile up where the platform pool used to turn them away. The timeout is therefore lowered to
+ * {@code virtual-threads.max-connection-wait-ms} as soon as the pool exists, before requests arrive.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadSelfCheck {
+
+    private final TaskExecutor taskExecutor;
+    private final TaskScheduler taskScheduler;
+    private final DataSource dataSource;
+
+    @Value("${server.tomcat.max-connections:8192}")
+    private int maxConnections;
+
+    @Value("${virtual-threads.max-connection-wait-ms:5000}")
+    private long maxConnectionWaitMs;
+
+    public VirtualThreadSelfCheck(@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                  TaskScheduler taskScheduler, DataSource dataSource) {
+        this.taskExecutor = taskExecutor;
+        this.taskScheduler = taskScheduler;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void limitConnectionWait() {
+        HikariDataSource hikari = hikari();
+        if (hikari == null) {
+            return;
+        }
+
+        if (hikari.getConnectionTimeout() > maxConnectionWaitMs) {
+            log.info("Lowering spring.datasource.hikari.connection-timeout from {} ms to {} ms for virtual threads",
+                    hikari.getConnectionTimeout(), maxConnectionWaitMs);
+            hikari.setConnectionTimeout(maxConnectionWaitMs);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        boolean asyncVirtual = runsOnVirtualThread(taskExecutor::execute);
+        boolean scheduledVirtual = runsOnVirtualThread(task -> taskScheduler.schedule(task, Instant.now()));
+        if (asyncVirtual && scheduledVirtual) {
+            log.info("Virtual threads enabled for requests, async tasks and scheduled jobs");
+        } else {
+            log.warn("Virtual threads are enabled but {} run on platform threads",
+                    !asyncVirtual && !scheduledVirtual ? "async tasks and scheduled jobs"
+                            : !asyncVirtual ? "async tasks" : "scheduled jobs");
+        }
+        checkConnectionPool();
+    }
+
+    void checkConnectionPool() {
+        HikariDataSource hikari = hikari();
+        if (hikari == null) {
+            return;
+        }
+
+        log.info("Up to {} concurrent requests share {} database connections, waiting at most {} ms for one",
+                maxConnections, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    static boolean runsOnVirtualThread(Consumer<Runnable> submit) {
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        submit.accept(() -> virtual.complete(Thread.currentThread().isVirtual()));
+        try {
+            return virtual.get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.razorquake.razorlinks.controller;
 
+import com.razorquake.razorlinks.dtos.CursorPage;
 import com.razorquake.razorlinks.dtos.UserDTO;
 import com.razorquake.razorlinks.dtos.UserFilter;
 import com.razorquake.razorlinks.models.Role;
+import com.razorquake.razorlinks.service.ClickRollupService;
 import com.razorquake.razorlinks.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -26,6 +28,7 @@ import java.util.List;
 public class AdminController {
 
     private final UserService userService;
+    private final ClickRollupService clickRollupService;
 
     @GetMapping("/get-users")
     @Operation(summary = "Get users", description = "Returns a paginated list of users with optional admin filters.")
@@ -39,6 +42,20 @@ public class AdminController {
                 HttpStatus.OK);
     }
 
+    @GetMapping("/get-users/cursor")
+    @Operation(summary = "Get users by cursor",
+            description = "Returns one page of users after the given cursor, with the same filters as /get-users. "
+                    + "Pass nextCursor from the response to get the following page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Users fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "403", description = "Admin role required")
+    })
+    public ResponseEntity<CursorPage<UserDTO>> scrollUsers(@ModelAttribute @ParameterObject UserFilter filter) {
+        return ResponseEntity.ok(userService.scrollUsers(filter));
+    }
+
     @PutMapping("/update-role")
     public ResponseEntity<String> updateUserRole(@RequestParam Long userId,
                                                  @RequestParam String roleName) {
@@ -94,4 +111,12 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
+
+    @PostMapping("/click-rollups/backfill")
+    @Operation(summary = "Backfill daily click rollups",
+            description = "Rebuilds the daily click rollup rows for all days before today that still have raw click events, a month at a time, except in months already pruned by retention.")
+    public ResponseEntity<String> backfillClickRollups() {
+        int rows = clickRollupService.backfill();
+        return ResponseEntity.ok("Backfilled " + rows + " daily click rollup rows");
+    }
 }
@@ -1,17 +1,23 @@
 package com.razorquake.razorlinks.controller;
 
 import com.razorquake.razorlinks.dtos.AuditLogFilter;
+import com.razorquake.razorlinks.dtos.CursorPage;
 import com.razorquake.razorlinks.models.AuditLog;
 import com.razorquake.razorlinks.service.AuditLogService;
+import com.razorquake.razorlinks.service.ExportService;
+import com.razorquake.razorlinks.service.export.ExportFormat;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/audit")
@@ -19,15 +25,29 @@ import org.springframework.web.bind.annotation.RestController;
 @PreAuthorize("hasRole('ROLE_ADMIN')")
 public class AuditController {
     private final AuditLogService auditLogService;
+    private final ExportService exportService;
 
     @GetMapping
     public Page<AuditLog> getAllAuditLogs(@ModelAttribute @ParameterObject AuditLogFilter filter) {
         return auditLogService.getAllAuditLogs(filter);
     }
 
+    @GetMapping("/cursor")
+    public CursorPage<AuditLog> scrollAuditLogs(@ModelAttribute @ParameterObject AuditLogFilter filter) {
+        return auditLogService.scrollAuditLogs(filter);
+    }
+
     @GetMapping("/urls/{id}")
     public Page<AuditLog> getAuditLogsByUrlId(@PathVariable Long id,
                                               @ModelAttribute @ParameterObject AuditLogFilter filter) {
         return auditLogService.getAuditLogsByUrlId(id, filter);
     }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(@ModelAttribute @ParameterObject AuditLogFilter filter,
+                                                                 @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                                 @RequestParam(defaultValue = "false") boolean gzip) {
+        return ExportResponses.download("audit-logs", format, gzip,
+                out -> exportService.writeAuditLogs(filter, format, out));
+    }
 }
@@ -0,0 +1,39 @@
+package com.razorquake.razorlinks.controller;
+
+import com.razorquake.razorlinks.service.export.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds file download responses for streamed exports, optionally gzip-compressed.
+ */
+final class ExportResponses {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private ExportResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> download(String baseName, ExportFormat format, boolean gzip,
+                                                          StreamingResponseBody body) {
+        String filename = baseName + "." + format.getExtension() + (gzip ? ".gz" : "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment().filename(filename).build());
+        headers.setContentType(gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"));
+
+        StreamingResponseBody responseBody = !gzip ? body : out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            body.writeTo(compressed);
+            // Writes the gzip trailer; the response stream itself is closed by the container
+            compressed.finish();
+        };
+        return ResponseEntity.ok().headers(headers).body(responseBody);
+    }
+}
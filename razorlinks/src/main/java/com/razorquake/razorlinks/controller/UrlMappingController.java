@@ -3,24 +3,41 @@ package com.razorquake.razorlinks.controller;
 import com.google.zxing.WriterException;
 import com.razorquake.razorlinks.dtos.ClickAnalyticsFilter;
 import com.razorquake.razorlinks.dtos.ClickEventDTO;
+import com.razorquake.razorlinks.dtos.CursorPage;
+import com.razorquake.razorlinks.dtos.LinkDeletionResult;
 import com.razorquake.razorlinks.dtos.UrlMappingDTO;
 import com.razorquake.razorlinks.dtos.UrlMappingFilter;
+import com.razorquake.razorlinks.models.UrlMapping;
 import com.razorquake.razorlinks.models.User;
-import com.razorquake.razorlinks.service.QRCodeService;
+import com.razorquake.razorlinks.service.ExportService;
+import com.razorquake.razorlinks.service.QRCodeCache;
 import com.razorquake.razorlinks.service.UrlMappingService;
 import com.razorquake.razorlinks.service.UserService;
+import com.razorquake.razorlinks.service.bulk.BulkShortenInput;
+import com.razorquake.razorlinks.service.bulk.BulkShortenService;
+import com.razorquake.razorlinks.service.bulk.LinkDeletionService;
+import com.razorquake.razorlinks.service.export.ExportFormat;
+import com.razorquake.razorlinks.service.export.ExportWriter;
+import com.razorquake.razorlinks.service.qr.QRCodeFormat;
+import com.razorquake.razorlinks.service.qr.QRCodeImage;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.security.Principal;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -29,9 +46,20 @@ import java.util.Map;
 @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
 public class UrlMappingController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final UrlMappingService urlMappingService;
     private final UserService userService;
-    private final QRCodeService qrCodeService;
+    private final QRCodeCache qrCodeCache;
+    private final ExportService exportService;
+    private final BulkShortenService bulkShortenService;
+    private final LinkDeletionService linkDeletionService;
+
+    @Value("${qr.cache-control.max-age-seconds:86400}")
+    private long qrMaxAgeSeconds;
+
+    @Value("${link-deletion.max-links:1000}")
+    private int maxDeleteLinks;
 
     @PostMapping("/shorten")
     public ResponseEntity<UrlMappingDTO> createShortUrl(
@@ -43,6 +71,28 @@ public class UrlMappingController {
         return ResponseEntity.ok(urlMappingDTO);
     }
 
+    /**
+     * Shortens every URL in a JSON array (of URL strings or {@code {"originalUrl": ...}} objects) or in a
+     * CSV file with one URL per line. The body is read as it arrives, and one result row per URL is
+     * streamed back in the requested format as each chunk of links is committed.
+     */
+    @PostMapping(value = "/shorten/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<StreamingResponseBody> bulkShorten(
+            HttpServletRequest request,
+            Principal principal,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format
+    ) {
+        User user = userService.findByUsername(principal.getName());
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(TEXT_CSV);
+        return ExportResponses.download("shortened-links", format, false, out -> {
+            Iterator<String> originalUrls = csv
+                    ? BulkShortenInput.csv(request.getInputStream())
+                    : BulkShortenInput.json(request.getInputStream());
+            bulkShortenService.shorten(originalUrls, user,
+                    ExportWriter.open(format, out, BulkShortenService.RESULT_COLUMNS));
+        });
+    }
+
     @GetMapping("/myurls")
     public ResponseEntity<Page<UrlMappingDTO>> getMyUrls(
             Principal principal,
@@ -52,6 +102,15 @@ public class UrlMappingController {
         return ResponseEntity.ok(urlMappingService.getUrlsByUser(user, filter));
     }
 
+    @GetMapping("/myurls/cursor")
+    public ResponseEntity<CursorPage<UrlMappingDTO>> scrollMyUrls(
+            Principal principal,
+            @ModelAttribute @ParameterObject UrlMappingFilter filter
+    ){
+        User user = userService.findByUsername(principal.getName());
+        return ResponseEntity.ok(urlMappingService.scrollUrlsByUser(user, filter));
+    }
+
     @GetMapping("/analytics/{shortUrl}")
     public ResponseEntity<Page<ClickEventDTO>> getUrlAnalytics(
             @PathVariable String shortUrl,
@@ -60,6 +119,23 @@ public class UrlMappingController {
         return ResponseEntity.ok(urlMappingService.getClickEventByDate(shortUrl, filter));
     }
 
+    @GetMapping("/analytics/{shortUrl}/export")
+    public ResponseEntity<StreamingResponseBody> exportClickEvents(
+            @PathVariable String shortUrl,
+            Principal principal,
+            @ModelAttribute @ParameterObject ClickAnalyticsFilter filter,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        User user = userService.findByUsername(principal.getName());
+        UrlMapping urlMapping = urlMappingService.findOwnedUrlMapping(shortUrl, user);
+        if (urlMapping == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ExportResponses.download("clicks-" + shortUrl, format, gzip,
+                out -> exportService.writeClickEvents(urlMapping.getId(), filter, format, out));
+    }
+
     @GetMapping("/totalClicks")
     public ResponseEntity<Page<ClickEventDTO>> getTotalClicksByDate(
             Principal principal,
@@ -78,19 +154,40 @@ public class UrlMappingController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Deletes up to {@code link-deletion.max-links} of the user's links. Links with many clicks are
+     * reported as deleting: they stop redirecting at once and their clicks are removed in the background.
+     */
+    @PostMapping("/delete/bulk")
+    public ResponseEntity<LinkDeletionResult> bulkDelete(
+            @RequestBody List<String> shortUrls, Principal principal
+    ) {
+        if (shortUrls.size() > maxDeleteLinks) {
+            return ResponseEntity.badRequest().build();
+        }
+        User user = userService.findByUsername(principal.getName());
+        return ResponseEntity.ok(linkDeletionService.delete(shortUrls, user));
+    }
+
+    /**
+     * The size is rounded to one of the cached sizes. A request whose If-None-Match matches the
+     * ETag gets a 304 without a body.
+     */
     @GetMapping("/qr/{shortUrl}")
     public ResponseEntity<byte[]> getQRCode(
             @PathVariable String shortUrl,
-            @RequestParam(defaultValue = "300") int size
+            @RequestParam(defaultValue = "300") int size,
+            @RequestParam(defaultValue = "PNG") QRCodeFormat format
     ) {
         try {
-            byte[] qrCode = qrCodeService.generateQRCode(shortUrl, size, size);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentLength(qrCode.length);
+            QRCodeImage qrCode = qrCodeCache.get(shortUrl, size, format);
 
-            return new ResponseEntity<>(qrCode, headers, HttpStatus.OK);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(format.getMediaType()))
+                    .contentLength(qrCode.bytes().length)
+                    .eTag(qrCode.etag())
+                    .cacheControl(CacheControl.maxAge(Duration.ofSeconds(qrMaxAgeSeconds)).cachePrivate())
+                    .body(qrCode.bytes());
         } catch (WriterException | IOException e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -0,0 +1,11 @@
+package com.razorquake.razorlinks.dtos;
+
+import java.time.LocalDateTime;
+
+public record ClickRecord(
+        Long urlMappingId,
+        String shortUrl,
+        String username,
+        LocalDateTime clickDate
+) {
+}
@@ -0,0 +1,15 @@
+package com.razorquake.razorlinks.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of a cursor-paginated listing")
+public record CursorPage<T>(
+        List<T> content,
+        @Schema(description = "Pass as cursor to get the next page; null on the last page")
+        String nextCursor,
+        @Schema(description = "Number of matching records, only when includeTotal was requested")
+        Long totalElements
+) {
+}
@@ -0,0 +1,12 @@
+package com.razorquake.razorlinks.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of a per-day click total, as returned by the analytics queries.
+ */
+public interface DailyClickCount {
+    LocalDate getClickDate();
+
+    Long getClickCount();
+}
@@ -0,0 +1,16 @@
+package com.razorquake.razorlinks.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of deleting a set of links")
+public record LinkDeletionResult(
+        @Schema(description = "Short URLs deleted together with their clicks")
+        List<String> deleted,
+        @Schema(description = "Short URLs that no longer redirect and whose clicks are deleted in the background")
+        List<String> deleting,
+        @Schema(description = "Short URLs that do not exist or belong to another user")
+        List<String> notFound
+) {
+}
@@ -16,4 +16,10 @@ public class PageFilter {
 
     @Schema(description = "Number of records per page", example = "10", defaultValue = "10")
     private int size = 10;
+
+    @Schema(description = "Continuation token from the previous page; cursor endpoints only")
+    private String cursor;
+
+    @Schema(description = "Also count all matching records; cursor endpoints only", defaultValue = "false")
+    private boolean includeTotal = false;
 }
@@ -0,0 +1,16 @@
+package com.razorquake.razorlinks.dtos;
+
+import com.razorquake.razorlinks.models.AppRole;
+
+public record UserStatus(
+        Long id,
+        AppRole role,
+        boolean accountNonLocked,
+        boolean accountNonExpired,
+        boolean credentialsNonExpired,
+        boolean enabled
+) {
+    public boolean isActive() {
+        return accountNonLocked && accountNonExpired && credentialsNonExpired && enabled;
+    }
+}
@@ -83,4 +83,20 @@ public class GlobalExceptionHandler {
         response.put("status", false);
         return new ResponseEntity<>(response, HttpStatus.TOO_MANY_REQUESTS);
     }
+
+    @ExceptionHandler(ShortCodeGenerationException.class)
+    public ResponseEntity<Map<String, Object>> handleShortCodeGenerationException(ShortCodeGenerationException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        response.put("status", false);
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(InvalidCursorException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        response.put("status", false);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
 }
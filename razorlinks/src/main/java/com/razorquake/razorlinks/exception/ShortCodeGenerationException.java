@@ -0,0 +1,7 @@
+package com.razorquake.razorlinks.exception;
+
+public class ShortCodeGenerationException extends RuntimeException {
+    public ShortCodeGenerationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.razorquake.razorlinks.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Number of clicks a link received on one day, maintained by the click ingestion writer
+ * so analytics never have to scan raw {@link ClickEvent} rows.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Table(
+        name = "clickDailyRollup",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"url_mapping_id", "click_day"})
+)
+public class ClickDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "url_mapping_id")
+    @ToString.Exclude
+    private UrlMapping urlMapping;
+
+    @Column(name = "click_day")
+    private LocalDate clickDay;
+    private long clickCount;
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Table(name = "clickEvents")
 public class ClickEvent {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "click_events_seq")
+    @SequenceGenerator(name = "click_events_seq", sequenceName = "click_events_seq", allocationSize = 50)
     private Long id;
     private LocalDateTime clickDate;
 
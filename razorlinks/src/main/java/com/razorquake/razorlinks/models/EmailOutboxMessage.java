@@ -0,0 +1,70 @@
+package com.razorquake.razorlinks.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting to be sent. It is written in the transaction that requested it and sent
+ * afterwards by the outbox dispatcher, which renders {@code template} with the JSON {@code params}
+ * and deletes the row once the mail server accepted the message.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+@Table(name = "emailOutbox")
+public class EmailOutboxMessage {
+
+    public enum Status {
+        PENDING,
+        /** Gave up after {@code email.outbox.max-attempts}; kept for inspection. */
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private String template;
+
+    @Column(length = 2000)
+    private String params;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public EmailOutboxMessage(String recipient, String subject, String template, String params, LocalDateTime now) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.template = template;
+        this.params = params;
+        this.status = Status.PENDING;
+        this.nextAttemptAt = now;
+        this.createdAt = now;
+    }
+}
@@ -0,0 +1,42 @@
+package com.razorquake.razorlinks.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Number of rows the retention job removed from one table for one month, per category
+ * (the audit action for {@code audit_logs}, {@code ALL} for {@code click_events}).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+@Table(
+        name = "retentionLog",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"table_name", "period_start", "category"})
+)
+public class RetentionLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "table_name")
+    private String tableName;
+
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Column(name = "category")
+    private String category;
+
+    private long rowCount;
+    private String method;
+    private LocalDateTime prunedAt;
+}
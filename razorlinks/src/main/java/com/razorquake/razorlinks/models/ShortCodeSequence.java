@@ -0,0 +1,24 @@
+package com.razorquake.razorlinks.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Counter row from which short code id blocks are reserved. Only accessed through JDBC.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Table(name = "shortCodeSequence")
+public class ShortCodeSequence {
+    @Id
+    private String name;
+    private long nextValue;
+}
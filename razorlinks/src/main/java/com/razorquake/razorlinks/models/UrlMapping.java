@@ -15,7 +15,8 @@ import java.util.List;
 @Table(name = "urlMapping")
 public class UrlMapping {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "url_mapping_seq")
+    @SequenceGenerator(name = "url_mapping_seq", sequenceName = "url_mapping_seq", allocationSize = 50)
     private Long id;
     private String originalUrl;
     @Column(unique = true)
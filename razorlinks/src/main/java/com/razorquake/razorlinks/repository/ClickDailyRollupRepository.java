@@ -0,0 +1,29 @@
+package com.razorquake.razorlinks.repository;
+
+import com.razorquake.razorlinks.dtos.DailyClickCount;
+import com.razorquake.razorlinks.models.ClickDailyRollup;
+import com.razorquake.razorlinks.models.UrlMapping;
+import com.razorquake.razorlinks.models.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ClickDailyRollupRepository extends JpaRepository<ClickDailyRollup, Long> {
+
+    @Query(value = "SELECT r.clickDay AS clickDate, r.clickCount AS clickCount FROM ClickDailyRollup r " +
+            "WHERE r.urlMapping = :urlMapping AND r.clickDay BETWEEN :startDay AND :endDay",
+            countQuery = "SELECT COUNT(r) FROM ClickDailyRollup r " +
+                    "WHERE r.urlMapping = :urlMapping AND r.clickDay BETWEEN :startDay AND :endDay")
+    Page<DailyClickCount> findDailyClicks(UrlMapping urlMapping, LocalDate startDay, LocalDate endDay, Pageable pageable);
+
+    @Query(value = "SELECT r.clickDay AS clickDate, SUM(r.clickCount) AS clickCount FROM ClickDailyRollup r " +
+            "WHERE r.urlMapping.user = :user AND r.clickDay BETWEEN :startDay AND :endDay GROUP BY r.clickDay",
+            countQuery = "SELECT COUNT(DISTINCT r.clickDay) FROM ClickDailyRollup r " +
+                    "WHERE r.urlMapping.user = :user AND r.clickDay BETWEEN :startDay AND :endDay")
+    Page<DailyClickCount> findDailyClicksByUser(User user, LocalDate startDay, LocalDate endDay, Pageable pageable);
+}
@@ -1,17 +1,31 @@
 package com.razorquake.razorlinks.repository;
 
+import com.razorquake.razorlinks.dtos.DailyClickCount;
 import com.razorquake.razorlinks.models.ClickEvent;
 import com.razorquake.razorlinks.models.UrlMapping;
+import com.razorquake.razorlinks.models.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Repository
 public interface ClickEventRepository extends JpaRepository<ClickEvent, Long> {
-    List<ClickEvent> findByUrlMappingAndClickDateBetween(UrlMapping urlMapping, LocalDateTime start, LocalDateTime end);
-    List<ClickEvent> findByUrlMappingInAndClickDateBetween(List<UrlMapping> urlMappings, LocalDateTime start, LocalDateTime end);
 
-    List<ClickEvent> findByUrlMapping(UrlMapping urlMapping);
+    @Query(value = "SELECT CAST(c.clickDate AS LocalDate) AS clickDate, COUNT(c) AS clickCount FROM ClickEvent c " +
+            "WHERE c.urlMapping = :urlMapping AND c.clickDate >= :start AND c.clickDate < :end " +
+            "GROUP BY CAST(c.clickDate AS LocalDate)",
+            countQuery = "SELECT COUNT(DISTINCT CAST(c.clickDate AS LocalDate)) FROM ClickEvent c " +
+                    "WHERE c.urlMapping = :urlMapping AND c.clickDate >= :start AND c.clickDate < :end")
+    Page<DailyClickCount> findDailyClicks(UrlMapping urlMapping, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(value = "SELECT CAST(c.clickDate AS LocalDate) AS clickDate, COUNT(c) AS clickCount FROM ClickEvent c " +
+            "WHERE c.urlMapping.user = :user AND c.clickDate >= :start AND c.clickDate < :end " +
+            "GROUP BY CAST(c.clickDate AS LocalDate)",
+            countQuery = "SELECT COUNT(DISTINCT CAST(c.clickDate AS LocalDate)) FROM ClickEvent c " +
+                    "WHERE c.urlMapping.user = :user AND c.clickDate >= :start AND c.clickDate < :end")
+    Page<DailyClickCount> findDailyClicksByUser(User user, LocalDateTime start, LocalDateTime end, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.razorquake.razorlinks.repository;
+
+import com.razorquake.razorlinks.models.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+}
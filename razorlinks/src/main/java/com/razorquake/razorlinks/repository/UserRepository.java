@@ -1,8 +1,11 @@
 package com.razorquake.razorlinks.repository;
 
+import com.razorquake.razorlinks.dtos.UserStatus;
 import com.razorquake.razorlinks.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,4 +17,9 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     Boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT new com.razorquake.razorlinks.dtos.UserStatus(u.id, r.roleName, u.accountNonLocked, " +
+            "u.accountNonExpired, u.credentialsNonExpired, u.enabled) " +
+            "FROM User u LEFT JOIN u.role r WHERE u.username = :username")
+    Optional<UserStatus> findStatusByUsername(@Param("username") String username);
 }
@@ -1,18 +1,19 @@
 package com.razorquake.razorlinks.security;
 
 import com.razorquake.razorlinks.config.RateLimitConfig;
-import io.github.bucket4j.Bucket;
+import com.razorquake.razorlinks.config.RateLimitPolicy;
+import com.razorquake.razorlinks.config.RateLimitTier;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,10 +22,19 @@ import java.io.IOException;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class RateLimitingFilter extends OncePerRequestFilter {
 
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+
     private final RateLimitConfig rateLimitConfig;
+    private final RateLimitPolicy rateLimitPolicy;
+
+    public RateLimitingFilter(RateLimitConfig rateLimitConfig,
+                              @Value("${rate-limit.routes:" + RateLimitPolicy.DEFAULT_ROUTES + "}") String routes,
+                              @Value("${rate-limit.default-tier:REDIRECT}") RateLimitTier defaultTier) {
+        this.rateLimitConfig = rateLimitConfig;
+        this.rateLimitPolicy = RateLimitPolicy.compile(routes, defaultTier);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -43,40 +53,31 @@ public class RateLimitingFilter extends OncePerRequestFilter {
                 && !"anonymousUser".equals(authentication.getPrincipal());
 
         // Admin users are exempt from rate limiting
-        if (isAuthenticated && authentication.getAuthorities()
-                .contains(new SimpleGrantedAuthority("ROLE_ADMIN"))) {
+        if (isAuthenticated && isAdmin(authentication)) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        // Determine the bucket key and resolve the correct bucket
+        // Determine the tier from the compiled route rules, then the bucket key
         String requestPath = request.getRequestURI();
-        Bucket bucket;
+        RateLimitTier tier = rateLimitPolicy.resolve(request.getMethod(), requestPath);
         String bucketKey;
 
-        if (requestPath.startsWith("/api/auth/public")) {
-            // Public auth endpoints — rate limit by IP
+        if (tier == RateLimitTier.AUTHENTICATED && isAuthenticated) {
+            // Authenticated API endpoints — rate limit by username
+            bucketKey = authentication.getName();
+        } else if (tier == RateLimitTier.AUTHENTICATED) {
+            // Unauthenticated request to a protected endpoint — still apply IP-based limit
+            // (Spring Security will reject it later with 401, but we prevent abuse)
             bucketKey = resolveClientIp(request);
-            bucket = rateLimitConfig.resolveAuthBucket(bucketKey);
-        } else if (requestPath.startsWith("/api/")) {
-            // Authenticated API endpoints — rate limit by username (or IP as fallback)
-            if (isAuthenticated) {
-                bucketKey = authentication.getName();
-                bucket = rateLimitConfig.resolveAuthenticatedBucket(bucketKey);
-            } else {
-                // Unauthenticated request to a protected endpoint — still apply IP-based limit
-                // (Spring Security will reject it later with 401, but we prevent abuse)
-                bucketKey = resolveClientIp(request);
-                bucket = rateLimitConfig.resolveAuthBucket(bucketKey);
-            }
+            tier = RateLimitTier.AUTH;
         } else {
-            // Everything else (redirect /{shortUrl}, etc.) — rate limit by IP
+            // Public auth endpoints, redirects and everything else — rate limit by IP
             bucketKey = resolveClientIp(request);
-            bucket = rateLimitConfig.resolveRedirectBucket(bucketKey);
         }
 
         // Try to consume a token
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        ConsumptionProbe probe = rateLimitConfig.tryConsume(tier, bucketKey);
 
         if (probe.isConsumed()) {
             // Request allowed — add rate limit headers and proceed
@@ -99,6 +100,15 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         }
     }
 
+    private static boolean isAdmin(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ADMIN_ROLE.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Extracts the real client IP from the X-Forwarded-For header (for AWS CloudFront/ALB).
      * Falls back to request.getRemoteAddr() for direct connections (local dev).
@@ -107,14 +117,33 @@ public class RateLimitingFilter extends OncePerRequestFilter {
      * We take the first (leftmost) IP which is the original client.
      */
     private String resolveClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            // Take the first IP (original client)
-            String clientIp = xForwardedFor.split(",")[0].trim();
-            if (!clientIp.isEmpty()) {
-                return clientIp;
-            }
+        String clientIp = firstForwardedAddress(request.getHeader("X-Forwarded-For"));
+        return clientIp != null ? clientIp : request.getRemoteAddr();
+    }
+
+    /**
+     * Returns the first entry of an X-Forwarded-For value, or {@code null} if it is empty. Scans the
+     * header in place and only allocates when the entry is not already the whole header.
+     */
+    static String firstForwardedAddress(String xForwardedFor) {
+        if (xForwardedFor == null) {
+            return null;
+        }
+
+        int end = xForwardedFor.indexOf(',');
+        if (end < 0) {
+            end = xForwardedFor.length();
+        }
+        int start = 0;
+        while (start < end && Character.isWhitespace(xForwardedFor.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(xForwardedFor.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return null;
         }
-        return request.getRemoteAddr();
+        return start == 0 && end == xForwardedFor.length() ? xForwardedFor : xForwardedFor.substring(start, end);
     }
 }
@@ -1,10 +1,15 @@
 package com.razorquake.razorlinks.security.jwt;
 
+import com.razorquake.razorlinks.dtos.UserStatus;
+import com.razorquake.razorlinks.security.service.UserDetailsImpl;
+import com.razorquake.razorlinks.security.service.UserStatusCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,21 +23,36 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    public enum PrincipalSource {
+        /** Load the user from the database on every request. */
+        DATABASE,
+        /** Rebuild the user from the token claims, checking only the cached account status. */
+        CLAIMS
+    }
+
     @Autowired
     private JwtUtils jwtTokenProvider;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Value("${jwt.principal-source:DATABASE}")
+    private PrincipalSource principalSource;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = jwtTokenProvider.getJwtFromHeader(request);
-            if (jwt != null && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUserNameFromJwtToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // One verification per request: the claims carry the username
+            Claims claims = jwt == null ? null : jwtTokenProvider.parseClaims(jwt);
+            if (claims != null) {
+                UserDetails userDetails = principalSource == PrincipalSource.CLAIMS
+                        ? principalFromClaims(claims)
+                        : userDetailsService.loadUserByUsername(claims.getSubject());
                 if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities()
@@ -46,4 +66,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails principalFromClaims(Claims claims) {
+        String username = claims.getSubject();
+        UserStatus status = userStatusCache.get(username);
+        if (status == null || !status.isActive()) {
+            return null;
+        }
+        // The role changed after the token was issued, so its roles claim cannot be trusted
+        if (status.role() == null || !status.role().name().equals(claims.get("roles", String.class))) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        return UserDetailsImpl.fromClaims(status.id(), claims);
+    }
 }
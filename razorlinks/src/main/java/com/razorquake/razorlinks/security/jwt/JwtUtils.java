@@ -1,5 +1,8 @@
 package com.razorquake.razorlinks.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.razorquake.razorlinks.security.service.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -11,7 +14,11 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.stream.Collectors;
 
@@ -25,6 +32,21 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
+    @Value("${jwt.verified-cache.enabled:false}")
+    private boolean verifiedCacheEnabled;
+
+    @Value("${jwt.verified-cache.maximum-size:10000}")
+    private long verifiedCacheMaximumSize;
+
+    @Value("${jwt.verified-cache.ttl-seconds:300}")
+    private long verifiedCacheTtlSeconds;
+
+    // Built on first use: the key and the parser verifying with it from the configured secret, the
+    // cache from the settings above
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+    private volatile Cache<String, Claims> verifiedTokens;
+
     public String getJwtFromHeader(HttpServletRequest request){
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -48,22 +70,40 @@ public class JwtUtils {
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build().parseSignedClaims(token)
-                .getPayload().getSubject();
+    /**
+     * Verifies the token and returns its claims, or {@code null} if the token is invalid or expired.
+     * With {@code jwt.verified-cache.enabled}, recently verified tokens are looked up by their SHA-256
+     * digest instead of being verified again; entries never outlive the token's own expiry.
+     */
+    public Claims parseClaims(String token) {
+        if (!verifiedCacheEnabled) {
+            return verify(token);
+        }
+
+        Cache<String, Claims> cache = verifiedTokens();
+        String digest = digest(token);
+        Claims claims = cache.getIfPresent(digest);
+        if (claims == null) {
+            claims = verify(token);
+            if (claims != null) {
+                cache.put(digest, claims);
+            }
+        }
+        return claims;
     }
 
-    private Key key(){
-        return Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(jwtSecret));
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = parseClaims(token);
+        return claims == null ? null : claims.getSubject();
     }
 
     public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    private Claims verify(String token) {
         try {
-            Jwts.parser().verifyWith((SecretKey) key())
-                    .build().parseSignedClaims(authToken);
-            return true;
+            return parser().parseSignedClaims(token).getPayload();
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -73,6 +113,78 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    private SecretKey key() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(jwtSecret));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser parser() {
+        // Immutable and thread-safe, so one instance serves every request
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parser().verifyWith(key()).build();
+            parser = jwtParser;
+        }
+        return jwtParser;
+    }
+
+    private Cache<String, Claims> verifiedTokens() {
+        Cache<String, Claims> cache = verifiedTokens;
+        if (cache == null) {
+            synchronized (this) {
+                cache = verifiedTokens;
+                if (cache == null) {
+                    cache = Caffeine.newBuilder()
+                            .maximumSize(verifiedCacheMaximumSize)
+                            .expireAfter(new TokenExpiry(Duration.ofSeconds(verifiedCacheTtlSeconds)))
+                            .build();
+                    verifiedTokens = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Keeps a verified token for the configured TTL, but never past the token's own expiration.
+     */
+    private record TokenExpiry(Duration ttl) implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long ttlNanos = ttl.toNanos();
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return ttlNanos;
+            }
+            long untilExpiry = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -2,12 +2,14 @@ package com.razorquake.razorlinks.security.service;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.razorquake.razorlinks.models.User;
+import io.jsonwebtoken.Claims;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.Serial;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
@@ -77,4 +79,25 @@ public class UserDetailsImpl implements UserDetails {
                 Collections.singletonList(authority)
         );
     }
+
+    /**
+     * Builds the principal from verified JWT claims instead of a user lookup. The claims carry no
+     * email or password, so both are left {@code null}.
+     */
+    public static UserDetailsImpl fromClaims(Long id, Claims claims) {
+        String roles = claims.get("roles", String.class);
+        Collection<GrantedAuthority> authorities = roles == null || roles.isEmpty()
+                ? Collections.emptyList()
+                : Arrays.stream(roles.split(","))
+                        .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                        .toList();
+        return new UserDetailsImpl(
+                id,
+                claims.getSubject(),
+                null,
+                null,
+                Boolean.TRUE.equals(claims.get("is2faEnabled", Boolean.class)),
+                authorities
+        );
+    }
 }
@@ -0,0 +1,56 @@
+package com.razorquake.razorlinks.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.razorquake.razorlinks.dtos.UserStatus;
+import com.razorquake.razorlinks.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Account status and role per username, reloaded from the database at most once per revalidation
+ * interval. Used when principals are rebuilt from JWT claims, so a locked or disabled account is
+ * still turned away without a user lookup on every request.
+ * <p>
+ * Admin status changes invalidate the entry on this node; other nodes pick them up within the
+ * revalidation interval.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.user-status.revalidation-seconds:30}")
+    private long revalidationSeconds;
+
+    @Value("${jwt.user-status.maximum-size:10000}")
+    private long maximumSize;
+
+    // Unknown usernames are cached as empty so tokens of deleted users do not hit the database either
+    private Cache<String, Optional<UserStatus>> statuses;
+
+    @PostConstruct
+    public void init() {
+        statuses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(revalidationSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the status of the user, or {@code null} if no such user exists.
+     */
+    public UserStatus get(String username) {
+        return statuses.get(username, userRepository::findStatusByUsername).orElse(null);
+    }
+
+    public void invalidate(String username) {
+        statuses.invalidate(username);
+    }
+}
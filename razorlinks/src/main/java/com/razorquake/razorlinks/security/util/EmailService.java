@@ -1,8 +1,9 @@
 package com.razorquake.razorlinks.security.util;
 
 import com.razorquake.razorlinks.exception.EmailVerificationException;
-import gg.jte.TemplateEngine;
-import gg.jte.output.StringOutput;
+import com.razorquake.razorlinks.models.EmailOutboxMessage;
+import com.razorquake.razorlinks.repository.EmailOutboxRepository;
+import com.razorquake.razorlinks.service.email.TemplateRenderService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -10,67 +11,70 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.Map;
 
+/**
+ * Queues verification and password reset mail in the email outbox, in the caller's transaction,
+ * so requesting a mail never waits on the mail server. The outbox dispatcher later turns each
+ * queued message into a {@link MimeMessage} with {@link #toMimeMessage}.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+    private static final TypeReference<Map<String, Object>> PARAMS_TYPE = new TypeReference<>() {
+    };
+
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final TemplateRenderService templateRenderService;
+    private final EmailOutboxRepository outboxRepository;
 
     public void sendPasswordResetEmail(String to, String username, String resetUrl) {
-        try {
-            Map<String, Object> params = new HashMap<>();
-            params.put("resetUrl", resetUrl);
-            params.put("username", username);
-
-            String htmlContent = renderTemplate("emails/password-reset.jte", params);
-            sendEmail(to, "Password Reset Request - RazorLinks", htmlContent);
-        } catch (MessagingException e) {
-            log.error("Failed to send password reset email to: {}", to, e);
-            throw new EmailVerificationException("Failed to send password reset email. Please try again later.");
-        }
-
-    }
-
-    private String renderTemplate(String templatePath, Map<String, Object> params) {
-        StringOutput output = new StringOutput();
-        try {
-            templateEngine.render(templatePath, params, output);
-        } catch (Exception e) {
-            log.error("Failed to render template: {}", templatePath, e);
-            throw new EmailVerificationException("Failed to generate email content. Please try again later.");
-        }
-        return output.toString();
+        enqueue(to, "Password Reset Request - RazorLinks", "emails/password-reset.jte",
+                Map.of("resetUrl", resetUrl, "username", username));
     }
 
     public void sendVerificationEmail(String to, String username, String verificationUrl) {
-        try {
-            Map<String, Object> params = new HashMap<>();
-            params.put("verificationUrl", verificationUrl);
-            params.put("username", username);
-
-            String htmlContent = renderTemplate("emails/email-verification.jte", params);
-            sendEmail(to, "Email Verification - RazorLinks", htmlContent);
-        } catch (MessagingException e) {
-            log.error("Failed to send verification email to: {}", to, e);
-            throw new EmailVerificationException("Failed to send verification email. Please try again later.");
-        }
+        enqueue(to, "Email Verification - RazorLinks", "emails/email-verification.jte",
+                Map.of("verificationUrl", verificationUrl, "username", username));
     }
 
-    private void sendEmail(String to, String subject, String htmlContent) throws MessagingException {
+    /**
+     * Renders a queued message. The template is rendered at send time, so a message queued before a
+     * template fix goes out with the fixed template.
+     */
+    public MimeMessage toMimeMessage(EmailOutboxMessage email) throws MessagingException {
+        Map<String, Object> params = email.getParams() == null ? Map.of() : MAPPER.readValue(email.getParams(), PARAMS_TYPE);
+        String htmlContent = renderTemplate(email.getTemplate(), params);
+
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-        helper.setTo(to);
-        helper.setSubject(subject);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
         helper.setText(htmlContent, true);
 
-        mailSender.send(message);
+        return message;
+    }
+
+    private void enqueue(String to, String subject, String template, Map<String, Object> params) {
+        outboxRepository.save(new EmailOutboxMessage(to, subject, template, MAPPER.writeValueAsString(params),
+                LocalDateTime.now()));
+    }
 
+    private String renderTemplate(String templatePath, Map<String, Object> params) {
+        try {
+            return templateRenderService.render(templatePath, params);
+        } catch (Exception e) {
+            log.error("Failed to render template: {}", templatePath, e);
+            throw new EmailVerificationException("Failed to generate email content. Please try again later.");
+        }
     }
 }
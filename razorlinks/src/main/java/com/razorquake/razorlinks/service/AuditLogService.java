@@ -1,23 +1,30 @@
 package com.razorquake.razorlinks.service;
 
 import com.razorquake.razorlinks.dtos.AuditLogFilter;
+import com.razorquake.razorlinks.dtos.CursorPage;
 import com.razorquake.razorlinks.models.AuditLog;
 import com.razorquake.razorlinks.models.UrlMapping;
 import com.razorquake.razorlinks.repository.AuditLogRepository;
 import com.razorquake.razorlinks.repository.specification.AuditLogSpecification;
+import com.razorquake.razorlinks.service.audit.AuditSink;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class AuditLogService {
-    private static final Set<String> AUDIT_SORT_FIELDS = Set.of(
+    static final Set<String> AUDIT_SORT_FIELDS = Set.of(
             "timestamp",
             "action",
             "username",
@@ -26,25 +33,49 @@ public class AuditLogService {
     );
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditSink auditSink;
 
     public void shortURLCreated(UrlMapping urlMapping) {
+        auditSink.write(createdLog(urlMapping));
+    }
+
+    /**
+     * Audits the links of one bulk create with a single batched write.
+     */
+    public void shortURLsCreated(List<UrlMapping> urlMappings) {
+        auditSink.writeAll(urlMappings.stream().map(this::createdLog).toList());
+    }
+
+    private AuditLog createdLog(UrlMapping urlMapping) {
         AuditLog log = new AuditLog();
         log.setAction("SHORT_URL_CREATED");
         log.setUsername(urlMapping.getUser().getUsername());
         log.setUrlMappingId(urlMapping.getId());
         log.setShortUrl(urlMapping.getShortUrl());
         log.setTimestamp(urlMapping.getCreatedDate());
-        auditLogRepository.save(log);
+        return log;
     }
 
     public void shortURLDeleted(UrlMapping urlMapping) {
+        auditSink.write(deletedLog(urlMapping, LocalDateTime.now()));
+    }
+
+    /**
+     * Audits the links of one bulk delete with a single batched write.
+     */
+    public void shortURLsDeleted(List<UrlMapping> urlMappings) {
+        LocalDateTime now = LocalDateTime.now();
+        auditSink.writeAll(urlMappings.stream().map(urlMapping -> deletedLog(urlMapping, now)).toList());
+    }
+
+    private AuditLog deletedLog(UrlMapping urlMapping, LocalDateTime timestamp) {
         AuditLog log = new AuditLog();
         log.setAction("SHORT_URL_DELETED");
         log.setUsername(urlMapping.getUser().getUsername());
         log.setUrlMappingId(urlMapping.getId());
         log.setShortUrl(urlMapping.getShortUrl());
-        log.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(log);
+        log.setTimestamp(timestamp);
+        return log;
     }
 
     public Page<AuditLog> getAllAuditLogs(AuditLogFilter filter) {
@@ -53,18 +84,23 @@ public class AuditLogService {
         return auditLogRepository.findAll(spec, pageable);
     }
 
+    /**
+     * Cursor-paginated variant of {@link #getAllAuditLogs}; only counts the matches when asked to.
+     */
+    public CursorPage<AuditLog> scrollAuditLogs(AuditLogFilter filter) {
+        Specification<AuditLog> spec = AuditLogSpecification.buildSpecification(filter);
+        Sort sort = CursorPaging.buildSort(filter, "timestamp", AUDIT_SORT_FIELDS);
+        ScrollPosition position = CursorPaging.position(filter, sort, AuditLog.class);
+        Window<AuditLog> window = auditLogRepository.findBy(spec, query -> query
+                .sortBy(sort)
+                .limit(CursorPaging.pageSize(filter))
+                .scroll(position));
+        Long total = filter.isIncludeTotal() ? auditLogRepository.count(spec) : null;
+        return CursorPaging.toCursorPage(window, sort, Function.identity(), total);
+    }
+
     public Page<AuditLog> getAuditLogsByUrlId(Long id, AuditLogFilter filter) {
         filter.setUrlMappingId(id);
         return getAllAuditLogs(filter);
     }
-
-    public void shortURLClicked(Long id, String shortUrl, String username, LocalDateTime clickDate) {
-        AuditLog log = new AuditLog();
-        log.setAction("SHORT_URL_CLICKED");
-        log.setUsername(username);
-        log.setUrlMappingId(id);
-        log.setShortUrl(shortUrl);
-        log.setTimestamp(clickDate);
-        auditLogRepository.save(log);
-    }
 }
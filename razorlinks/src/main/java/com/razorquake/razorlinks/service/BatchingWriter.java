@@ -0,0 +1,112 @@
+package com.razorquake.razorlinks.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A bounded queue drained by a single background writer, which hands the queued items to a flush
+ * callback once {@code batchSize} of them are waiting or {@code flushIntervalMs} has passed.
+ * <p>
+ * The callback is responsible for its own error handling; it is also used to flush what is left in
+ * the queue on {@link #stop}, in batches of at most {@code batchSize}.
+ */
+public final class BatchingWriter<T> {
+
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Consumer<List<T>> flush;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    public BatchingWriter(int queueCapacity, int batchSize, long flushIntervalMs, Consumer<List<T>> flush) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.flush = flush;
+    }
+
+    /**
+     * Starts the writer on a thread from the given builder, so each caller picks platform or virtual.
+     */
+    public void start(Thread.Builder threadBuilder) {
+        running = true;
+        writer = threadBuilder.start(this::run);
+    }
+
+    public boolean offer(T item) {
+        return queue.offer(item);
+    }
+
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.offer(item, timeout, unit);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Hands the items to the flush callback on the calling thread, in batches of at most {@code batchSize}.
+     */
+    public void flushInBatches(List<T> items) {
+        for (int from = 0; from < items.size(); from += batchSize) {
+            flush.accept(items.subList(from, Math.min(from + batchSize, items.size())));
+        }
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for the writer to finish its batch, then flushes whatever is still
+     * queued on the calling thread. Returns how many items were flushed that way.
+     */
+    public int stop(long timeoutMs) throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(timeoutMs);
+        }
+
+        List<T> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        flushInBatches(remaining);
+        return remaining.size();
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+
+        while (running) {
+            try {
+                // Short polls so the writer notices shutdown without being interrupted mid-write
+                long timeout = Math.clamp(deadline - System.nanoTime(), 0, MAX_POLL_NANOS);
+                T item = queue.poll(timeout, TimeUnit.NANOSECONDS);
+                if (item != null) {
+                    batch.add(item);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (batch.size() >= batchSize || System.nanoTime() - deadline >= 0) {
+                if (!batch.isEmpty()) {
+                    flush.accept(batch);
+                    batch.clear();
+                }
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.razorquake.razorlinks.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts redirects per link in memory and periodically applies them to {@code url_mapping.click_count}
+ * as one {@code click_count = click_count + n} update per link, so a hot link no longer serializes
+ * its redirects on a single row lock.
+ * <p>
+ * Counters live in a generation map that is swapped out on every flush. The previous generation
+ * is kept for one more interval and summed again, which picks up increments that raced with the
+ * swap without making the hot path do anything but {@link LongAdder#increment()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClickCounterService {
+
+    private static final String INCREMENT_CLICK_COUNT_SQL =
+            "UPDATE url_mapping SET click_count = click_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile Map<Long, LongAdder> active = new ConcurrentHashMap<>();
+    private Map<Long, LongAdder> retired = Map.of();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("razorlinks.clicks.unflushed", this, ClickCounterService::getUnflushedClicks)
+                .description("Redirects counted in memory but not yet written to url_mapping.click_count")
+                .register(meterRegistry);
+    }
+
+    public void increment(Long urlMappingId) {
+        active.computeIfAbsent(urlMappingId, id -> new LongAdder()).increment();
+    }
+
+    public long getUnflushedClicks() {
+        return sum(active) + sum(retired);
+    }
+
+    @Scheduled(fixedDelayString = "${click-counter.flush-interval-ms:5000}")
+    public void flush() {
+        // A lock rather than synchronized: the batch update would pin a virtual thread to its carrier
+        flushLock.lock();
+        try {
+            Map<Long, LongAdder> previous = retired;
+            retired = active;
+            active = new ConcurrentHashMap<>();
+
+            // Sorted by id so concurrent flushes on other nodes lock url_mapping rows in the same order
+            Map<Long, Long> deltas = new TreeMap<>();
+            drainInto(previous, deltas);
+            drainInto(retired, deltas);
+            if (deltas.isEmpty()) {
+                return;
+            }
+
+            List<Map.Entry<Long, Long>> updates = new ArrayList<>(deltas.entrySet());
+            try {
+                jdbcTemplate.batchUpdate(INCREMENT_CLICK_COUNT_SQL, updates, updates.size(), (ps, update) -> {
+                    ps.setLong(1, update.getValue());
+                    ps.setLong(2, update.getKey());
+                });
+            } catch (DataAccessException e) {
+                // Put the deltas back so the next flush retries them
+                deltas.forEach((id, delta) -> active.computeIfAbsent(id, key -> new LongAdder()).add(delta));
+                log.error("Failed to flush click counts for {} links", deltas.size(), e);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Two flushes so the retired generation is drained as well
+        flush();
+        flush();
+    }
+
+    private static void drainInto(Map<Long, LongAdder> counters, Map<Long, Long> deltas) {
+        counters.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.merge(id, delta, Long::sum);
+            }
+        });
+    }
+
+    private static long sum(Map<Long, LongAdder> counters) {
+        long total = 0;
+        for (LongAdder adder : counters.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+}
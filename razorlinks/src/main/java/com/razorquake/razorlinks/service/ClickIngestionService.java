@@ -0,0 +1,258 @@
+package com.razorquake.razorlinks.service;
+
+import com.razorquake.razorlinks.dtos.ClickRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers redirect clicks in a {@link BatchingWriter} and writes them to the database from its
+ * background writer, so the redirect itself never waits on a DB write.
+ * <p>
+ * Each flush inserts the click events and their audit rows as JDBC batches, with ids taken from
+ * their sequences by {@link SequenceIdAllocator}, and adds the batch's per-day totals to
+ * {@code click_daily_rollup}, all in a single transaction. Link click counts are maintained
+ * separately by {@link ClickCounterService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClickIngestionService {
+
+    public enum OverflowPolicy {
+        /** Drop the click immediately when the queue is full. */
+        DROP,
+        /** Wait up to {@code click-ingestion.block-timeout-ms} for space, then drop. */
+        BLOCK,
+        /** Write the click synchronously on the request thread. */
+        CALLER_RUNS
+    }
+
+    private static final String INSERT_CLICK_EVENT_SQL =
+            "INSERT INTO click_events (id, click_date, url_mapping_id) VALUES (?, ?, ?)";
+    private static final String INSERT_CLICK_AUDIT_SQL =
+            "INSERT INTO audit_logs (id, action, username, url_mapping_id, short_url, timestamp) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INCREMENT_ROLLUP_SQL =
+            "UPDATE click_daily_rollup SET click_count = click_count + ? WHERE url_mapping_id = ? AND click_day = ?";
+    private static final String INSERT_ROLLUP_SQL =
+            "INSERT INTO click_daily_rollup (url_mapping_id, click_day, click_count) VALUES (?, ?, ?)";
+    private static final String EXISTING_URL_MAPPING_IDS_SQL =
+            "SELECT id FROM url_mapping WHERE id IN (:ids)";
+
+    private static final Comparator<RollupKey> ROLLUP_KEY_ORDER =
+            Comparator.comparing(RollupKey::urlMappingId).thenComparing(RollupKey::day);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequenceIdAllocator idAllocator;
+
+    @Value("${click-ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${click-ingestion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${click-ingestion.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${click-ingestion.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${click-ingestion.block-timeout-ms:5}")
+    private long blockTimeoutMs;
+
+    @Value("${click-ingestion.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private final AtomicLong droppedClicks = new AtomicLong();
+    private final AtomicLong failedClicks = new AtomicLong();
+
+    private BatchingWriter<ClickRecord> writer;
+
+    @PostConstruct
+    public void start() {
+        writer = new BatchingWriter<>(queueCapacity, batchSize, flushIntervalMs, this::flush);
+        writer.start(Thread.ofPlatform().name("click-ingestion-writer").daemon(true));
+    }
+
+    /**
+     * Hands a click to the background writer. Never touches the database unless the
+     * queue is full and the overflow policy is {@link OverflowPolicy#CALLER_RUNS}.
+     */
+    public void record(ClickRecord click) {
+        if (writer.offer(click)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (writer.offer(click, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                drop();
+            }
+            case CALLER_RUNS -> flush(List.of(click));
+            default -> drop();
+        }
+    }
+
+    public int getQueueDepth() {
+        return writer.size();
+    }
+
+    public long getDroppedClicks() {
+        return droppedClicks.get();
+    }
+
+    public long getFailedClicks() {
+        return failedClicks.get();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Whatever the writer did not get to is flushed on the shutdown thread
+        int remaining = writer.stop(shutdownTimeoutMs);
+        log.info("Click ingestion stopped, drained {} pending clicks ({} dropped since startup)",
+                remaining, droppedClicks.get());
+    }
+
+    void flush(List<ClickRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            writeBatch(batch);
+        } catch (DataIntegrityViolationException e) {
+            // A link was deleted while its clicks were queued; keep the clicks of the links that still exist
+            List<ClickRecord> retained = retainExistingMappings(batch);
+            log.warn("Discarding {} clicks for deleted links", batch.size() - retained.size());
+            try {
+                writeBatch(retained);
+            } catch (DataAccessException retryException) {
+                failed(retained, retryException);
+            }
+        } catch (DataAccessException e) {
+            failed(batch, e);
+        }
+    }
+
+    private void writeBatch(List<ClickRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Sorted so concurrent writers on other nodes lock rollup rows in the same order
+        Map<RollupKey, Long> dailyCounts = new TreeMap<>(ROLLUP_KEY_ORDER);
+        for (ClickRecord click : batch) {
+            dailyCounts.merge(new RollupKey(click.urlMappingId(), click.clickDate().toLocalDate()), 1L, Long::sum);
+        }
+
+        // Ids come from the same sequences Hibernate uses, taken before the transaction starts
+        PrimitiveIterator.OfLong clickIds =
+                Arrays.stream(idAllocator.nextIds(IdSequenceAligner.CLICK_EVENTS, batch.size())).iterator();
+        PrimitiveIterator.OfLong auditIds =
+                Arrays.stream(idAllocator.nextIds(IdSequenceAligner.AUDIT_LOGS, batch.size())).iterator();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // The setter is called once per click, in order
+            jdbcTemplate.batchUpdate(INSERT_CLICK_EVENT_SQL, batch, batch.size(), (ps, click) -> {
+                ps.setLong(1, clickIds.nextLong());
+                ps.setTimestamp(2, Timestamp.valueOf(click.clickDate()));
+                ps.setLong(3, click.urlMappingId());
+            });
+            jdbcTemplate.batchUpdate(INSERT_CLICK_AUDIT_SQL, batch, batch.size(), (ps, click) -> {
+                ps.setLong(1, auditIds.nextLong());
+                ps.setString(2, "SHORT_URL_CLICKED");
+                ps.setString(3, click.username());
+                ps.setLong(4, click.urlMappingId());
+                ps.setString(5, click.shortUrl());
+                ps.setTimestamp(6, Timestamp.valueOf(click.clickDate()));
+            });
+            upsertRollups(dailyCounts);
+        });
+    }
+
+    /**
+     * Increments existing rollup rows and inserts the ones that did not exist yet. If another node
+     * inserts the same row first, the unique constraint fails the batch and {@link #flush} retries it,
+     * at which point the row exists and is incremented.
+     */
+    private void upsertRollups(Map<RollupKey, Long> dailyCounts) {
+        List<Map.Entry<RollupKey, Long>> counts = new ArrayList<>(dailyCounts.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(INCREMENT_ROLLUP_SQL, counts, counts.size(), (ps, count) -> {
+            ps.setLong(1, count.getValue());
+            ps.setLong(2, count.getKey().urlMappingId());
+            ps.setDate(3, Date.valueOf(count.getKey().day()));
+        });
+
+        List<Map.Entry<RollupKey, Long>> missing = new ArrayList<>();
+        for (int i = 0; i < counts.size(); i++) {
+            // Drivers that report SUCCESS_NO_INFO are treated as updated
+            if (updated.length > 0 && updated[0][i] == 0) {
+                missing.add(counts.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ROLLUP_SQL, missing, missing.size(), (ps, count) -> {
+            ps.setLong(1, count.getKey().urlMappingId());
+            ps.setDate(2, Date.valueOf(count.getKey().day()));
+            ps.setLong(3, count.getValue());
+        });
+    }
+
+    private record RollupKey(Long urlMappingId, LocalDate day) {
+    }
+
+    private List<ClickRecord> retainExistingMappings(List<ClickRecord> batch) {
+        Set<Long> ids = new HashSet<>();
+        for (ClickRecord click : batch) {
+            ids.add(click.urlMappingId());
+        }
+
+        Set<Long> existing = new HashSet<>(new NamedParameterJdbcTemplate(jdbcTemplate).queryForList(
+                EXISTING_URL_MAPPING_IDS_SQL,
+                new MapSqlParameterSource("ids", ids),
+                Long.class
+        ));
+        return batch.stream()
+                .filter(click -> existing.contains(click.urlMappingId()))
+                .toList();
+    }
+
+    private void drop() {
+        long dropped = droppedClicks.incrementAndGet();
+        // Log the first drop and then every 1000th, so a full queue cannot flood the logs
+        if (dropped == 1 || dropped % 1000 == 0) {
+            log.warn("Click ingestion queue is full, {} clicks dropped so far", dropped);
+        }
+    }
+
+    private void failed(List<ClickRecord> batch, DataAccessException e) {
+        failedClicks.addAndGet(batch.size());
+        log.error("Failed to write {} clicks", batch.size(), e);
+    }
+}
@@ -0,0 +1,91 @@
+package com.razorquake.razorlinks.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Rebuilds {@code click_daily_rollup} from the raw {@code click_events} table.
+ * <p>
+ * Only days before today are rebuilt: today's rows are still being incremented by the
+ * click ingestion writer and are left alone. Months recorded in {@code retention_log} are left
+ * alone too, since retention may have removed part of their raw events and their rollups are
+ * more complete than what remains.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClickRollupService {
+
+    private static final String EARLIEST_CLICK_SQL = "SELECT MIN(click_date) FROM click_events";
+    private static final String DELETE_ROLLUPS_BETWEEN_SQL =
+            "DELETE FROM click_daily_rollup WHERE click_day >= ? AND click_day < ?";
+    private static final String REBUILD_ROLLUPS_SQL =
+            "INSERT INTO click_daily_rollup (url_mapping_id, click_day, click_count) " +
+            "SELECT url_mapping_id, CAST(click_date AS DATE), COUNT(*) FROM click_events " +
+            "WHERE click_date >= ? AND click_date < ? GROUP BY url_mapping_id, CAST(click_date AS DATE)";
+    private static final String MONTH_PRUNED_SQL =
+            "SELECT COUNT(*) FROM retention_log WHERE table_name = 'click_events' AND period_start = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Rebuilds every day before today that still has raw click events, a month per transaction,
+     * skipping the months retention has already pruned.
+     *
+     * @return the number of rollup rows written
+     */
+    public int backfill() {
+        return backfill(LocalDate.now());
+    }
+
+    int backfill(LocalDate today) {
+        Timestamp earliest = jdbcTemplate.queryForObject(EARLIEST_CLICK_SQL, Timestamp.class);
+        if (earliest == null) {
+            log.info("No click events to backfill daily rollups from");
+            return 0;
+        }
+
+        LocalDate first = earliest.toLocalDateTime().toLocalDate();
+        int rows = 0;
+        int skipped = 0;
+        for (YearMonth month = YearMonth.from(first); !month.atDay(1).isAfter(today); month = month.plusMonths(1)) {
+            LocalDate from = month.equals(YearMonth.from(first)) ? first : month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1).isAfter(today) ? today : month.plusMonths(1).atDay(1);
+            if (!from.isBefore(to)) {
+                continue;
+            }
+            Integer pruned = jdbcTemplate.queryForObject(MONTH_PRUNED_SQL, Integer.class, month.atDay(1));
+            if (pruned != null && pruned > 0) {
+                skipped++;
+                continue;
+            }
+            rows += rebuild(from, to);
+        }
+        log.info("Backfilled {} daily click rollup rows from {} to {}, skipping {} pruned months",
+                rows, first, today, skipped);
+        return rows;
+    }
+
+    /**
+     * Replaces the rollups of {@code [from, toExclusive)} with counts taken from the raw events, in
+     * one transaction.
+     *
+     * @return the number of rollup rows written
+     */
+    public int rebuild(LocalDate from, LocalDate toExclusive) {
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE_ROLLUPS_BETWEEN_SQL, from, toExclusive);
+            return jdbcTemplate.update(REBUILD_ROLLUPS_SQL,
+                    Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(toExclusive.atStartOfDay()));
+        });
+        return rows == null ? 0 : rows;
+    }
+}
@@ -0,0 +1,138 @@
+package com.razorquake.razorlinks.service;
+
+import com.razorquake.razorlinks.dtos.CursorPage;
+import com.razorquake.razorlinks.dtos.PageFilter;
+import com.razorquake.razorlinks.exception.InvalidCursorException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.util.ReflectionUtils;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination for the listing endpoints: each page seeks past the sort key and id of the
+ * previous page's last row, so a deep page costs the same as the first one.
+ * <p>
+ * The position is handed to clients as an opaque, URL-safe token that is only valid for the sort it
+ * was issued for.
+ */
+public final class CursorPaging {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+    private static final TypeReference<Map<String, Object>> TOKEN_TYPE = new TypeReference<>() {
+    };
+
+    private CursorPaging() {
+    }
+
+    /**
+     * Sorts like {@link PagingUtils#buildPageable}, with the id as tie-breaker so every row has a
+     * unique position.
+     */
+    public static Sort buildSort(PageFilter filter, String defaultSortBy, Set<String> allowedSortFields) {
+        Sort.Order order = PagingUtils.buildPageable(filter, defaultSortBy, allowedSortFields).getSort().iterator().next();
+        return Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+    }
+
+    public static int pageSize(PageFilter filter) {
+        return Math.clamp(filter.getSize(), 1, 100);
+    }
+
+    /**
+     * Decodes the filter's cursor into a scroll position, converting each key back to the type of
+     * the entity attribute it was taken from.
+     */
+    public static ScrollPosition position(PageFilter filter, Sort sort, Class<?> entityType) {
+        String cursor = filter.getCursor();
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> token;
+        try {
+            token = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), TOKEN_TYPE);
+        } catch (IllegalArgumentException | JacksonException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        if (!sortSignature(sort).equals(token.get("sort")) || !(token.get("keys") instanceof Map<?, ?> keys)) {
+            throw new InvalidCursorException("Cursor was issued for a different sort order");
+        }
+
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            typedKeys.put(order.getProperty(), convert(keys.get(order.getProperty()), attributeType(entityType, order.getProperty())));
+        }
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    public static <T, R> CursorPage<R> toCursorPage(Window<T> window, Sort sort, Function<T, R> mapper, Long total) {
+        List<R> content = window.stream().map(mapper).toList();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encode((KeysetScrollPosition) window.positionAt(window.size() - 1), sort)
+                : null;
+        return new CursorPage<>(content, nextCursor, total);
+    }
+
+    static String encode(KeysetScrollPosition position, Sort sort) {
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("sort", sortSignature(sort));
+        token.put("keys", position.getKeys());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(MAPPER.writeValueAsString(token).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sortSignature(Sort sort) {
+        Sort.Order order = sort.iterator().next();
+        return order.getProperty() + ":" + order.getDirection();
+    }
+
+    private static Class<?> attributeType(Class<?> entityType, String attribute) {
+        Field field = ReflectionUtils.findField(entityType, attribute);
+        if (field == null) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        return field.getType();
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        try {
+            if (value == null) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            if (type == Long.class || type == long.class) {
+                return ((Number) value).longValue();
+            }
+            if (type == Integer.class || type == int.class) {
+                return ((Number) value).intValue();
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return (Boolean) value;
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse((String) value);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse((String) value);
+            }
+            return (String) value;
+        } catch (ClassCastException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
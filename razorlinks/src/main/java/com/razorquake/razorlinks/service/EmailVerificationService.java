@@ -49,11 +49,11 @@ public class EmailVerificationService {
         EmailVerificationToken verificationToken = new EmailVerificationToken(token, user, expiresAt);
         tokenRepository.save(verificationToken);
 
-        // Send verification email
+        // Queue the verification email; it is sent once this transaction commits
         String verificationUrl = frontendUrl + "/verify-email?token=" + token;
         emailService.sendVerificationEmail(user.getEmail(), user.getUsername(), verificationUrl);
 
-        log.info("Verification email sent to: {}", user.getEmail());
+        log.info("Verification email queued for: {}", user.getEmail());
     }
 
     @Transactional
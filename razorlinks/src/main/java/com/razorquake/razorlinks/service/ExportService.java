@@ -0,0 +1,128 @@
+package com.razorquake.razorlinks.service;
+
+import com.razorquake.razorlinks.dtos.AuditLogFilter;
+import com.razorquake.razorlinks.dtos.ClickAnalyticsFilter;
+import com.razorquake.razorlinks.models.AuditLog;
+import com.razorquake.razorlinks.repository.specification.AuditLogSpecification;
+import com.razorquake.razorlinks.service.export.ExportFormat;
+import com.razorquake.razorlinks.service.export.ExportWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams audit logs and click events to an output stream, reading them through a database cursor
+ * of {@code export.fetch-size} rows so memory use does not grow with the size of the export.
+ * <p>
+ * PostgreSQL only honours the fetch size inside a transaction, hence the read-only transactions.
+ * MySQL needs {@code useCursorFetch=true} on the JDBC URL to do the same.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final String[] AUDIT_LOG_COLUMNS =
+            {"id", "timestamp", "action", "username", "urlMappingId", "shortUrl"};
+    private static final String[] CLICK_EVENT_COLUMNS = {"id", "clickDate"};
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Writes every audit log matching the filter, in the filter's sort order; paging is ignored.
+     */
+    @Transactional(readOnly = true)
+    public void writeAuditLogs(AuditLogFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AuditLog> query = criteriaBuilder.createQuery(AuditLog.class);
+        Root<AuditLog> root = query.from(AuditLog.class);
+        query.select(root).where(AuditLogSpecification.buildSpecification(filter).toPredicate(root, query, criteriaBuilder));
+
+        Sort.Order order = PagingUtils.buildPageable(filter, "timestamp", AuditLogService.AUDIT_SORT_FIELDS)
+                .getSort().iterator().next();
+        // Ties are broken by id so the export order is deterministic
+        query.orderBy(
+                order.isAscending() ? criteriaBuilder.asc(root.get(order.getProperty())) : criteriaBuilder.desc(root.get(order.getProperty())),
+                order.isAscending() ? criteriaBuilder.asc(root.get("id")) : criteriaBuilder.desc(root.get("id"))
+        );
+
+        ExportWriter writer = ExportWriter.open(format, out, AUDIT_LOG_COLUMNS);
+        try (Stream<AuditLog> auditLogs = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<AuditLog> iterator = auditLogs.iterator();
+            while (iterator.hasNext()) {
+                AuditLog auditLog = iterator.next();
+                writer.row(auditLog.getId(), auditLog.getTimestamp(), auditLog.getAction(), auditLog.getUsername(),
+                        auditLog.getUrlMappingId(), auditLog.getShortUrl());
+                // Written rows are not needed again, so the persistence context does not grow with the export
+                entityManager.detach(auditLog);
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the raw click events of one link within the filter's date range, in the filter's sort order.
+     */
+    @Transactional(readOnly = true)
+    public void writeClickEvents(Long urlMappingId, ClickAnalyticsFilter filter, ExportFormat format,
+                                 OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT id, click_date FROM click_events WHERE url_mapping_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(urlMappingId);
+        if (filter.getStartDate() != null) {
+            sql.append(" AND click_date >= ?");
+            args.add(Timestamp.valueOf(filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            sql.append(" AND click_date <= ?");
+            args.add(Timestamp.valueOf(filter.getEndDate()));
+        }
+        String direction = "DESC".equalsIgnoreCase(filter.getSortOrder()) ? "DESC" : "ASC";
+        sql.append(" ORDER BY click_date ").append(direction).append(", id ").append(direction);
+
+        ExportWriter writer = ExportWriter.open(format, out, CLICK_EVENT_COLUMNS);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString());
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                return statement;
+            }, resultSet -> {
+                try {
+                    writer.row(resultSet.getLong(1), resultSet.getTimestamp(2).toLocalDateTime());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+}
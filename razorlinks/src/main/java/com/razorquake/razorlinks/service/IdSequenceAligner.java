@@ -0,0 +1,85 @@
+package com.razorquake.razorlinks.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves the id sequences of tables that switched from identity columns to pooled sequences past
+ * the ids already in use, so the first block Hibernate allocates cannot collide with existing rows.
+ * <p>
+ * Runs once at startup, after the schema migrations. PostgreSQL uses a native sequence; MySQL has
+ * none, so Hibernate keeps the next value in a one-row table of the same name.
+ * The old identity default stays on the column but is no longer used: rows inserted with plain
+ * JDBC take their ids from {@link SequenceIdAllocator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+
+    public record SequencedTable(String table, String sequence, int allocationSize) {
+    }
+
+    public static final SequencedTable CLICK_EVENTS = new SequencedTable("click_events", "click_events_seq", 50);
+    public static final SequencedTable AUDIT_LOGS = new SequencedTable("audit_logs", "audit_logs_seq", 50);
+
+    static final List<SequencedTable> SEQUENCED_TABLES = List.of(
+            new SequencedTable("url_mapping", "url_mapping_seq", 50),
+            CLICK_EVENTS,
+            AUDIT_LOGS
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    // Injected so the schema, including the sequences, is migrated before alignment runs
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${id-sequences.align-on-startup:true}")
+    private boolean alignOnStartup;
+
+    @PostConstruct
+    public void alignOnStartup() {
+        if (alignOnStartup) {
+            align();
+        }
+    }
+
+    public void align() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        for (SequencedTable sequencedTable : SEQUENCED_TABLES) {
+            align(product, sequencedTable);
+        }
+    }
+
+    void align(String product, SequencedTable sequencedTable) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + sequencedTable.table(), Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // Hibernate's pooled optimizer hands out (value - allocationSize, value] for each sequence value
+        switch (product) {
+            case "PostgreSQL" -> jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequencedTable.sequence() + "', GREATEST(?, (SELECT last_value FROM "
+                            + sequencedTable.sequence() + ")))",
+                    Long.class, maxId);
+            case "MySQL" -> jdbcTemplate.update(
+                    "UPDATE " + sequencedTable.sequence() + " SET next_val = ? WHERE next_val < ?",
+                    maxId + sequencedTable.allocationSize(), maxId + sequencedTable.allocationSize());
+            default -> {
+                log.warn("Cannot align sequence {} on {}; make sure it is past id {}",
+                        sequencedTable.sequence(), product, maxId);
+                return;
+            }
+        }
+        log.info("Aligned sequence {} with {}.id (max id {})", sequencedTable.sequence(), sequencedTable.table(), maxId);
+    }
+}
@@ -50,7 +50,7 @@ public class PasswordResetService {
             PasswordResetToken resetToken = new PasswordResetToken(token, user, expiresAt);
             tokenRepository.save(resetToken);
 
-            // Send password reset email
+            // Queue the password reset email; it is sent once this transaction commits
             String resetUrl = frontendUrl + "/reset-password?token=" + token;
             emailService.sendPasswordResetEmail(user.getEmail(), user.getUsername(), resetUrl);
         });
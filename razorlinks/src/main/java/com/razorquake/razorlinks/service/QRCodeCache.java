@@ -0,0 +1,83 @@
+package com.razorquake.razorlinks.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.zxing.WriterException;
+import com.razorquake.razorlinks.service.qr.QRCodeFormat;
+import com.razorquake.razorlinks.service.qr.QRCodeImage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+
+/**
+ * Rendered QR codes, bounded by their total size in bytes. Requested sizes are rounded to a multiple
+ * of {@code qr.size-step} within {@code qr.min-size} and {@code qr.max-size}, so a handful of
+ * entries per link covers every request and nobody can ask for an arbitrarily large image.
+ * <p>
+ * A short code always encodes to the same image, so entries never go stale and are only evicted
+ * for space.
+ */
+@Service
+@RequiredArgsConstructor
+public class QRCodeCache {
+
+    record Key(String shortUrl, int size, QRCodeFormat format) {
+    }
+
+    private final QRCodeService qrCodeService;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${qr.cache.maximum-bytes:16777216}")
+    private long maximumBytes;
+
+    @Value("${qr.min-size:100}")
+    private int minSize;
+
+    @Value("${qr.max-size:1000}")
+    private int maxSize;
+
+    @Value("${qr.size-step:50}")
+    private int sizeStep;
+
+    private Cache<Key, QRCodeImage> images;
+
+    @PostConstruct
+    public void initCache() {
+        images = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .<Key, QRCodeImage>weigher((key, image) -> image.bytes().length)
+                .recordStats()
+                .build();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, images, "qr-codes");
+        }
+    }
+
+    public QRCodeImage get(String shortUrl, int requestedSize, QRCodeFormat format)
+            throws WriterException, IOException {
+        Key key = new Key(shortUrl, quantize(requestedSize), format);
+        QRCodeImage image = images.getIfPresent(key);
+        if (image != null) {
+            return image;
+        }
+
+        // Concurrent misses for one key may both render; the images are identical, so either wins
+        byte[] bytes = qrCodeService.generateQRCode(shortUrl, key.size(), format);
+        image = new QRCodeImage(bytes, format, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+        images.put(key, image);
+        return image;
+    }
+
+    int quantize(int requestedSize) {
+        int rounded = Math.round((float) requestedSize / sizeStep) * sizeStep;
+        return Math.clamp(rounded, minSize, maxSize);
+    }
+}
@@ -3,10 +3,11 @@ package com.razorquake.razorlinks.service;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.razorquake.razorlinks.service.qr.QRCodeEncoder;
+import com.razorquake.razorlinks.service.qr.QRCodeFormat;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,28 @@ public class QRCodeService {
 
     public byte[] generateQRCode(String shortUrl, int width, int height)
             throws WriterException, IOException {
+        BitMatrix bitMatrix = encode(shortUrl, width, height);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        QRCodeEncoder.writePng(bitMatrix, outputStream);
+
+        return outputStream.toByteArray();
+    }
+
+    public byte[] generateQRCode(String shortUrl, int size, QRCodeFormat format)
+            throws WriterException, IOException {
+        if (format == QRCodeFormat.PNG) {
+            return generateQRCode(shortUrl, size, size);
+        }
+
+        // Zero dimensions give the unscaled module matrix, which the SVG viewBox scales
+        BitMatrix bitMatrix = encode(shortUrl, 0, 0);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        QRCodeEncoder.writeSvg(bitMatrix, size, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private BitMatrix encode(String shortUrl, int width, int height) throws WriterException {
         String fullUrl = subdomainUrl + "/" + shortUrl;
 
         QRCodeWriter qrCodeWriter = new QRCodeWriter();
@@ -33,11 +56,6 @@ public class QRCodeService {
         hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
         hints.put(EncodeHintType.MARGIN, 1);
 
-        BitMatrix bitMatrix = qrCodeWriter.encode(fullUrl, BarcodeFormat.QR_CODE, width, height, hints);
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
-
-        return outputStream.toByteArray();
+        return qrCodeWriter.encode(fullUrl, BarcodeFormat.QR_CODE, width, height, hints);
     }
 }
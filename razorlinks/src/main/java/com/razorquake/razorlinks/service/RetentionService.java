@@ -0,0 +1,269 @@
+package com.razorquake.razorlinks.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes click events and audit logs once they are older than their retention period, and
+ * records in {@code retention_log} how many rows of each month (and audit action) it removed.
+ * <p>
+ * Tables converted to monthly range partitions on PostgreSQL (see
+ * {@code db/retention/postgresql-partitioning.sql}) are pruned a partition at a time: each run
+ * creates the partitions of the coming months and drops, or detaches for archiving, the ones past
+ * retention. Other tables are pruned with short chunked deletes by id range.
+ * <p>
+ * Before a month of click events is removed, its daily rollups are rebuilt from them, so link
+ * analytics keep their history once the raw events are gone.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetentionService {
+
+    public enum ExpiredPartitionAction {
+        /** Drop the partition and its rows. */
+        DROP,
+        /** Detach the partition into a standalone table, to be archived and dropped by hand. */
+        DETACH
+    }
+
+    record RetainedTable(String table, String timeColumn, String categoryColumn, int retentionMonths,
+                         boolean rollsUpClicks) {
+    }
+
+    record IdRange(long min, long max) {
+    }
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String PARTITIONED_TABLE_SQL =
+            "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ?";
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?";
+    private static final String MONTH_ALREADY_PRUNED_SQL =
+            "SELECT COUNT(*) FROM retention_log WHERE table_name = ? AND period_start = ?";
+    private static final String INCREMENT_LOG_SQL =
+            "UPDATE retention_log SET row_count = row_count + ?, method = ?, pruned_at = ? " +
+            "WHERE table_name = ? AND period_start = ? AND category = ?";
+    private static final String INSERT_LOG_SQL =
+            "INSERT INTO retention_log (table_name, period_start, category, row_count, method, pruned_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClickRollupService clickRollupService;
+
+    @Value("${retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${retention.click-events.months:13}")
+    private int clickEventMonths;
+
+    @Value("${retention.audit-logs.months:24}")
+    private int auditLogMonths;
+
+    @Value("${retention.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    @Value("${retention.expired-partitions:DROP}")
+    private ExpiredPartitionAction expiredPartitionAction;
+
+    @Value("${retention.delete-chunk-size:10000}")
+    private int deleteChunkSize;
+
+    @Scheduled(cron = "${retention.cron:0 30 2 * * ?}")
+    public void applyRetention() {
+        if (!enabled) {
+            return;
+        }
+
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        YearMonth current = YearMonth.now();
+        for (RetainedTable table : retainedTables()) {
+            try {
+                apply(product, table, current);
+            } catch (DataAccessException e) {
+                // One table failing must not keep the other from being pruned
+                log.error("Retention failed for {}", table.table(), e);
+            }
+        }
+    }
+
+    List<RetainedTable> retainedTables() {
+        return List.of(
+                new RetainedTable("click_events", "click_date", null, clickEventMonths, true),
+                new RetainedTable("audit_logs", "timestamp", "action", auditLogMonths, false)
+        );
+    }
+
+    void apply(String product, RetainedTable table, YearMonth current) {
+        // Whole months are kept, so a partition is either entirely expired or not at all
+        YearMonth cutoff = current.minusMonths(table.retentionMonths());
+        if ("PostgreSQL".equals(product) && isPartitioned(table)) {
+            createPartitions(table, current);
+            dropExpiredPartitions(table, cutoff);
+        } else {
+            deleteExpiredRows(table, cutoff);
+        }
+    }
+
+    private boolean isPartitioned(RetainedTable table) {
+        Integer count = jdbcTemplate.queryForObject(PARTITIONED_TABLE_SQL, Integer.class, table.table());
+        return count != null && count > 0;
+    }
+
+    private void createPartitions(RetainedTable table, YearMonth current) {
+        for (YearMonth month = current; !month.isAfter(current.plusMonths(partitionsAhead)); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, month) +
+                    " PARTITION OF " + table.table() +
+                    " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    private void dropExpiredPartitions(RetainedTable table, YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table.table());
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(table, partition);
+            // Partitions not named by this job (e.g. a default partition) are left alone
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+
+            rebuildClickRollups(table, month);
+            Long rows = transactionTemplate.execute(status -> {
+                long summarized = summarize(table, month, expiredPartitionAction == ExpiredPartitionAction.DROP
+                        ? "PARTITION_DROPPED" : "PARTITION_DETACHED", partition, "");
+                jdbcTemplate.execute(expiredPartitionAction == ExpiredPartitionAction.DROP
+                        ? "DROP TABLE " + partition
+                        : "ALTER TABLE " + table.table() + " DETACH PARTITION " + partition);
+                return summarized;
+            });
+            log.info("{} partition {} of {} ({} rows)",
+                    expiredPartitionAction == ExpiredPartitionAction.DROP ? "Dropped" : "Detached",
+                    partition, table.table(), rows);
+        }
+    }
+
+    private void deleteExpiredRows(RetainedTable table, YearMonth cutoff) {
+        Timestamp earliest = jdbcTemplate.queryForObject(
+                "SELECT MIN(" + table.timeColumn() + ") FROM " + table.table(), Timestamp.class);
+        if (earliest == null) {
+            return;
+        }
+
+        for (YearMonth month = YearMonth.from(earliest.toLocalDateTime()); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            deleteMonth(table, month);
+        }
+    }
+
+    private void deleteMonth(RetainedTable table, YearMonth month) {
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        String inMonth = table.timeColumn() + " >= ? AND " + table.timeColumn() + " < ?";
+        IdRange ids = jdbcTemplate.queryForObject(
+                "SELECT MIN(id), MAX(id) FROM " + table.table() + " WHERE " + inMonth,
+                (rs, rowNum) -> {
+                    long min = rs.getLong(1);
+                    return rs.wasNull() ? null : new IdRange(min, rs.getLong(2));
+                },
+                from, to);
+        if (ids == null) {
+            return;
+        }
+
+        rebuildClickRollups(table, month);
+        long removed = 0;
+        // Each chunk is summarized and deleted in its own short transaction, so the log stays exact
+        // even when a run is interrupted halfway through a month
+        for (long start = ids.min(); start <= ids.max(); start += deleteChunkSize) {
+            Object[] args = {from, to, start, start + deleteChunkSize};
+            String where = " WHERE " + inMonth + " AND id >= ? AND id < ?";
+            Integer deleted = transactionTemplate.execute(status -> {
+                summarize(table, month, "DELETED", table.table(), where, args);
+                return jdbcTemplate.update("DELETE FROM " + table.table() + where, args);
+            });
+            removed += deleted == null ? 0 : deleted;
+        }
+        log.info("Deleted {} rows of {} from {}", removed, month, table.table());
+    }
+
+    /**
+     * Rebuilds the month's daily click rollups from its raw events, unless part of the month was
+     * already removed by an earlier run, in which case the rollups are more complete than the events.
+     */
+    private void rebuildClickRollups(RetainedTable table, YearMonth month) {
+        if (!table.rollsUpClicks()) {
+            return;
+        }
+        Integer pruned = jdbcTemplate.queryForObject(MONTH_ALREADY_PRUNED_SQL, Integer.class,
+                table.table(), month.atDay(1));
+        if (pruned != null && pruned > 0) {
+            return;
+        }
+        clickRollupService.rebuild(month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Adds the per-category row counts of {@code source} to the month's retention log rows.
+     *
+     * @return the number of rows counted
+     */
+    private long summarize(RetainedTable table, YearMonth month, String method, String source, String where,
+                           Object... args) {
+        String sql = table.categoryColumn() == null
+                ? "SELECT 'ALL', COUNT(*) FROM " + source + where
+                : "SELECT COALESCE(" + table.categoryColumn() + ", 'UNKNOWN'), COUNT(*) FROM " + source + where +
+                  " GROUP BY COALESCE(" + table.categoryColumn() + ", 'UNKNOWN')";
+        List<Map.Entry<String, Long>> counts = jdbcTemplate.query(sql,
+                (rs, rowNum) -> Map.entry(rs.getString(1), rs.getLong(2)), args);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long total = 0;
+        for (Map.Entry<String, Long> count : counts) {
+            if (count.getValue() == 0) {
+                continue;
+            }
+            total += count.getValue();
+            int updated = jdbcTemplate.update(INCREMENT_LOG_SQL, count.getValue(), method, now,
+                    table.table(), month.atDay(1), count.getKey());
+            if (updated == 0) {
+                jdbcTemplate.update(INSERT_LOG_SQL, table.table(), month.atDay(1), count.getKey(),
+                        count.getValue(), method, now);
+            }
+        }
+        return total;
+    }
+
+    static String partitionName(RetainedTable table, YearMonth month) {
+        return table.table() + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    static YearMonth partitionMonth(RetainedTable table, String partition) {
+        String prefix = table.table() + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(prefix.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.razorquake.razorlinks.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Hands out ids from the pooled id sequences to rows inserted with plain JDBC, so those writers can
+ * share a table with the rows Hibernate inserts.
+ * <p>
+ * Each sequence value stands for the block {@code (value - allocationSize, value]}, the block
+ * Hibernate's pooled optimizer takes for it, so a batch costs one sequence value per
+ * {@code allocationSize} rows. On MySQL the sequence is the one-row table Hibernate emulates it
+ * with, advanced past all the blocks of a batch in a single update.
+ * <p>
+ * Call it outside the writing transaction: on MySQL the update would otherwise keep the sequence
+ * row locked until the batch commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String product;
+
+    /**
+     * Returns {@code count} unused ids of the table, in ascending order within each block.
+     */
+    public long[] nextIds(IdSequenceAligner.SequencedTable sequencedTable, int count) {
+        int allocationSize = sequencedTable.allocationSize();
+        long[] values = nextValues(sequencedTable, (count + allocationSize - 1) / allocationSize);
+
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = values[i / allocationSize] - allocationSize + 1 + i % allocationSize;
+        }
+        return ids;
+    }
+
+    private long[] nextValues(IdSequenceAligner.SequencedTable sequencedTable, int blocks) {
+        if (blocks == 0) {
+            return new long[0];
+        }
+
+        String sequence = sequencedTable.sequence();
+        return switch (product()) {
+            case "PostgreSQL" -> jdbcTemplate.queryForList(
+                            "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, blocks)
+                    .stream().mapToLong(Long::longValue).toArray();
+            case "MySQL" -> {
+                long reserved = (long) blocks * sequencedTable.allocationSize();
+                // LAST_INSERT_ID(expr) hands the new value back on this connection, without a second read
+                long next = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate("UPDATE " + sequence + " SET next_val = LAST_INSERT_ID(next_val + "
+                                + reserved + ")");
+                        try (ResultSet rs = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                            rs.next();
+                            return rs.getLong(1);
+                        }
+                    }
+                });
+                long[] values = new long[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    values[i] = next - reserved + (long) i * sequencedTable.allocationSize();
+                }
+                yield values;
+            }
+            default -> {
+                long[] values = new long[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    values[i] = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+                }
+                yield values;
+            }
+        };
+    }
+
+    private String product() {
+        if (product == null) {
+            product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        }
+        return product;
+    }
+}
@@ -1,27 +1,31 @@
 package com.razorquake.razorlinks.service;
 
 import com.razorquake.razorlinks.dtos.*;
-import com.razorquake.razorlinks.models.ClickEvent;
+import com.razorquake.razorlinks.exception.ShortCodeGenerationException;
 import com.razorquake.razorlinks.models.UrlMapping;
 import com.razorquake.razorlinks.models.User;
+import com.razorquake.razorlinks.repository.ClickDailyRollupRepository;
 import com.razorquake.razorlinks.repository.ClickEventRepository;
 import com.razorquake.razorlinks.repository.UrlMappingRepository;
 import com.razorquake.razorlinks.repository.specification.UrlMappingSpecification;
-import jakarta.transaction.Transactional;
+import com.razorquake.razorlinks.service.bulk.LinkDeletionService;
+import com.razorquake.razorlinks.service.shortcode.ShortCodeGenerator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,30 +37,57 @@ public class UrlMappingService {
             "clickCount"
     );
     private static final Set<String> ANALYTICS_SORT_FIELDS = Set.of("clickDate", "count");
+    private static final int MAX_CREATE_ATTEMPTS = 3;
 
     private final UrlRedirectLookupService urlRedirectLookupService;
     private final UrlMappingRepository urlMappingRepository;
     private final ClickEventRepository clickEventRepository;
+    private final ClickDailyRollupRepository clickDailyRollupRepository;
     private final AuditLogService auditLogService;
-
-    @CacheEvict(cacheNames = "redirects", key = "#shortUrl")
+    private final ClickIngestionService clickIngestionService;
+    private final ClickCounterService clickCounterService;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final LinkDeletionService linkDeletionService;
+
+    /**
+     * {@code rollup} reads analytics from the daily rollup table, {@code raw} aggregates click events in SQL.
+     */
+    @Value("${click-analytics.source:rollup}")
+    private String clickAnalyticsSource;
+
+    /**
+     * Deletes the link if it belongs to the user; see {@link LinkDeletionService} for how its clicks go.
+     */
     public void deleteUrlMapping(String shortUrl, User user) {
+        linkDeletionService.delete(List.of(shortUrl), user);
+    }
+
+    /**
+     * Returns the link with the given short URL if it belongs to the user, otherwise {@code null}.
+     */
+    public UrlMapping findOwnedUrlMapping(String shortUrl, User user) {
         UrlMapping urlMapping = urlMappingRepository.findByShortUrl(shortUrl);
-        if (urlMapping != null && urlMapping.getUser().getId().equals(user.getId())) {
-            clickEventRepository.deleteAll(clickEventRepository.findByUrlMapping(urlMapping));
-            urlMappingRepository.delete(urlMapping);
-            auditLogService.shortURLDeleted(urlMapping);
-        }
+        return urlMapping != null && urlMapping.getUser() != null
+                && urlMapping.getUser().getId().equals(user.getId()) ? urlMapping : null;
     }
 
     public UrlMappingDTO createShortUrl(String originalUrl, User user) {
-        String shortUrl = generateShortUrl();
-        UrlMapping urlMapping = new UrlMapping();
-        urlMapping.setShortUrl(shortUrl);
-        urlMapping.setOriginalUrl(originalUrl);
-        urlMapping.setUser(user);
-        urlMapping.setCreatedDate(LocalDateTime.now());
-        UrlMapping savedUrlMapping = urlMappingRepository.save(urlMapping);
+        UrlMapping savedUrlMapping = null;
+        for (int attempt = 1; savedUrlMapping == null; attempt++) {
+            UrlMapping urlMapping = new UrlMapping();
+            urlMapping.setShortUrl(shortCodeGenerator.generate());
+            urlMapping.setOriginalUrl(originalUrl);
+            urlMapping.setUser(user);
+            urlMapping.setCreatedDate(LocalDateTime.now());
+            try {
+                savedUrlMapping = urlMappingRepository.save(urlMapping);
+            } catch (DataIntegrityViolationException e) {
+                // Another request took the same code between generation and insert
+                if (attempt == MAX_CREATE_ATTEMPTS) {
+                    throw new ShortCodeGenerationException("Could not generate a unique short URL, please try again");
+                }
+            }
+        }
         auditLogService.shortURLCreated(savedUrlMapping);
         return convertToDto(savedUrlMapping);
     }
@@ -72,22 +103,27 @@ public class UrlMappingService {
         return urlMappingDTO;
     }
 
-    private String generateShortUrl() {
-        String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        Random random = new Random();
-        StringBuilder shortUrl = new StringBuilder(8);
-        for (int i = 0; i < 8; i++) {
-            shortUrl.append(characters.charAt(random.nextInt(characters.length())));
-        }
-        return shortUrl.toString();
-    }
-
     public Page<UrlMappingDTO> getUrlsByUser(User user, UrlMappingFilter filter) {
         Specification<UrlMapping> specification = UrlMappingSpecification.buildSpecification(user, filter);
         Pageable pageable = PagingUtils.buildPageable(filter, "createdDate", URL_MAPPING_SORT_FIELDS);
         return urlMappingRepository.findAll(specification, pageable).map(this::convertToDto);
     }
 
+    /**
+     * Cursor-paginated variant of {@link #getUrlsByUser}; only counts the matches when asked to.
+     */
+    public CursorPage<UrlMappingDTO> scrollUrlsByUser(User user, UrlMappingFilter filter) {
+        Specification<UrlMapping> specification = UrlMappingSpecification.buildSpecification(user, filter);
+        Sort sort = CursorPaging.buildSort(filter, "createdDate", URL_MAPPING_SORT_FIELDS);
+        ScrollPosition position = CursorPaging.position(filter, sort, UrlMapping.class);
+        Window<UrlMapping> window = urlMappingRepository.findBy(specification, query -> query
+                .sortBy(sort)
+                .limit(CursorPaging.pageSize(filter))
+                .scroll(position));
+        Long total = filter.isIncludeTotal() ? urlMappingRepository.count(specification) : null;
+        return CursorPaging.toCursorPage(window, sort, this::convertToDto, total);
+    }
+
     public Page<ClickEventDTO> getClickEventByDate(String shortUrl, ClickAnalyticsFilter filter) {
         UrlMapping urlMapping = urlMappingRepository.findByShortUrl(shortUrl);
         Pageable pageable = PagingUtils.buildPageable(filter, "clickDate", ANALYTICS_SORT_FIELDS);
@@ -96,24 +132,43 @@ public class UrlMappingService {
             return PagingUtils.toPage(List.of(), pageable);
         }
 
-        List<ClickEvent> clickEvents = resolveClickEventsByDate(urlMapping, filter.getStartDate(), filter.getEndDate());
-        return buildAnalyticsPage(clickEvents, filter, pageable);
+        if (!useRawClickEvents()) {
+            return clickDailyRollupRepository.findDailyClicks(
+                    urlMapping,
+                    resolveStartDay(filter.getStartDate()),
+                    resolveEndDay(filter.getEndDate()),
+                    toAnalyticsPageable(pageable)
+            ).map(this::toClickEventDto);
+        }
+
+        return clickEventRepository.findDailyClicks(
+                urlMapping,
+                resolveStartDate(filter.getStartDate()),
+                resolveEndDateExclusive(filter.getEndDate()),
+                toAnalyticsPageable(pageable)
+        ).map(this::toClickEventDto);
     }
 
     public Page<ClickEventDTO> getTotalClicksByUserAndDate(User user, ClickAnalyticsFilter filter) {
-        List<UrlMapping> urlMappings = urlMappingRepository.findByUser(user);
         Pageable pageable = PagingUtils.buildPageable(filter, "clickDate", ANALYTICS_SORT_FIELDS);
 
-        List<ClickEvent> clickEvents = clickEventRepository.findByUrlMappingInAndClickDateBetween(
-                urlMappings,
-                resolveStartDate(filter.getStartDate()),
-                resolveEndDateExclusive(filter.getEndDate())
-        );
+        if (!useRawClickEvents()) {
+            return clickDailyRollupRepository.findDailyClicksByUser(
+                    user,
+                    resolveStartDay(filter.getStartDate()),
+                    resolveEndDay(filter.getEndDate()),
+                    toAnalyticsPageable(pageable)
+            ).map(this::toClickEventDto);
+        }
 
-        return buildAnalyticsPage(clickEvents, filter, pageable);
+        return clickEventRepository.findDailyClicksByUser(
+                user,
+                resolveStartDate(filter.getStartDate()),
+                resolveEndDateExclusive(filter.getEndDate()),
+                toAnalyticsPageable(pageable)
+        ).map(this::toClickEventDto);
     }
 
-    @Transactional
     public String getOriginalUrl(String shortLink) {
         UrlRedirectCache redirect = urlRedirectLookupService.resolve(shortLink);
 
@@ -121,57 +176,48 @@ public class UrlMappingService {
             return null;
         }
 
-        urlMappingRepository.incrementClickCount(redirect.id());
-
-        ClickEvent clickEvent = new ClickEvent();
-        clickEvent.setClickDate(LocalDateTime.now());
-        clickEvent.setUrlMapping(urlMappingRepository.getReferenceById(redirect.id()));
-        clickEventRepository.save(clickEvent);
-        auditLogService.shortURLClicked(
+        // Click count, click event and audit row are all written asynchronously in batches
+        clickCounterService.increment(redirect.id());
+        clickIngestionService.record(new ClickRecord(
                 redirect.id(),
                 redirect.shortUrl(),
                 redirect.username(),
-                clickEvent.getClickDate()
-        );
+                LocalDateTime.now()
+        ));
 
         return redirect.originalUrl();
     }
 
-    private List<ClickEvent> resolveClickEventsByDate(UrlMapping urlMapping, LocalDateTime start, LocalDateTime end) {
-        if (start != null && end != null) {
-            return clickEventRepository.findByUrlMappingAndClickDateBetween(urlMapping, start, end);
-        }
+    private boolean useRawClickEvents() {
+        return "raw".equalsIgnoreCase(clickAnalyticsSource);
+    }
 
-        return clickEventRepository.findByUrlMapping(urlMapping).stream()
-                .filter(clickEvent -> start == null || !clickEvent.getClickDate().isBefore(start))
-                .filter(clickEvent -> end == null || !clickEvent.getClickDate().isAfter(end))
-                .toList();
+    private ClickEventDTO toClickEventDto(DailyClickCount dailyClickCount) {
+        ClickEventDTO clickEventDTO = new ClickEventDTO();
+        clickEventDTO.setClickDate(dailyClickCount.getClickDate());
+        clickEventDTO.setCount(dailyClickCount.getClickCount());
+        return clickEventDTO;
     }
 
-    private Page<ClickEventDTO> buildAnalyticsPage(List<ClickEvent> clickEvents,
-                                                   ClickAnalyticsFilter filter,
-                                                   Pageable pageable) {
-        Comparator<ClickEventDTO> comparator = "count".equals(filter.getSortBy())
-                ? Comparator.comparing(ClickEventDTO::getCount).thenComparing(ClickEventDTO::getClickDate)
-                : Comparator.comparing(ClickEventDTO::getClickDate).thenComparing(ClickEventDTO::getCount);
+    /**
+     * The public sort field {@code count} is called {@code clickCount} in the projection queries,
+     * with the click date as tie-breaker so pages are stable.
+     */
+    private Pageable toAnalyticsPageable(Pageable pageable) {
+        Sort.Order order = pageable.getSort().iterator().next();
+        Sort sort = "count".equals(order.getProperty())
+                ? Sort.by(order.getDirection(), "clickCount").and(Sort.by(order.getDirection(), "clickDate"))
+                : Sort.by(order.getDirection(), "clickDate");
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
 
-        if (!"ASC".equalsIgnoreCase(filter.getSortOrder())) {
-            comparator = comparator.reversed();
-        }
+    // Rollups are per day, so the filter's timestamps are widened to whole days
+    private LocalDate resolveStartDay(LocalDateTime startDate) {
+        return resolveStartDate(startDate).toLocalDate();
+    }
 
-        List<ClickEventDTO> analytics = clickEvents.stream()
-                .collect(Collectors.groupingBy(clickEvent -> clickEvent.getClickDate().toLocalDate(), Collectors.counting()))
-                .entrySet().stream()
-                .map(entry -> {
-                    ClickEventDTO clickEventDTO = new ClickEventDTO();
-                    clickEventDTO.setClickDate(entry.getKey());
-                    clickEventDTO.setCount(entry.getValue());
-                    return clickEventDTO;
-                })
-                .sorted(comparator)
-                .toList();
-
-        return PagingUtils.toPage(analytics, pageable);
+    private LocalDate resolveEndDay(LocalDateTime endDate) {
+        return endDate == null ? LocalDate.now().plusYears(100) : endDate.toLocalDate();
     }
 
     private LocalDateTime resolveStartDate(LocalDateTime startDate) {
@@ -16,7 +16,8 @@ public class UrlRedirectLookupService {
     public UrlRedirectCache resolve(String shortLink) {
         UrlMapping urlMapping = urlMappingRepository.findByShortUrl(shortLink);
 
-        if (urlMapping == null) {
+        // A link without an owner is being purged by LinkDeletionService
+        if (urlMapping == null || urlMapping.getUser() == null) {
             return null;
         }
 
@@ -1,5 +1,6 @@
 package com.razorquake.razorlinks.service;
 
+import com.razorquake.razorlinks.dtos.CursorPage;
 import com.razorquake.razorlinks.dtos.LoginRequest;
 import com.razorquake.razorlinks.dtos.RegisterRequest;
 import com.razorquake.razorlinks.dtos.UserDTO;
@@ -14,11 +15,15 @@ import com.razorquake.razorlinks.repository.specification.UserSpecification;
 import com.razorquake.razorlinks.security.jwt.JwtAuthenticationResponse;
 import com.razorquake.razorlinks.security.jwt.JwtUtils;
 import com.razorquake.razorlinks.security.service.UserDetailsImpl;
+import com.razorquake.razorlinks.security.service.UserStatusCache;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -49,6 +54,7 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final TotpService totpService;
     private final EmailVerificationService emailVerificationService;
+    private final UserStatusCache userStatusCache;
 
     @Transactional
     public Map<String, Object> registerUser(RegisterRequest registerRequest){
@@ -135,6 +141,21 @@ public class UserService {
         return userRepository.findAll(spec, pageable).map(this::convertToDto);
     }
 
+    /**
+     * Cursor-paginated variant of {@link #getAllUsers}; only counts the matches when asked to.
+     */
+    public CursorPage<UserDTO> scrollUsers(UserFilter filter) {
+        Specification<User> spec = UserSpecification.buildSpecification(filter);
+        Sort sort = CursorPaging.buildSort(filter, "createdDate", USER_SORT_FIELDS);
+        ScrollPosition position = CursorPaging.position(filter, sort, User.class);
+        Window<User> window = userRepository.findBy(spec, query -> query
+                .sortBy(sort)
+                .limit(CursorPaging.pageSize(filter))
+                .scroll(position));
+        Long total = filter.isIncludeTotal() ? userRepository.count(spec) : null;
+        return CursorPaging.toCursorPage(window, sort, this::convertToDto, total);
+    }
+
     public User loggedInUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentUsername = authentication.getName();
@@ -177,6 +198,7 @@ public class UserService {
                 .orElseThrow(() -> new RoleNotFoundException("Role not found"));
         user.setRole(role);
         userRepository.save(user);
+        userStatusCache.invalidate(user.getUsername());
     }
 
     public UserDTO getUserById(Long id) {
@@ -189,6 +211,7 @@ public class UserService {
                 -> new RuntimeException("User not found"));
         user.setAccountNonLocked(!lock);
         userRepository.save(user);
+        userStatusCache.invalidate(user.getUsername());
     }
 
     public void updateAccountExpiryStatus(Long userId, boolean expiry) {
@@ -196,6 +219,7 @@ public class UserService {
                 -> new RuntimeException("User not found"));
         user.setAccountNonExpired(!expiry);
         userRepository.save(user);
+        userStatusCache.invalidate(user.getUsername());
     }
 
     public void updateCredentialsExpiryStatus(Long userId, boolean expiry) {
@@ -204,6 +228,7 @@ public class UserService {
         );
         user.setCredentialsNonExpired(!expiry);
         userRepository.save(user);
+        userStatusCache.invalidate(user.getUsername());
     }
 
     public void updatePassword(Long userId, String newPassword) {
@@ -223,6 +248,7 @@ public class UserService {
                 -> new RuntimeException("User not found"));
         user.setEnabled(enabled);
         userRepository.save(user);
+        userStatusCache.invalidate(user.getUsername());
     }
 
     public GoogleAuthenticatorKey generate2FASecret(Long userId) {
@@ -0,0 +1,21 @@
+package com.razorquake.razorlinks.service.audit;
+
+import com.razorquake.razorlinks.models.AuditLog;
+
+import java.util.List;
+
+/**
+ * Destination for audit records. Implementations may write asynchronously, so callers must fill
+ * in every field, including the timestamp, before handing a record over.
+ */
+public interface AuditSink {
+
+    void write(AuditLog auditLog);
+
+    /**
+     * Writes the records of one bulk operation together.
+     */
+    default void writeAll(List<AuditLog> auditLogs) {
+        auditLogs.forEach(this::write);
+    }
+}
@@ -0,0 +1,181 @@
+package com.razorquake.razorlinks.service.audit;
+
+import com.razorquake.razorlinks.models.AuditLog;
+import com.razorquake.razorlinks.service.BatchingWriter;
+import com.razorquake.razorlinks.service.IdSequenceAligner;
+import com.razorquake.razorlinks.service.SequenceIdAllocator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers audit records in a {@link BatchingWriter} drained by a virtual thread, one multi-row
+ * {@code INSERT} per batch, so audited endpoints never wait on the audit write. Ids are taken from
+ * {@code audit_logs_seq} by {@link SequenceIdAllocator}, so these rows never collide with the ones
+ * Hibernate inserts.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "buffered", matchIfMissing = true)
+@RequiredArgsConstructor
+public class BufferedAuditSink implements AuditSink {
+
+    public enum OverflowPolicy {
+        /** Drop the record immediately when the queue is full. */
+        DROP,
+        /** Write the record synchronously on the calling thread. */
+        CALLER_RUNS
+    }
+
+    private static final String INSERT_AUDIT_PREFIX =
+            "INSERT INTO audit_logs (id, action, username, url_mapping_id, short_url, timestamp) VALUES ";
+    private static final String AUDIT_ROW = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator idAllocator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${audit.overflow-policy:CALLER_RUNS}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${audit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final AtomicLong failedRecords = new AtomicLong();
+
+    private BatchingWriter<AuditLog> writer;
+    private String fullBatchSql;
+
+    @PostConstruct
+    public void start() {
+        writer = new BatchingWriter<>(queueCapacity, batchSize, flushIntervalMs, this::flush);
+        fullBatchSql = insertSql(batchSize);
+        registerMetrics();
+        writer.start(Thread.ofVirtual().name("audit-writer"));
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("razorlinks.audit.queue.depth", this, BufferedAuditSink::getQueueDepth)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        FunctionCounter.builder("razorlinks.audit.dropped", droppedRecords, AtomicLong::get)
+                .description("Audit records dropped because the queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("razorlinks.audit.failed", failedRecords, AtomicLong::get)
+                .description("Audit records that could not be written")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void write(AuditLog auditLog) {
+        if (writer.offer(auditLog)) {
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            flush(List.of(auditLog));
+        } else {
+            drop();
+        }
+    }
+
+    /**
+     * Writes the records on the calling thread, in multi-row inserts of {@code audit.batch-size}. A bulk
+     * operation would otherwise fill the queue in one go and push every other audited request into the
+     * overflow policy.
+     */
+    @Override
+    public void writeAll(List<AuditLog> auditLogs) {
+        writer.flushInBatches(auditLogs);
+    }
+
+    public int getQueueDepth() {
+        return writer.size();
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    public long getFailedRecords() {
+        return failedRecords.get();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Whatever the writer did not get to is flushed on the shutdown thread
+        int remaining = writer.stop(shutdownTimeoutMs);
+        log.info("Audit writer stopped, drained {} pending records ({} dropped since startup)",
+                remaining, droppedRecords.get());
+    }
+
+    void flush(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            String sql = batch.size() == batchSize ? fullBatchSql : insertSql(batch.size());
+            long[] ids = idAllocator.nextIds(IdSequenceAligner.AUDIT_LOGS, batch.size());
+            jdbcTemplate.update(sql, ps -> {
+                int index = 1;
+                int row = 0;
+                for (AuditLog auditLog : batch) {
+                    ps.setLong(index++, ids[row++]);
+                    ps.setString(index++, auditLog.getAction());
+                    ps.setString(index++, auditLog.getUsername());
+                    ps.setObject(index++, auditLog.getUrlMappingId(), Types.BIGINT);
+                    ps.setString(index++, auditLog.getShortUrl());
+                    ps.setTimestamp(index++, auditLog.getTimestamp() == null ? null : Timestamp.valueOf(auditLog.getTimestamp()));
+                }
+            });
+        } catch (DataAccessException e) {
+            failedRecords.addAndGet(batch.size());
+            log.error("Failed to write {} audit records", batch.size(), e);
+        }
+    }
+
+    static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_AUDIT_PREFIX.length() + rows * (AUDIT_ROW.length() + 2));
+        sql.append(INSERT_AUDIT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(AUDIT_ROW);
+        }
+        return sql.toString();
+    }
+
+    private void drop() {
+        long dropped = droppedRecords.incrementAndGet();
+        // Log the first drop and then every 1000th, so a full queue cannot flood the logs
+        if (dropped == 1 || dropped % 1000 == 0) {
+            log.warn("Audit queue is full, {} records dropped so far", dropped);
+        }
+    }
+}
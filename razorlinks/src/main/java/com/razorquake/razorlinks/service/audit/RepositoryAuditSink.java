@@ -0,0 +1,30 @@
+package com.razorquake.razorlinks.service.audit;
+
+import com.razorquake.razorlinks.models.AuditLog;
+import com.razorquake.razorlinks.repository.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Saves each audit record synchronously on the calling thread.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "direct")
+@RequiredArgsConstructor
+public class RepositoryAuditSink implements AuditSink {
+
+    private final AuditLogRepository auditLogRepository;
+
+    @Override
+    public void write(AuditLog auditLog) {
+        auditLogRepository.save(auditLog);
+    }
+
+    @Override
+    public void writeAll(List<AuditLog> auditLogs) {
+        auditLogRepository.saveAll(auditLogs);
+    }
+}
@@ -0,0 +1,126 @@
+package com.razorquake.razorlinks.service.bulk;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the URLs of a bulk shorten request one at a time, so a request is never held in memory whole.
+ * <p>
+ * Malformed input surfaces as an {@link IllegalArgumentException} from the iterator, at the point it is
+ * reached; everything before it has already been read.
+ */
+public final class BulkShortenInput {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+    private static final String ORIGINAL_URL = "originalUrl";
+
+    private BulkShortenInput() {
+    }
+
+    /**
+     * A JSON array whose elements are URL strings or objects with an {@code originalUrl} field.
+     */
+    public static Iterator<String> json(InputStream in) {
+        return new Iterator<>() {
+            // Opened on first use, so malformed input is reported by the iterator like everywhere else
+            private MappingIterator<Object> values;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    if (values == null) {
+                        values = MAPPER.readerFor(Object.class).readValues(in);
+                    }
+                    return values.hasNextValue();
+                } catch (JacksonException e) {
+                    throw new IllegalArgumentException("Malformed JSON input: " + e.getOriginalMessage(), e);
+                }
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object value;
+                try {
+                    value = values.nextValue();
+                } catch (JacksonException e) {
+                    throw new IllegalArgumentException("Malformed JSON input: " + e.getOriginalMessage(), e);
+                }
+                if (value instanceof Map<?, ?> link) {
+                    value = link.get(ORIGINAL_URL);
+                }
+                return value == null ? null : value.toString();
+            }
+        };
+    }
+
+    /**
+     * CSV with one URL per line and an optional {@code originalUrl} header. Blank lines are skipped.
+     */
+    public static Iterator<String> csv(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new Iterator<>() {
+            private String next;
+            private boolean firstLine = true;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    String line;
+                    try {
+                        line = reader.readLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (line == null) {
+                        return false;
+                    }
+                    if (firstLine) {
+                        firstLine = false;
+                        // A byte order mark from spreadsheet exports, then the header if there is one
+                        line = line.startsWith("\uFEFF") ? line.substring(1) : line;
+                        if (ORIGINAL_URL.equalsIgnoreCase(csvValue(line))) {
+                            continue;
+                        }
+                    }
+                    if (!line.isBlank()) {
+                        next = csvValue(line);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String value = next;
+                next = null;
+                return value;
+            }
+        };
+    }
+
+    static String csvValue(String line) {
+        String value = line.strip();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+}
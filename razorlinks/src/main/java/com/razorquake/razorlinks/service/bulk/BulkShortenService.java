@@ -0,0 +1,180 @@
+package com.razorquake.razorlinks.service.bulk;
+
+import com.razorquake.razorlinks.exception.ShortCodeGenerationException;
+import com.razorquake.razorlinks.models.UrlMapping;
+import com.razorquake.razorlinks.models.User;
+import com.razorquake.razorlinks.repository.UrlMappingRepository;
+import com.razorquake.razorlinks.service.AuditLogService;
+import com.razorquake.razorlinks.service.export.ExportWriter;
+import com.razorquake.razorlinks.service.shortcode.ShortCodeGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Creates links in bulk, a chunk of {@code bulk-shorten.chunk-size} URLs at a time, and writes one
+ * result row per input URL as each chunk completes.
+ * <p>
+ * A chunk's codes are drawn together with {@link ShortCodeGenerator#generateBatch}, the links are
+ * inserted in one transaction, which Hibernate sends as JDBC batches with ids from the pooled
+ * sequence, and the audit records go out in a single batched write. If the insert hits a code that
+ * is already taken, the chunk is rolled back and retried with fresh codes. Invalid URLs get an error
+ * row and do not hold up the rest of their chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkShortenService {
+
+    public static final String[] RESULT_COLUMNS = {"line", "originalUrl", "shortUrl", "error"};
+
+    static final int MAX_URL_LENGTH = 255;
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private final UrlMappingRepository urlMappingRepository;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final AuditLogService auditLogService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${bulk-shorten.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${bulk-shorten.max-links:100000}")
+    private int maxLinks;
+
+    private record Line(int number, String originalUrl, String error) {
+    }
+
+    /**
+     * Shortens every URL from {@code originalUrls} for the user and returns how many links were created.
+     * Stops after {@code bulk-shorten.max-links} URLs, or at malformed input, with a final error row.
+     */
+    public int shorten(Iterator<String> originalUrls, User user, ExportWriter writer) throws IOException {
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        int lineNumber = 0;
+        int created = 0;
+        String stoppedBecause = null;
+        while (true) {
+            String originalUrl;
+            try {
+                if (!originalUrls.hasNext()) {
+                    break;
+                }
+                if (lineNumber == maxLinks) {
+                    stoppedBecause = "Only the first " + maxLinks + " links of a request are shortened";
+                    break;
+                }
+                originalUrl = originalUrls.next();
+            } catch (IllegalArgumentException e) {
+                // Malformed input; the lines read so far are still shortened
+                stoppedBecause = e.getMessage();
+                break;
+            }
+
+            String normalized = originalUrl == null ? null : originalUrl.strip();
+            chunk.add(new Line(++lineNumber, normalized, validationError(normalized)));
+            if (chunk.size() == chunkSize) {
+                created += process(chunk, user, writer);
+                chunk.clear();
+            }
+        }
+
+        created += process(chunk, user, writer);
+        if (stoppedBecause != null) {
+            writer.row(lineNumber + 1, null, null, stoppedBecause);
+        }
+        writer.flush();
+        log.info("Bulk shortened {} of {} URLs for {}", created, lineNumber, user.getUsername());
+        return created;
+    }
+
+    private int process(List<Line> chunk, User user, ExportWriter writer) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        List<Line> valid = chunk.stream().filter(line -> line.error() == null).toList();
+        List<UrlMapping> saved = List.of();
+        String chunkError = null;
+        if (!valid.isEmpty()) {
+            try {
+                saved = insert(valid, user);
+                auditLogService.shortURLsCreated(saved);
+            } catch (ShortCodeGenerationException e) {
+                chunkError = e.getMessage();
+            }
+        }
+
+        int next = 0;
+        for (Line line : chunk) {
+            if (line.error() != null) {
+                writer.row(line.number(), line.originalUrl(), null, line.error());
+            } else if (chunkError != null) {
+                writer.row(line.number(), line.originalUrl(), null, chunkError);
+            } else {
+                writer.row(line.number(), line.originalUrl(), saved.get(next++).getShortUrl(), null);
+            }
+        }
+        // Lets the client see each chunk's results as soon as they are committed
+        writer.flush();
+        return saved.size();
+    }
+
+    private List<UrlMapping> insert(List<Line> lines, User user) {
+        for (int attempt = 1; ; attempt++) {
+            // Fresh entities on every attempt; a rolled-back attempt leaves ids on the old ones
+            List<String> codes = shortCodeGenerator.generateBatch(lines.size());
+            LocalDateTime now = LocalDateTime.now();
+            List<UrlMapping> urlMappings = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                UrlMapping urlMapping = new UrlMapping();
+                urlMapping.setShortUrl(codes.get(i));
+                urlMapping.setOriginalUrl(lines.get(i).originalUrl());
+                urlMapping.setUser(user);
+                urlMapping.setCreatedDate(now);
+                urlMappings.add(urlMapping);
+            }
+            try {
+                return transactionTemplate.execute(status -> urlMappingRepository.saveAll(urlMappings));
+            } catch (DataIntegrityViolationException e) {
+                // A drawn code was already taken
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    throw new ShortCodeGenerationException("Could not generate unique short URLs, please try again");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns why the URL cannot be shortened, or {@code null} if it can.
+     */
+    static String validationError(String originalUrl) {
+        if (originalUrl == null || originalUrl.isEmpty()) {
+            return "originalUrl is required";
+        }
+        if (originalUrl.length() > MAX_URL_LENGTH) {
+            return "originalUrl is longer than " + MAX_URL_LENGTH + " characters";
+        }
+        try {
+            URI uri = new URI(originalUrl);
+            if (uri.getScheme() != null && uri.getHost() != null
+                    && ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+                return null;
+            }
+        } catch (URISyntaxException e) {
+            // Reported below
+        }
+        return "originalUrl must be an absolute http or https URL";
+    }
+}
@@ -0,0 +1,235 @@
+package com.razorquake.razorlinks.service.bulk;
+
+import com.razorquake.razorlinks.dtos.LinkDeletionResult;
+import com.razorquake.razorlinks.models.UrlMapping;
+import com.razorquake.razorlinks.models.User;
+import com.razorquake.razorlinks.repository.UrlMappingRepository;
+import com.razorquake.razorlinks.service.AuditLogService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes links together with their click events and daily rollups, using set-based
+ * {@code DELETE ... WHERE url_mapping_id = ?} statements instead of loading the clicks.
+ * <p>
+ * Links with fewer than {@code link-deletion.async-threshold} click events, counted in
+ * {@code click_events} up to the threshold, are deleted in one transaction before the call returns.
+ * Larger links are first detached in that transaction: the short code is replaced by a
+ * {@code deleting:} tombstone, the owner is cleared and the link is recorded in {@code link_deletion},
+ * so it stops redirecting and disappears from its owner's lists at once. A background worker then
+ * deletes its clicks in chunks of {@code link-deletion.chunk-size}, ordered by {@code (click_date, id)}
+ * so every chunk is bounded however many clicks share a timestamp, and finally the link. Links left in
+ * {@code link_deletion} by a restart are picked up again by a periodic sweep.
+ * <p>
+ * Every deleted short code is evicted from the redirect cache, which also invalidates the near
+ * caches of the other nodes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LinkDeletionService {
+
+    static final String TOMBSTONE_PREFIX = "deleting:";
+    static final String REDIRECT_CACHE = "redirects";
+
+    private static final String DELETE_CLICK_EVENTS_SQL = "DELETE FROM click_events WHERE url_mapping_id = ?";
+    private static final String DELETE_ROLLUPS_SQL = "DELETE FROM click_daily_rollup WHERE url_mapping_id = ?";
+    private static final String DELETE_URL_MAPPING_SQL = "DELETE FROM url_mapping WHERE id = ?";
+    private static final String DETACH_URL_MAPPING_SQL =
+            "UPDATE url_mapping SET short_url = ?, user_id = NULL WHERE id = ?";
+    private static final String INSERT_LINK_DELETION_SQL =
+            "INSERT INTO link_deletion (url_mapping_id, requested_at) VALUES (?, ?)";
+    private static final String DELETE_LINK_DELETION_SQL = "DELETE FROM link_deletion WHERE url_mapping_id = ?";
+    private static final String DETACHED_SQL = "SELECT url_mapping_id FROM link_deletion";
+    // Finds a row only if the link has more clicks than the offset, without counting all of them
+    private static final String CLICK_AT_OFFSET_SQL =
+            "SELECT id FROM click_events WHERE url_mapping_id = ? LIMIT 1 OFFSET ?";
+    // The last click of the next chunk, starting after the previous one on the (url_mapping_id, click_date) index
+    private static final String FIRST_CHUNK_END_SQL =
+            "SELECT click_date, id FROM click_events WHERE url_mapping_id = ? AND click_date IS NOT NULL" +
+            " ORDER BY click_date, id LIMIT 1 OFFSET ?";
+    private static final String NEXT_CHUNK_END_SQL =
+            "SELECT click_date, id FROM click_events WHERE url_mapping_id = ? AND click_date >= ?" +
+            " AND (click_date > ? OR id > ?) ORDER BY click_date, id LIMIT 1 OFFSET ?";
+    static final String DELETE_CLICK_EVENTS_CHUNK_SQL =
+            "DELETE FROM click_events WHERE url_mapping_id = ? AND click_date <= ? AND (click_date < ? OR id <= ?)";
+
+    // Bounds the IN list of each ownership lookup
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    private final UrlMappingRepository urlMappingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLogService auditLogService;
+    private final CacheManager cacheManager;
+
+    @Value("${link-deletion.async-threshold:100000}")
+    private int asyncThreshold;
+
+    @Value("${link-deletion.chunk-size:10000}")
+    private int chunkSize;
+
+    private final Set<Long> purging = ConcurrentHashMap.newKeySet();
+    private ExecutorService purger;
+
+    @PostConstruct
+    public void start() {
+        // One purge at a time, so deleting a few huge links cannot saturate the database
+        purger = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("link-purge").daemon(true).factory());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        purger.shutdownNow();
+        if (!purger.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Link purge did not stop; detached links are purged again after the restart");
+        }
+    }
+
+    /**
+     * Deletes the user's links with the given short codes. Codes that do not exist or belong to
+     * someone else are reported as not found.
+     */
+    public LinkDeletionResult delete(List<String> shortUrls, User user) {
+        Set<String> requested = new LinkedHashSet<>(shortUrls);
+        List<UrlMapping> owned = new ArrayList<>(requested.size());
+        List<String> codes = new ArrayList<>(requested);
+        for (int from = 0; from < codes.size(); from += LOOKUP_BATCH_SIZE) {
+            owned.addAll(urlMappingRepository.findByUserAndShortUrlIn(user,
+                    codes.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, codes.size()))));
+        }
+
+        if (owned.isEmpty()) {
+            return new LinkDeletionResult(List.of(), List.of(), List.copyOf(requested));
+        }
+
+        // click_count lags behind the buffered clicks and says nothing about the rows to delete
+        List<UrlMapping> small = new ArrayList<>(owned.size());
+        List<UrlMapping> large = new ArrayList<>();
+        for (UrlMapping link : owned) {
+            if (hasAtLeastThresholdClicks(link.getId())) {
+                large.add(link);
+            } else {
+                small.add(link);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!small.isEmpty()) {
+                List<Object[]> ids = small.stream().map(link -> new Object[]{link.getId()}).toList();
+                jdbcTemplate.batchUpdate(DELETE_CLICK_EVENTS_SQL, ids);
+                jdbcTemplate.batchUpdate(DELETE_ROLLUPS_SQL, ids);
+                jdbcTemplate.batchUpdate(DELETE_URL_MAPPING_SQL, ids);
+            }
+            if (!large.isEmpty()) {
+                jdbcTemplate.batchUpdate(DETACH_URL_MAPPING_SQL, large.stream()
+                        .map(link -> new Object[]{TOMBSTONE_PREFIX + link.getId(), link.getId()})
+                        .toList());
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.batchUpdate(INSERT_LINK_DELETION_SQL, large.stream()
+                        .map(link -> new Object[]{link.getId(), now})
+                        .toList());
+            }
+        });
+
+        // After the commit, so a concurrent redirect cannot cache the link again from the old row
+        Cache redirects = cacheManager.getCache(REDIRECT_CACHE);
+        if (redirects != null) {
+            owned.forEach(link -> redirects.evict(link.getShortUrl()));
+        }
+        auditLogService.shortURLsDeleted(owned);
+        large.forEach(link -> schedulePurge(link.getId()));
+
+        owned.forEach(link -> requested.remove(link.getShortUrl()));
+        return new LinkDeletionResult(
+                small.stream().map(UrlMapping::getShortUrl).toList(),
+                large.stream().map(UrlMapping::getShortUrl).toList(),
+                List.copyOf(requested)
+        );
+    }
+
+    private boolean hasAtLeastThresholdClicks(Long urlMappingId) {
+        return !jdbcTemplate.queryForList(CLICK_AT_OFFSET_SQL, Long.class, urlMappingId, asyncThreshold - 1).isEmpty();
+    }
+
+    /**
+     * Resumes purging links that were detached but not yet deleted, for example before a restart.
+     */
+    @Scheduled(fixedDelayString = "${link-deletion.sweep-interval-ms:300000}")
+    public void resumeDetached() {
+        try {
+            jdbcTemplate.queryForList(DETACHED_SQL, Long.class).forEach(this::schedulePurge);
+        } catch (DataAccessException e) {
+            log.error("Failed to look up detached links", e);
+        }
+    }
+
+    private void schedulePurge(Long urlMappingId) {
+        if (purging.add(urlMappingId)) {
+            purger.execute(() -> {
+                try {
+                    purge(urlMappingId);
+                } catch (DataAccessException e) {
+                    log.error("Failed to purge link {}; retrying on the next sweep", urlMappingId, e);
+                } finally {
+                    purging.remove(urlMappingId);
+                }
+            });
+        }
+    }
+
+    private record ClickKey(Timestamp clickDate, long id) {
+    }
+
+    void purge(Long urlMappingId) {
+        RowMapper<ClickKey> clickKey = (rs, rowNum) -> new ClickKey(rs.getTimestamp(1), rs.getLong(2));
+        ClickKey chunkEnd = null;
+        long deleted = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<ClickKey> end = chunkEnd == null
+                    ? jdbcTemplate.query(FIRST_CHUNK_END_SQL, clickKey, urlMappingId, chunkSize - 1)
+                    : jdbcTemplate.query(NEXT_CHUNK_END_SQL, clickKey, urlMappingId,
+                            chunkEnd.clickDate(), chunkEnd.clickDate(), chunkEnd.id(), chunkSize - 1);
+            if (end.isEmpty()) {
+                // Less than a chunk left; the final delete takes it
+                break;
+            }
+            chunkEnd = end.getFirst();
+            deleted += jdbcTemplate.update(DELETE_CLICK_EVENTS_CHUNK_SQL, urlMappingId,
+                    chunkEnd.clickDate(), chunkEnd.clickDate(), chunkEnd.id());
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+
+        // The last partial chunk, plus any click that was still queued when the link was detached
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_CLICK_EVENTS_SQL, urlMappingId);
+            jdbcTemplate.update(DELETE_ROLLUPS_SQL, urlMappingId);
+            jdbcTemplate.update(DELETE_LINK_DELETION_SQL, urlMappingId);
+            jdbcTemplate.update(DELETE_URL_MAPPING_SQL, urlMappingId);
+        });
+        log.info("Purged link {} after deleting {} click events in chunks", urlMappingId, deleted);
+    }
+}
@@ -0,0 +1,251 @@
+package com.razorquake.razorlinks.service.email;
+
+import com.razorquake.razorlinks.models.EmailOutboxMessage;
+import com.razorquake.razorlinks.security.util.EmailService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the mail queued in {@code email_outbox} from a small pool of worker threads.
+ * <p>
+ * Each poll claims up to {@code email.outbox.batch-size} due messages and splits them between the
+ * workers. A worker hands its share to the mail sender in one call, which sends them all over a
+ * single SMTP connection instead of one handshake per message. Sent messages are deleted. Failed ones
+ * are retried with exponential backoff, and marked {@code FAILED} after
+ * {@code email.outbox.max-attempts}.
+ * <p>
+ * A message is claimed by moving its next attempt past {@code email.outbox.claim-timeout-ms} with
+ * a conditional update, so nodes polling the same outbox never send it twice. If a node dies
+ * mid-send, its claimed messages become due again once the claim times out.
+ * <p>
+ * Polls run on the dispatcher's own thread rather than the shared {@code @Scheduled} scheduler,
+ * since each one waits for its sends: a slow mail server must not hold up click count flushes and
+ * the other scheduled jobs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private static final String DUE_SQL =
+            "SELECT id, recipient, subject, template, params, attempts, next_attempt_at FROM email_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= ? ORDER BY next_attempt_at, id";
+    private static final String CLAIM_SQL =
+            "UPDATE email_outbox SET next_attempt_at = ? WHERE id = ? AND status = 'PENDING' AND next_attempt_at = ?";
+    private static final String DELETE_SQL = "DELETE FROM email_outbox WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE email_outbox SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+    private static final String FAIL_SQL =
+            "UPDATE email_outbox SET status = 'FAILED', attempts = ?, last_error = ? WHERE id = ?";
+
+    private static final RowMapper<EmailOutboxMessage> MESSAGE_ROW_MAPPER = (rs, rowNum) -> {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(rs.getLong("id"));
+        message.setRecipient(rs.getString("recipient"));
+        message.setSubject(rs.getString("subject"));
+        message.setTemplate(rs.getString("template"));
+        message.setParams(rs.getString("params"));
+        message.setAttempts(rs.getInt("attempts"));
+        message.setNextAttemptAt(rs.getTimestamp("next_attempt_at").toLocalDateTime());
+        return message;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JavaMailSender mailSender;
+    private final EmailService emailService;
+
+    @Value("${email.outbox.workers:2}")
+    private int workers;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-initial-ms:30000}")
+    private long backoffInitialMs;
+
+    @Value("${email.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${email.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    @Value("${email.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("email-outbox-", 0).daemon(true).factory());
+        poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("email-outbox-poller").daemon(true).factory());
+        // A fixed delay also keeps polls from overlapping
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        poller.shutdownNow();
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Email outbox workers did not finish; unsent messages are retried after the claim timeout");
+        }
+    }
+
+    private void poll() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            // An exception escaping the task would cancel every later poll
+            log.error("Email outbox poll failed", e);
+        }
+    }
+
+    public void dispatch() {
+        List<EmailOutboxMessage> claimed;
+        try {
+            claimed = claimDue(LocalDateTime.now());
+        } catch (DataAccessException e) {
+            log.error("Failed to poll the email outbox", e);
+            return;
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        int share = (claimed.size() + workers - 1) / workers;
+        List<Future<?>> sends = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += share) {
+            List<EmailOutboxMessage> batch = claimed.subList(from, Math.min(from + share, claimed.size()));
+            sends.add(executor.submit(() -> send(batch)));
+        }
+        // Waiting keeps polls from overlapping, so the workers never fall behind the claims
+        for (Future<?> send : sends) {
+            try {
+                send.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Email outbox worker failed", e.getCause());
+            }
+        }
+    }
+
+    List<EmailOutboxMessage> claimDue(LocalDateTime now) {
+        List<EmailOutboxMessage> due = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DUE_SQL);
+            statement.setMaxRows(batchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+            return statement;
+        }, MESSAGE_ROW_MAPPER);
+
+        Timestamp claimedUntil = Timestamp.valueOf(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(claimTimeoutMs)));
+        List<EmailOutboxMessage> claimed = new ArrayList<>();
+        for (EmailOutboxMessage message : due) {
+            // Another node may have claimed it between the query and this update
+            if (jdbcTemplate.update(CLAIM_SQL, claimedUntil, message.getId(),
+                    Timestamp.valueOf(message.getNextAttemptAt())) == 1) {
+                claimed.add(message);
+            }
+        }
+        return claimed;
+    }
+
+    void send(List<EmailOutboxMessage> batch) {
+        Map<MimeMessage, EmailOutboxMessage> messages = new LinkedHashMap<>();
+        for (EmailOutboxMessage email : batch) {
+            try {
+                messages.put(emailService.toMimeMessage(email), email);
+            } catch (Exception e) {
+                retryLater(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Lists each message that was not accepted; the rest went out
+            failures = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        }
+
+        List<Object[]> sent = new ArrayList<>();
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> message : messages.entrySet()) {
+            Exception failure = failures.get(message.getKey());
+            if (failure == null) {
+                sent.add(new Object[]{message.getValue().getId()});
+            } else {
+                retryLater(message.getValue(), failure);
+            }
+        }
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, sent);
+        }
+    }
+
+    private void retryLater(EmailOutboxMessage email, Exception failure) {
+        int attempts = email.getAttempts() + 1;
+        String error = truncate(failure.toString());
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), attempts, failure);
+            jdbcTemplate.update(FAIL_SQL, attempts, error, email.getId());
+            return;
+        }
+
+        LocalDateTime nextAttempt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs(attempts)));
+        log.warn("Failed to send email {} to {} (attempt {}), retrying at {}: {}",
+                email.getId(), email.getRecipient(), attempts, nextAttempt, error);
+        jdbcTemplate.update(RETRY_SQL, attempts, Timestamp.valueOf(nextAttempt), error, email.getId());
+    }
+
+    long backoffMs(int attempts) {
+        // Doubles with every failed attempt: initial, 2 x initial, 4 x initial, ...
+        long backoff = backoffInitialMs << Math.min(attempts - 1, 30);
+        return backoff <= 0 ? backoffMaxMs : Math.min(backoff, backoffMaxMs);
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutboxMessage> messages, Exception e) {
+        Map<Object, Exception> failures = new LinkedHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+}
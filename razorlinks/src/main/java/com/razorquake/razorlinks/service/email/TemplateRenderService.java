@@ -0,0 +1,128 @@
+package com.razorquake.razorlinks.service.email;
+
+import gg.jte.TemplateEngine;
+import gg.jte.TemplateOutput;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Renders the email templates into pooled buffers.
+ * <p>
+ * The precompiled templates already hold their static sections as string constants, so a render
+ * only appends those constants and the escaped parameters. What it still allocates per message is
+ * the output buffer, which for these templates grows through several copies to its final size; the
+ * buffers here are borrowed from a bounded pool instead and keep their capacity between renders.
+ * The pool is shared rather than per thread, so it stays small when callers run on virtual threads.
+ * <p>
+ * {@link #renderAll} renders one template for many recipients on a single borrowed buffer, for bulk
+ * sends such as re-verification campaigns.
+ */
+@Service
+@RequiredArgsConstructor
+public class TemplateRenderService {
+
+    // Buffers that grew far past the configured capacity are dropped rather than kept in the pool
+    private static final int MAX_RETAINED_GROWTH = 8;
+
+    private final TemplateEngine templateEngine;
+
+    @Value("${email.templates.buffer-pool-size:16}")
+    private int bufferPoolSize;
+
+    @Value("${email.templates.buffer-capacity:16384}")
+    private int bufferCapacity;
+
+    private BlockingQueue<PooledOutput> buffers;
+
+    @PostConstruct
+    public void initPool() {
+        buffers = new ArrayBlockingQueue<>(bufferPoolSize);
+    }
+
+    public String render(String template, Map<String, Object> params) {
+        PooledOutput output = borrow();
+        try {
+            return renderInto(output, template, params);
+        } finally {
+            release(output);
+        }
+    }
+
+    /**
+     * Renders {@code template} once per parameter map, in order.
+     */
+    public List<String> renderAll(String template, List<? extends Map<String, Object>> params) {
+        List<String> rendered = new ArrayList<>(params.size());
+        PooledOutput output = borrow();
+        try {
+            for (Map<String, Object> recipientParams : params) {
+                rendered.add(renderInto(output, template, recipientParams));
+            }
+        } finally {
+            release(output);
+        }
+        return rendered;
+    }
+
+    private String renderInto(PooledOutput output, String template, Map<String, Object> params) {
+        output.reset();
+        templateEngine.render(template, params, output);
+        return output.toString();
+    }
+
+    private PooledOutput borrow() {
+        PooledOutput output = buffers.poll();
+        return output != null ? output : new PooledOutput(bufferCapacity);
+    }
+
+    private void release(PooledOutput output) {
+        if (output.capacity() <= bufferCapacity * MAX_RETAINED_GROWTH) {
+            output.reset();
+            buffers.offer(output);
+        }
+    }
+
+    int pooledBuffers() {
+        return buffers.size();
+    }
+
+    static final class PooledOutput implements TemplateOutput {
+
+        private final StringBuilder buffer;
+
+        PooledOutput(int capacity) {
+            buffer = new StringBuilder(capacity);
+        }
+
+        @Override
+        public void writeContent(String value) {
+            buffer.append(value);
+        }
+
+        @Override
+        public void writeContent(String value, int beginIndex, int endIndex) {
+            buffer.append(value, beginIndex, endIndex);
+        }
+
+        void reset() {
+            buffer.setLength(0);
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
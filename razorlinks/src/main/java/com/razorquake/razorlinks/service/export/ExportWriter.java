@@ -0,0 +1,91 @@
+package com.razorquake.razorlinks.service.export;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes export rows one at a time in the requested format, so an export never holds more than
+ * one row in memory. The underlying stream is flushed but left open for its owner to close.
+ */
+public final class ExportWriter {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
+    private final String[] columns;
+    private final Writer writer;
+    private final JsonGenerator json;
+
+    private ExportWriter(ExportFormat format, OutputStream out, String[] columns) {
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.json = format == ExportFormat.NDJSON ? MAPPER.createGenerator(writer) : null;
+    }
+
+    /**
+     * Opens a writer for rows with the given columns, writing the CSV header right away.
+     */
+    public static ExportWriter open(ExportFormat format, OutputStream out, String... columns) throws IOException {
+        ExportWriter exportWriter = new ExportWriter(format, out, columns);
+        if (format == ExportFormat.CSV) {
+            exportWriter.csvRow(columns);
+        }
+        return exportWriter;
+    }
+
+    /**
+     * Writes one row, with one value per column in the order given to {@link #open}.
+     */
+    public void row(Object... values) throws IOException {
+        if (json == null) {
+            csvRow(values);
+            return;
+        }
+
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            json.writeName(columns[i]);
+            json.writePOJO(values[i]);
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    public void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private void csvRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof LocalDateTime dateTime) {
+                // Same representation as in NDJSON, which always includes the seconds
+                writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+            } else if (values[i] != null) {
+                writer.write(csvValue(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvValue(String value) {
+        // Values a spreadsheet would evaluate as a formula are prefixed, since usernames and URLs are user input
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
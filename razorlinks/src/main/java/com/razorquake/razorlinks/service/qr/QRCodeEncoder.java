@@ -0,0 +1,116 @@
+package com.razorquake.razorlinks.service.qr;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a QR bit matrix as a 1-bit grayscale PNG or as an SVG path, straight from the matrix
+ * rows, without going through a {@code BufferedImage} and ImageIO.
+ * <p>
+ * A set bit is a dark module. A 1-bit PNG packs eight pixels per byte, and a scaled QR code
+ * repeats each row many times, which deflate compresses to almost nothing.
+ */
+public final class QRCodeEncoder {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private QRCodeEncoder() {
+    }
+
+    public static void writePng(BitMatrix matrix, OutputStream out) throws IOException {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(1); // bit depth
+        headerData.writeByte(0); // grayscale
+        headerData.writeByte(0); // deflate
+        headerData.writeByte(0); // adaptive filtering
+        headerData.writeByte(0); // no interlace
+
+        // Chunks are length-prefixed, so the compressed rows are collected before IDAT is written
+        ByteArrayOutputStream imageData = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(imageData, deflater)) {
+            // Each scanline starts with its filter type, 0 (none)
+            byte[] scanline = new byte[1 + (width + 7) / 8];
+            BitArray row = new BitArray(width);
+            for (int y = 0; y < height; y++) {
+                row = matrix.getRow(y, row);
+                Arrays.fill(scanline, 1, scanline.length, (byte) 0);
+                for (int x = 0; x < width; x++) {
+                    // In grayscale a 1 bit is white, so light modules are the set bits
+                    if (!row.get(x)) {
+                        scanline[1 + (x >>> 3)] |= (byte) (0x80 >>> (x & 7));
+                    }
+                }
+                deflate.write(scanline);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(PNG_SIGNATURE);
+        writeChunk(data, "IHDR", header.toByteArray());
+        writeChunk(data, "IDAT", imageData.toByteArray());
+        writeChunk(data, "IEND", new byte[0]);
+        data.flush();
+    }
+
+    /**
+     * Writes one unit per module, so {@code matrix} should be the unscaled module matrix; the SVG is
+     * scaled to {@code size} pixels by its viewBox.
+     */
+    public static void writeSvg(BitMatrix matrix, int size, OutputStream out) throws IOException {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        StringBuilder svg = new StringBuilder(64 + width * height)
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(size)
+                .append("\" height=\"").append(size)
+                .append("\" viewBox=\"0 0 ").append(width).append(' ').append(height)
+                .append("\" shape-rendering=\"crispEdges\">")
+                .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+
+        // Each horizontal run of dark modules becomes one rectangle
+        BitArray row = new BitArray(width);
+        for (int y = 0; y < height; y++) {
+            row = matrix.getRow(y, row);
+            int x = row.getNextSet(0);
+            while (x < width) {
+                int end = row.getNextUnset(x);
+                svg.append('M').append(x).append(' ').append(y)
+                        .append('h').append(end - x).append("v1h-").append(end - x).append('z');
+                x = row.getNextSet(end);
+            }
+        }
+        svg.append("\"/></svg>");
+        out.write(svg.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
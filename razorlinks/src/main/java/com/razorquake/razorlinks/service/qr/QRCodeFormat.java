@@ -0,0 +1,14 @@
+package com.razorquake.razorlinks.service.qr;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum QRCodeFormat {
+    PNG("image/png"),
+    /** Scales to any size without blurring; the size only sets the default rendering dimensions. */
+    SVG("image/svg+xml");
+
+    private final String mediaType;
+}
@@ -0,0 +1,7 @@
+package com.razorquake.razorlinks.service.qr;
+
+/**
+ * A rendered QR code, with a strong ETag derived from its bytes.
+ */
+public record QRCodeImage(byte[] bytes, QRCodeFormat format, String etag) {
+}
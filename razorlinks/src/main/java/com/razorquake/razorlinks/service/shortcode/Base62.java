@@ -0,0 +1,23 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+final class Base62 {
+
+    static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+    static final int BASE = ALPHABET.length;
+
+    private Base62() {
+    }
+
+    /**
+     * Encodes {@code value} into exactly {@code length} characters, left-padded with the zero digit.
+     */
+    static String encode(long value, int length) {
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value % BASE)];
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+}
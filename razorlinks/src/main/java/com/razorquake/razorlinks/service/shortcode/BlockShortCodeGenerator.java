@@ -0,0 +1,61 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+import com.razorquake.razorlinks.exception.ShortCodeGenerationException;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out codes from blocks of ids reserved through a {@link ShortCodeBlockAllocator}, so a code
+ * is unique by construction and creating a link needs no uniqueness check.
+ * <p>
+ * Each id is mapped through a fixed bijection of the 7-character code space before it is encoded,
+ * so consecutive links do not get consecutive codes. This hides the creation order at a glance but
+ * is not a security boundary. Codes are one character shorter than random codes, so the two modes
+ * can never collide.
+ */
+public class BlockShortCodeGenerator implements ShortCodeGenerator {
+
+    public static final int CODE_LENGTH = 7;
+
+    static final long CODE_SPACE = 3_521_614_606_208L; // 62^7
+    // Coprime to 62^7 and small enough that id * MULTIPLIER never overflows a long
+    private static final long MULTIPLIER = 1_046_527L;
+    private static final long OFFSET = 1_234_567_890_123L;
+
+    private final ShortCodeBlockAllocator allocator;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+    private long end;
+
+    public BlockShortCodeGenerator(ShortCodeBlockAllocator allocator, int blockSize) {
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String generate() {
+        return Base62.encode(scramble(nextId()), CODE_LENGTH);
+    }
+
+    private long nextId() {
+        lock.lock();
+        try {
+            if (next == end) {
+                next = allocator.allocate(blockSize);
+                end = next + blockSize;
+            }
+            if (next >= CODE_SPACE) {
+                throw new ShortCodeGenerationException("Short code space is exhausted");
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static long scramble(long id) {
+        return (id * MULTIPLIER + OFFSET) % CODE_SPACE;
+    }
+}
@@ -0,0 +1,51 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserves blocks from the {@code short_code_sequence} counter row. The row lock taken by the
+ * increment serializes allocations across nodes; it is held only for one small transaction per block.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JdbcShortCodeBlockAllocator implements ShortCodeBlockAllocator {
+
+    static final String SEQUENCE_NAME = "url_mapping";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE short_code_sequence SET next_value = next_value + ? WHERE name = ?";
+    private static final String SELECT_SQL =
+            "SELECT next_value FROM short_code_sequence WHERE name = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO short_code_sequence (name, next_value) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public long allocate(int blockSize) {
+        Long start = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(INCREMENT_SQL, blockSize, SEQUENCE_NAME) == 0) {
+                return null;
+            }
+            Long nextValue = jdbcTemplate.queryForObject(SELECT_SQL, Long.class, SEQUENCE_NAME);
+            return nextValue - blockSize;
+        });
+        if (start != null) {
+            return start;
+        }
+
+        try {
+            jdbcTemplate.update(INSERT_SQL, SEQUENCE_NAME, blockSize);
+            log.info("Initialized short code sequence");
+            return 0;
+        } catch (DuplicateKeyException e) {
+            // Another node created the row first
+            return allocate(blockSize);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+import com.razorquake.razorlinks.exception.ShortCodeGenerationException;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws random base62 codes and retries a bounded number of times when a code is already taken.
+ */
+public class RandomShortCodeGenerator implements ShortCodeGenerator {
+
+    public enum Source {
+        /** Fast, not suitable when codes must be unpredictable. */
+        THREAD_LOCAL,
+        /** Unpredictable codes, shared {@link SecureRandom} instance. */
+        SECURE
+    }
+
+    public static final int CODE_LENGTH = 8;
+
+    private final Supplier<RandomGenerator> random;
+    private final Predicate<String> codeExists;
+    private final int maxAttempts;
+
+    /**
+     * @param codeExists  checks whether a code is already in use
+     * @param maxAttempts how many codes to try before giving up
+     */
+    public RandomShortCodeGenerator(Source source, Predicate<String> codeExists, int maxAttempts) {
+        if (source == Source.SECURE) {
+            SecureRandom secureRandom = new SecureRandom();
+            this.random = () -> secureRandom;
+        } else {
+            this.random = ThreadLocalRandom::current;
+        }
+        this.codeExists = codeExists;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public String generate() {
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            String code = nextCode();
+            if (!codeExists.test(code)) {
+                return code;
+            }
+        }
+        throw new ShortCodeGenerationException("Could not generate a unique short URL, please try again");
+    }
+
+    /**
+     * Draws distinct codes without looking each one up; with 62^8 possible codes a collision with an
+     * existing link is rare enough to leave to the unique constraint.
+     */
+    @Override
+    public List<String> generateBatch(int count) {
+        Set<String> codes = new LinkedHashSet<>(count * 2);
+        while (codes.size() < count) {
+            codes.add(nextCode());
+        }
+        return new ArrayList<>(codes);
+    }
+
+    /**
+     * Draws a code without checking whether it is taken.
+     */
+    public String nextCode() {
+        RandomGenerator generator = random.get();
+        char[] chars = new char[CODE_LENGTH];
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            chars[i] = Base62.ALPHABET[generator.nextInt(Base62.BASE)];
+        }
+        return new String(chars);
+    }
+}
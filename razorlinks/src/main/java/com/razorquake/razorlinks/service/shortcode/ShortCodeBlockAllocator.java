@@ -0,0 +1,13 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+/**
+ * Reserves ranges of short code ids that no other node will hand out.
+ */
+@FunctionalInterface
+public interface ShortCodeBlockAllocator {
+
+    /**
+     * @return the first id of a newly reserved block of {@code blockSize} consecutive ids
+     */
+    long allocate(int blockSize);
+}
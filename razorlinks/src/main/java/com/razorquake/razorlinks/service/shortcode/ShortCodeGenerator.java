@@ -0,0 +1,28 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Produces the short code of a new link. Implementations are thread-safe.
+ */
+public interface ShortCodeGenerator {
+
+    /**
+     * @throws com.razorquake.razorlinks.exception.ShortCodeGenerationException if no free code could be produced
+     */
+    String generate();
+
+    /**
+     * Produces distinct codes for a batch of new links. Unlike {@link #generate()}, implementations may
+     * skip the check against existing links, so a batch insert has to expect the odd collision on the
+     * unique constraint and draw again.
+     */
+    default List<String> generateBatch(int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(generate());
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,36 @@
+-- Same as the PostgreSQL and MySQL migrations, for the embedded database used by the tests.
+
+-- url_mapping ids now come from a pooled sequence; IdSequenceAligner moves it past the ids the
+-- identity column already assigned
+create sequence url_mapping_seq start with 1 increment by 50;
+
+-- Per-day click totals read by the analytics endpoints
+create table click_daily_rollup (
+    id             bigint generated by default as identity,
+    url_mapping_id bigint,
+    click_day      date,
+    click_count    bigint not null,
+    primary key (id),
+    constraint uk_click_daily_rollup_day unique (url_mapping_id, click_day),
+    constraint fk_click_daily_rollup_url_mapping foreign key (url_mapping_id) references url_mapping (id)
+);
+
+-- Counter blocks handed out to the block short code generator
+create table short_code_sequence (
+    name       varchar(255) not null,
+    next_value bigint not null,
+    primary key (name)
+);
+
+-- Periods of click events and audit logs removed by retention
+create table retention_log (
+    id           bigint generated by default as identity,
+    table_name   varchar(255),
+    period_start date,
+    category     varchar(255),
+    row_count    bigint not null,
+    method       varchar(255),
+    pruned_at    timestamp(6),
+    primary key (id),
+    constraint uk_retention_log_period unique (table_name, period_start, category)
+);
@@ -0,0 +1,86 @@
+-- Same schema as the PostgreSQL and MySQL baselines, for the embedded database used by the tests.
+
+create table roles (
+    role_id   integer generated by default as identity,
+    role_name varchar(20) check (role_name in ('ROLE_USER', 'ROLE_ADMIN')),
+    primary key (role_id)
+);
+
+create table users (
+    id                      bigint generated by default as identity,
+    email                   varchar(50),
+    username                varchar(255),
+    password                varchar(120),
+    account_non_locked      boolean not null,
+    account_non_expired     boolean not null,
+    credentials_non_expired boolean not null,
+    enabled                 boolean not null,
+    credentials_expiry_date date,
+    account_expiry_date     date,
+    two_factor_secret       varchar(255),
+    is_two_factor_enabled   boolean not null,
+    sign_up_method          varchar(255),
+    role_id                 integer,
+    created_date            timestamp(6),
+    updated_date            timestamp(6),
+    primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username),
+    constraint fk_users_role foreign key (role_id) references roles (role_id)
+);
+
+create table url_mapping (
+    id            bigint generated by default as identity,
+    original_url  varchar(255),
+    short_url     varchar(255),
+    click_count   integer not null,
+    created_date  timestamp(6),
+    user_id       bigint,
+    primary key (id),
+    constraint uk_url_mapping_short_url unique (short_url),
+    constraint fk_url_mapping_user foreign key (user_id) references users (id)
+);
+
+create table click_events (
+    id             bigint generated by default as identity,
+    click_date     timestamp(6),
+    url_mapping_id bigint,
+    primary key (id),
+    constraint fk_click_events_url_mapping foreign key (url_mapping_id) references url_mapping (id)
+);
+
+create table audit_logs (
+    id             bigint generated by default as identity,
+    action         varchar(255),
+    username       varchar(255),
+    url_mapping_id bigint,
+    short_url      varchar(255),
+    timestamp      timestamp(6),
+    primary key (id)
+);
+
+create table password_reset_tokens (
+    id         bigint generated by default as identity,
+    token      varchar(255) not null,
+    user_id    bigint not null,
+    created_at timestamp(6) with time zone,
+    expires_at timestamp(6) with time zone not null,
+    used_at    timestamp(6) with time zone,
+    primary key (id),
+    constraint uk_password_reset_tokens_token unique (token),
+    constraint uk_password_reset_tokens_user unique (user_id),
+    constraint fk_password_reset_tokens_user foreign key (user_id) references users (id)
+);
+
+create table email_verification_tokens (
+    id          bigint generated by default as identity,
+    token       varchar(255) not null,
+    user_id     bigint not null,
+    created_at  timestamp(6) with time zone,
+    expires_at  timestamp(6) with time zone not null,
+    verified_at timestamp(6) with time zone,
+    primary key (id),
+    constraint uk_email_verification_tokens_token unique (token),
+    constraint uk_email_verification_tokens_user unique (user_id),
+    constraint fk_email_verification_tokens_user foreign key (user_id) references users (id)
+);
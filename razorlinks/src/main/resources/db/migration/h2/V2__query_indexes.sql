@@ -0,0 +1,15 @@
+-- Indexes for the filters and sort orders of the listing, analytics and export queries.
+-- Audit log username, action and short URL filters match substrings, which a B-tree cannot serve.
+
+-- Audit logs of one link (AuditLogFilter.urlMappingId, /api/audit/urls/{id}), newest first
+create index idx_audit_logs_url_mapping_timestamp on audit_logs (url_mapping_id, timestamp);
+
+-- Date range filter and default sort of the audit log listing, with id for cursor paging; retention
+create index idx_audit_logs_timestamp on audit_logs (timestamp, id);
+
+-- Per-link click analytics on raw events, click export and link deletion
+create index idx_click_events_url_mapping_click_date on click_events (url_mapping_id, click_date);
+
+-- A user's links in creation order (/api/urls/myurls and its cursor variant)
+create index idx_url_mapping_user_created on url_mapping (user_id, created_date, id);
+
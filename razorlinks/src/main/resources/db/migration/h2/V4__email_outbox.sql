@@ -0,0 +1,18 @@
+-- Outbox of verification and password reset mail, sent by EmailOutboxDispatcher after commit
+
+create table email_outbox (
+    id              bigint generated by default as identity,
+    recipient       varchar(255) not null,
+    subject         varchar(255) not null,
+    template        varchar(255) not null,
+    params          varchar(2000),
+    status          varchar(20) not null check (status in ('PENDING', 'FAILED')),
+    attempts        integer not null,
+    next_attempt_at timestamp(6) not null,
+    last_error      varchar(1000),
+    created_at      timestamp(6) not null,
+    primary key (id)
+);
+
+-- The dispatcher's poll for due messages
+create index idx_email_outbox_due on email_outbox (status, next_attempt_at);
@@ -0,0 +1,9 @@
+-- Links detached by LinkDeletionService whose clicks are still being purged in chunks; the
+-- periodic sweep resumes the purges listed here, without searching url_mapping for them
+
+create table link_deletion (
+    url_mapping_id bigint not null,
+    requested_at   timestamp(6) not null,
+    primary key (url_mapping_id),
+    constraint fk_link_deletion_url_mapping foreign key (url_mapping_id) references url_mapping (id)
+);
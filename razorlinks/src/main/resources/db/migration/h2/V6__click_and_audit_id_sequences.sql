@@ -0,0 +1,6 @@
+-- Same as the PostgreSQL and MySQL migrations, for the embedded database used by the tests, which
+-- starts empty.
+
+create sequence click_events_seq start with 50 increment by 50;
+
+create sequence audit_logs_seq start with 50 increment by 50;
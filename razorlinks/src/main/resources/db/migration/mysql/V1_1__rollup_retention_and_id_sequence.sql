@@ -0,0 +1,41 @@
+-- Tables and the url_mapping id sequence added after the schema moved to Flyway. Databases baselined
+-- at V1 get them from here, as do new ones.
+
+-- MySQL has no sequences; Hibernate keeps the next value of url_mapping_seq in a one-row table.
+-- IdSequenceAligner moves it past the ids the identity column already assigned.
+create table url_mapping_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into url_mapping_seq values (1);
+
+-- Per-day click totals read by the analytics endpoints
+create table click_daily_rollup (
+    id             bigint not null auto_increment,
+    url_mapping_id bigint,
+    click_day      date,
+    click_count    bigint not null,
+    primary key (id),
+    constraint uk_click_daily_rollup_day unique (url_mapping_id, click_day),
+    constraint fk_click_daily_rollup_url_mapping foreign key (url_mapping_id) references url_mapping (id)
+) engine=InnoDB;
+
+-- Counter blocks handed out to the block short code generator
+create table short_code_sequence (
+    name       varchar(255) not null,
+    next_value bigint not null,
+    primary key (name)
+) engine=InnoDB;
+
+-- Periods of click events and audit logs removed by retention
+create table retention_log (
+    id           bigint not null auto_increment,
+    table_name   varchar(255),
+    period_start date,
+    category     varchar(255),
+    row_count    bigint not null,
+    method       varchar(255),
+    pruned_at    datetime(6),
+    primary key (id),
+    constraint uk_retention_log_period unique (table_name, period_start, category)
+) engine=InnoDB;
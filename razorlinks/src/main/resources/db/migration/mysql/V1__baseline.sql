@@ -0,0 +1,88 @@
+-- Schema as previously created by Hibernate (ddl-auto=update), before the schema moved to Flyway.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it;
+-- new databases start from it. Everything added since lives in the later versions.
+
+create table roles (
+    role_id   integer not null auto_increment,
+    role_name enum ('ROLE_USER', 'ROLE_ADMIN'),
+    primary key (role_id)
+) engine=InnoDB;
+
+create table users (
+    id                      bigint not null auto_increment,
+    email                   varchar(50),
+    username                varchar(255),
+    password                varchar(120),
+    account_non_locked      bit not null,
+    account_non_expired     bit not null,
+    credentials_non_expired bit not null,
+    enabled                 bit not null,
+    credentials_expiry_date date,
+    account_expiry_date     date,
+    two_factor_secret       varchar(255),
+    is_two_factor_enabled   bit not null,
+    sign_up_method          varchar(255),
+    role_id                 integer,
+    created_date            datetime(6),
+    updated_date            datetime(6),
+    primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username),
+    constraint fk_users_role foreign key (role_id) references roles (role_id)
+) engine=InnoDB;
+
+create table url_mapping (
+    id            bigint not null auto_increment,
+    original_url  varchar(255),
+    short_url     varchar(255),
+    click_count   integer not null,
+    created_date  datetime(6),
+    user_id       bigint,
+    primary key (id),
+    constraint uk_url_mapping_short_url unique (short_url),
+    constraint fk_url_mapping_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table click_events (
+    id             bigint not null auto_increment,
+    click_date     datetime(6),
+    url_mapping_id bigint,
+    primary key (id),
+    constraint fk_click_events_url_mapping foreign key (url_mapping_id) references url_mapping (id)
+) engine=InnoDB;
+
+create table audit_logs (
+    id             bigint not null auto_increment,
+    action         varchar(255),
+    username       varchar(255),
+    url_mapping_id bigint,
+    short_url      varchar(255),
+    `timestamp`    datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table password_reset_tokens (
+    id         bigint not null auto_increment,
+    token      varchar(255) not null,
+    user_id    bigint not null,
+    created_at datetime(6),
+    expires_at datetime(6) not null,
+    used_at    datetime(6),
+    primary key (id),
+    constraint uk_password_reset_tokens_token unique (token),
+    constraint uk_password_reset_tokens_user unique (user_id),
+    constraint fk_password_reset_tokens_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table email_verification_tokens (
+    id          bigint not null auto_increment,
+    token       varchar(255) not null,
+    user_id     bigint not null,
+    created_at  datetime(6),
+    expires_at  datetime(6) not null,
+    verified_at datetime(6),
+    primary key (id),
+    constraint uk_email_verification_tokens_token unique (token),
+    constraint uk_email_verification_tokens_user unique (user_id),
+    constraint fk_email_verification_tokens_user foreign key (user_id) references users (id)
+) engine=InnoDB;
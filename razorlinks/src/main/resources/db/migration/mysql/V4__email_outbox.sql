@@ -0,0 +1,18 @@
+-- Outbox of verification and password reset mail, sent by EmailOutboxDispatcher after commit
+
+create table email_outbox (
+    id              bigint not null auto_increment,
+    recipient       varchar(255) not null,
+    subject         varchar(255) not null,
+    template        varchar(255) not null,
+    params          varchar(2000),
+    status          enum ('PENDING', 'FAILED') not null,
+    attempts        integer not null,
+    next_attempt_at datetime(6) not null,
+    last_error      varchar(1000),
+    created_at      datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- The dispatcher's poll for due messages
+create index idx_email_outbox_due on email_outbox (status, next_attempt_at);
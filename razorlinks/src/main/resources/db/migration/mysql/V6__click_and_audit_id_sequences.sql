@@ -0,0 +1,17 @@
+-- click_events and audit_logs ids now come from pooled sequences, shared by Hibernate and the JDBC
+-- batch writers (see SequenceIdAllocator). Each value stands for the block of 50 ids ending at it,
+-- so the first value handed out is set to the block right after the ids the identity columns
+-- already assigned. IdSequenceAligner repeats the check at startup.
+
+-- MySQL has no sequences; Hibernate keeps the next value of each in a one-row table
+create table click_events_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into click_events_seq select coalesce(max(id), 0) + 50 from click_events;
+
+create table audit_logs_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into audit_logs_seq select coalesce(max(id), 0) + 50 from audit_logs;
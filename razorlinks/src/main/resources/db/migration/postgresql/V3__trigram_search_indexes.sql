@@ -0,0 +1,29 @@
+-- Trigram indexes for the search and "contains" filters of the user, link and audit log listings.
+-- They serve the specifications' lower(column) LIKE '%term%' predicates as they are, including
+-- a search ORed across columns, so PostgreSQL needs no separate search query; MySQL and H2 keep
+-- scanning. Terms shorter than three characters still scan the whole index.
+--
+-- pg_trgm ships with PostgreSQL but creating it needs the CREATE privilege on the database. Without
+-- it the indexes are skipped, and can be added later by rerunning this block as a privileged user.
+
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION
+    WHEN insufficient_privilege OR undefined_file THEN
+        RAISE WARNING 'pg_trgm is not available (%), search will not use trigram indexes', SQLERRM;
+END $$;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        RETURN;
+    END IF;
+    CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+    CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+    CREATE INDEX IF NOT EXISTS idx_url_mapping_short_url_trgm ON url_mapping USING gin (lower(short_url) gin_trgm_ops);
+    CREATE INDEX IF NOT EXISTS idx_url_mapping_original_url_trgm ON url_mapping USING gin (lower(original_url) gin_trgm_ops);
+    CREATE INDEX IF NOT EXISTS idx_audit_logs_action_trgm ON audit_logs USING gin (lower(action) gin_trgm_ops);
+    CREATE INDEX IF NOT EXISTS idx_audit_logs_username_trgm ON audit_logs USING gin (lower(username) gin_trgm_ops);
+    CREATE INDEX IF NOT EXISTS idx_audit_logs_short_url_trgm ON audit_logs USING gin (lower(short_url) gin_trgm_ops);
+END $$;
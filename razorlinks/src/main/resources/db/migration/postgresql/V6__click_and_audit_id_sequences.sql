@@ -0,0 +1,10 @@
+-- click_events and audit_logs ids now come from pooled sequences, shared by Hibernate and the JDBC
+-- batch writers (see SequenceIdAllocator). Each value stands for the block of 50 ids ending at it,
+-- so the first value handed out is set to the block right after the ids the identity columns
+-- already assigned. IdSequenceAligner repeats the check at startup.
+
+create sequence click_events_seq start with 50 increment by 50;
+select setval('click_events_seq', coalesce(max(id), 0) + 50, false) from click_events;
+
+create sequence audit_logs_seq start with 50 increment by 50;
+select setval('audit_logs_seq', coalesce(max(id), 0) + 50, false) from audit_logs;
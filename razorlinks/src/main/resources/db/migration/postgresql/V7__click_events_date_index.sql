@@ -0,0 +1,3 @@
+-- Click events by date alone, for retention: the earliest click and the id range of each month to
+-- prune are read from this index instead of scanning the table
+create index idx_click_events_click_date on click_events (click_date, id);
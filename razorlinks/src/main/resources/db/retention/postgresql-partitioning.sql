@@ -0,0 +1,89 @@
+-- One-off conversion of click_events and audit_logs into tables range-partitioned by month, so
+-- RetentionService can drop expired months as whole partitions instead of deleting rows.
+--
+-- Run with the application stopped, after the schema migrations. Afterwards RetentionService
+-- creates the partitions of the coming months on each run (retention.partitions-ahead), named
+-- <table>_pYYYYMM like the ones created here. A partitioned table's primary key must contain the partition key, so the keys
+-- become (id, click_date) and (id, timestamp); ids keep coming from one sequence per table.
+-- Rows without a timestamp cannot be placed in a partition and are not copied.
+
+BEGIN;
+
+ALTER TABLE click_events RENAME TO click_events_unpartitioned;
+CREATE SEQUENCE click_events_partitioned_id_seq;
+CREATE TABLE click_events (
+    id             bigint       NOT NULL DEFAULT nextval('click_events_partitioned_id_seq'),
+    click_date     timestamp(6) NOT NULL,
+    url_mapping_id bigint REFERENCES url_mapping (id),
+    PRIMARY KEY (id, click_date)
+) PARTITION BY RANGE (click_date);
+ALTER SEQUENCE click_events_partitioned_id_seq OWNED BY click_events.id;
+
+DO $$
+DECLARE
+    month date;
+BEGIN
+    FOR month IN
+        SELECT generate_series(date_trunc('month', COALESCE(MIN(click_date), now())),
+                               date_trunc('month', now()) + interval '2 months',
+                               interval '1 month')::date
+        FROM click_events_unpartitioned
+    LOOP
+        EXECUTE format('CREATE TABLE click_events_p%s PARTITION OF click_events FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month, 'YYYYMM'), month, (month + interval '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO click_events (id, click_date, url_mapping_id)
+SELECT id, click_date, url_mapping_id FROM click_events_unpartitioned WHERE click_date IS NOT NULL;
+SELECT setval('click_events_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM click_events), 0) + 1, false);
+DROP TABLE click_events_unpartitioned;
+CREATE INDEX idx_click_events_url_mapping_click_date ON click_events (url_mapping_id, click_date);
+CREATE INDEX idx_click_events_click_date ON click_events (click_date, id);
+
+ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned;
+CREATE SEQUENCE audit_logs_partitioned_id_seq;
+CREATE TABLE audit_logs (
+    id             bigint       NOT NULL DEFAULT nextval('audit_logs_partitioned_id_seq'),
+    action         varchar(255),
+    username       varchar(255),
+    url_mapping_id bigint,
+    short_url      varchar(255),
+    timestamp      timestamp(6) NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+ALTER SEQUENCE audit_logs_partitioned_id_seq OWNED BY audit_logs.id;
+
+DO $$
+DECLARE
+    month date;
+BEGIN
+    FOR month IN
+        SELECT generate_series(date_trunc('month', COALESCE(MIN(timestamp), now())),
+                               date_trunc('month', now()) + interval '2 months',
+                               interval '1 month')::date
+        FROM audit_logs_unpartitioned
+    LOOP
+        EXECUTE format('CREATE TABLE audit_logs_p%s PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month, 'YYYYMM'), month, (month + interval '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO audit_logs (id, action, username, url_mapping_id, short_url, timestamp)
+SELECT id, action, username, url_mapping_id, short_url, timestamp FROM audit_logs_unpartitioned
+WHERE timestamp IS NOT NULL;
+SELECT setval('audit_logs_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM audit_logs), 0) + 1, false);
+DROP TABLE audit_logs_unpartitioned;
+CREATE INDEX idx_audit_logs_url_mapping_timestamp ON audit_logs (url_mapping_id, "timestamp");
+CREATE INDEX idx_audit_logs_timestamp ON audit_logs ("timestamp", id);
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX idx_audit_logs_action_trgm ON audit_logs USING gin (lower(action) gin_trgm_ops);
+        CREATE INDEX idx_audit_logs_username_trgm ON audit_logs USING gin (lower(username) gin_trgm_ops);
+        CREATE INDEX idx_audit_logs_short_url_trgm ON audit_logs USING gin (lower(short_url) gin_trgm_ops);
+    END IF;
+END $$;
+
+COMMIT;
@@ -0,0 +1,115 @@
+package com.razorquake.razorlinks.cache;
+
+import com.razorquake.razorlinks.dtos.UrlRedirectCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NearCacheManagerTest {
+
+    private static final String CHANNEL = "razorlinks:cache-invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NearCacheManager cacheManager;
+
+    private final UrlRedirectCache redirect =
+            new UrlRedirectCache(1L, "abc12345", "https://example.com", "testuser");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new NearCacheManager(
+                new ConcurrentMapCacheManager("redirects"),
+                redisTemplate,
+                CHANNEL,
+                100,
+                Duration.ofMinutes(1),
+                meterRegistry
+        );
+    }
+
+    private NearCache redirects() {
+        return (NearCache) cacheManager.getCache("redirects");
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getCache_WrapsSharedCacheOnce() {
+        assertThat(cacheManager.getCache("redirects")).isInstanceOf(NearCache.class);
+        assertThat(cacheManager.getCache("redirects")).isSameAs(cacheManager.getCache("redirects"));
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "redirects.near").meters()).isNotEmpty();
+    }
+
+    @Test
+    void evict_PublishesKeyOnChannel() {
+        redirects().evict("abc12345");
+
+        verify(redisTemplate).convertAndSend(CHANNEL, "redirects\nabc12345");
+    }
+
+    @Test
+    void clear_PublishesCacheNameOnly() {
+        redirects().clear();
+
+        verify(redisTemplate).convertAndSend(CHANNEL, "redirects");
+    }
+
+    @Test
+    void evict_PublishFailure_IsSwallowed() {
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenThrow(new IllegalStateException("down"));
+
+        redirects().put("abc12345", redirect);
+        redirects().evict("abc12345");
+
+        assertThat(redirects().getNearCache().getIfPresent("abc12345")).isNull();
+    }
+
+    @Test
+    void onMessage_Key_EvictsOnlyLocalEntry() {
+        NearCache cache = redirects();
+        cache.put("abc12345", redirect);
+        cache.put("other123", redirect);
+
+        cacheManager.onMessage(message("redirects\nabc12345"), null);
+
+        assertThat(cache.getNearCache().getIfPresent("abc12345")).isNull();
+        assertThat(cache.getNearCache().getIfPresent("other123")).isEqualTo(redirect);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void onMessage_CacheNameOnly_ClearsLocalEntries() {
+        NearCache cache = redirects();
+        cache.put("abc12345", redirect);
+
+        cacheManager.onMessage(message("redirects"), null);
+
+        assertThat(cache.getNearCache().estimatedSize()).isZero();
+    }
+
+    @Test
+    void onMessage_UnknownCache_IsIgnored() {
+        cacheManager.onMessage(message("unknown\nabc12345"), null);
+
+        assertThat(redirects().getNearCache().estimatedSize()).isZero();
+    }
+}
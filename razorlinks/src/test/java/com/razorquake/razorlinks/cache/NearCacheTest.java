@@ -0,0 +1,96 @@
+package com.razorquake.razorlinks.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.razorquake.razorlinks.dtos.UrlRedirectCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearCacheTest {
+
+    private ConcurrentMapCache shared;
+    private Cache<Object, Object> near;
+    private List<String> published;
+    private NearCache nearCache;
+
+    private final UrlRedirectCache redirect =
+            new UrlRedirectCache(1L, "abc12345", "https://example.com", "testuser");
+
+    @BeforeEach
+    void setUp() {
+        shared = new ConcurrentMapCache("redirects", false);
+        near = Caffeine.newBuilder().maximumSize(100).recordStats().build();
+        published = new ArrayList<>();
+        nearCache = new NearCache(shared, near, (name, key) -> published.add(name + ":" + key));
+    }
+
+    @Test
+    void get_SharedHit_PopulatesNearCache() {
+        shared.put("abc12345", redirect);
+
+        assertThat(nearCache.get("abc12345", UrlRedirectCache.class)).isEqualTo(redirect);
+        assertThat(near.getIfPresent("abc12345")).isEqualTo(redirect);
+    }
+
+    @Test
+    void get_NearHit_DoesNotReadSharedTier() {
+        near.put("abc12345", redirect);
+
+        assertThat(nearCache.get("abc12345").get()).isEqualTo(redirect);
+        assertThat(shared.get("abc12345")).isNull();
+        assertThat(near.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_Miss_ReturnsNull() {
+        assertThat(nearCache.get("missing")).isNull();
+        assertThat(near.estimatedSize()).isZero();
+    }
+
+    @Test
+    void put_WritesBothTiers() {
+        nearCache.put("abc12345", redirect);
+
+        assertThat(shared.get("abc12345").get()).isEqualTo(redirect);
+        assertThat(near.getIfPresent("abc12345")).isEqualTo(redirect);
+    }
+
+    @Test
+    void evict_RemovesFromBothTiersAndPublishes() {
+        nearCache.put("abc12345", redirect);
+
+        nearCache.evict("abc12345");
+
+        assertThat(shared.get("abc12345")).isNull();
+        assertThat(near.getIfPresent("abc12345")).isNull();
+        assertThat(published).containsExactly("redirects:abc12345");
+    }
+
+    @Test
+    void clear_ClearsBothTiersAndPublishesWithoutKey() {
+        nearCache.put("abc12345", redirect);
+
+        nearCache.clear();
+
+        assertThat(shared.get("abc12345")).isNull();
+        assertThat(near.estimatedSize()).isZero();
+        assertThat(published).containsExactly("redirects:null");
+    }
+
+    @Test
+    void evictLocal_LeavesSharedTierAndDoesNotPublish() {
+        nearCache.put("abc12345", redirect);
+
+        nearCache.evictLocal("abc12345");
+
+        assertThat(near.getIfPresent("abc12345")).isNull();
+        assertThat(shared.get("abc12345").get()).isEqualTo(redirect);
+        assertThat(published).isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+package com.razorquake.razorlinks.config;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BucketStoreTest {
+
+    @Test
+    void resolve_SameKey_ReturnsSameBucket() {
+        AtomicInteger created = new AtomicInteger();
+        BucketStore store = new BucketStore("test", 100, Duration.ofMinutes(1), () -> {
+            created.incrementAndGet();
+            return bucket();
+        }, null);
+
+        Bucket first = store.resolve("10.0.0.1");
+
+        assertThat(store.resolve("10.0.0.1")).isSameAs(first);
+        assertThat(store.resolve("10.0.0.2")).isNotSameAs(first);
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    void resolve_BeyondMaximumSize_EvictsBuckets() {
+        BucketStore store = new BucketStore("test", 10, Duration.ofMinutes(1), BucketStoreTest::bucket, null);
+
+        for (int i = 0; i < 1000; i++) {
+            store.resolve("10.0." + (i / 256) + "." + (i % 256));
+        }
+        store.cleanUp();
+
+        assertThat(store.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void constructor_WithMeterRegistry_RegistersOccupancyAndEvictionMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BucketStore store = new BucketStore("rate-limit.redirect", 100, Duration.ofMinutes(1), BucketStoreTest::bucket, registry);
+
+        store.resolve("10.0.0.1");
+        store.cleanUp();
+
+        assertThat(registry.get("cache.size").tag("cache", "rate-limit.redirect").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.find("cache.evictions").tag("cache", "rate-limit.redirect").meters()).isNotEmpty();
+    }
+
+    private static Bucket bucket() {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder().capacity(10).refillGreedy(10, Duration.ofMinutes(1)).build())
+                .build();
+    }
+}
@@ -9,9 +9,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 class JteConfigurationTest {
 
     @Test
-    void templateEngine_DevProfile_UsesDirectoryResolver() {
+    void templateEngine_DevelopmentMode_UsesDirectoryResolver() {
         JteConfiguration config = new JteConfiguration();
-        ReflectionTestUtils.setField(config, "activeProfile", "dev");
+        ReflectionTestUtils.setField(config, "developmentMode", true);
 
         TemplateEngine engine = config.templateEngine();
 
@@ -19,9 +19,8 @@ class JteConfigurationTest {
     }
 
     @Test
-    void templateEngine_ProdProfile_UsesPrecompiledTemplates() {
+    void templateEngine_Default_UsesPrecompiledTemplates() {
         JteConfiguration config = new JteConfiguration();
-        ReflectionTestUtils.setField(config, "activeProfile", "prod");
 
         TemplateEngine engine = config.templateEngine();
 
@@ -0,0 +1,95 @@
+package com.razorquake.razorlinks.config;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RateLimitConfigTest {
+
+    private RateLimitConfig rateLimitConfig;
+    private RedisRateLimiter redisRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        redisRateLimiter = mock(RedisRateLimiter.class);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        ObjectProvider<MeterRegistry> noRegistry = beanFactory.getBeanProvider(MeterRegistry.class);
+        ObjectProvider<RedisRateLimiter> noLimiter = beanFactory.getBeanProvider(RedisRateLimiter.class);
+        rateLimitConfig = new RateLimitConfig(noRegistry, noLimiter);
+        ReflectionTestUtils.setField(rateLimitConfig, "authCapacity", 10);
+        ReflectionTestUtils.setField(rateLimitConfig, "authRefillTokens", 10);
+        ReflectionTestUtils.setField(rateLimitConfig, "authRefillDurationSeconds", 60);
+        ReflectionTestUtils.setField(rateLimitConfig, "redirectCapacity", 90);
+        ReflectionTestUtils.setField(rateLimitConfig, "redirectRefillTokens", 90);
+        ReflectionTestUtils.setField(rateLimitConfig, "redirectRefillDurationSeconds", 60);
+        ReflectionTestUtils.setField(rateLimitConfig, "authenticatedCapacity", 30);
+        ReflectionTestUtils.setField(rateLimitConfig, "authenticatedRefillTokens", 30);
+        ReflectionTestUtils.setField(rateLimitConfig, "authenticatedRefillDurationSeconds", 60);
+        ReflectionTestUtils.setField(rateLimitConfig, "bucketStoreMaximumSize", 1000L);
+        rateLimitConfig.initBucketStores();
+    }
+
+    @Test
+    void resolveBuckets_SameKeyInDifferentTiers_DoNotClash() {
+        Bucket auth = rateLimitConfig.resolveAuthBucket("10.0.0.1");
+        Bucket redirect = rateLimitConfig.resolveRedirectBucket("10.0.0.1");
+        Bucket authenticated = rateLimitConfig.resolveAuthenticatedBucket("10.0.0.1");
+
+        assertThat(auth).isNotSameAs(redirect).isNotSameAs(authenticated);
+        assertThat(auth.getAvailableTokens()).isEqualTo(10);
+        assertThat(redirect.getAvailableTokens()).isEqualTo(90);
+        assertThat(authenticated.getAvailableTokens()).isEqualTo(30);
+    }
+
+    @Test
+    void resolveRedirectBucket_SameIp_KeepsConsumedTokens() {
+        rateLimitConfig.resolveRedirectBucket("203.0.113.7").tryConsume(5);
+
+        assertThat(rateLimitConfig.resolveRedirectBucket("203.0.113.7").getAvailableTokens()).isEqualTo(85);
+        assertThat(rateLimitConfig.getRedirectBuckets().size()).isEqualTo(1);
+    }
+
+    @Test
+    void tryConsume_LocalMode_ConsumesFromTierBucket() {
+        ConsumptionProbe probe = rateLimitConfig.tryConsume(RateLimitTier.AUTHENTICATED, "testuser");
+
+        assertThat(probe.isConsumed()).isTrue();
+        assertThat(probe.getRemainingTokens()).isEqualTo(29);
+        assertThat(rateLimitConfig.resolveAuthenticatedBucket("testuser").getAvailableTokens()).isEqualTo(29);
+    }
+
+    @Test
+    void tryConsume_DistributedMode_UsesSharedBucket() {
+        useDistributedLimiter();
+        ConsumptionProbe shared = ConsumptionProbe.consumed(42, 0);
+        when(redisRateLimiter.tryConsume(RateLimitTier.REDIRECT, "203.0.113.7", 90, 90, 60)).thenReturn(shared);
+
+        assertThat(rateLimitConfig.tryConsume(RateLimitTier.REDIRECT, "203.0.113.7")).isSameAs(shared);
+        assertThat(rateLimitConfig.getRedirectBuckets().size()).isZero();
+    }
+
+    @Test
+    void tryConsume_DistributedModeRedisUnavailable_FallsBackToLocalBucket() {
+        useDistributedLimiter();
+        when(redisRateLimiter.tryConsume(RateLimitTier.AUTH, "10.0.0.1", 10, 10, 60)).thenReturn(null);
+
+        ConsumptionProbe probe = rateLimitConfig.tryConsume(RateLimitTier.AUTH, "10.0.0.1");
+
+        assertThat(probe.isConsumed()).isTrue();
+        assertThat(probe.getRemainingTokens()).isEqualTo(9);
+    }
+
+    private void useDistributedLimiter() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("redisRateLimiter", redisRateLimiter);
+        ReflectionTestUtils.setField(rateLimitConfig, "redisRateLimiter", beanFactory.getBeanProvider(RedisRateLimiter.class));
+    }
+}
@@ -0,0 +1,51 @@
+package com.razorquake.razorlinks.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitPolicyTest {
+
+    @Test
+    void resolve_DefaultRoutes_MatchExistingTiers() {
+        RateLimitPolicy policy = RateLimitPolicy.compile(RateLimitPolicy.DEFAULT_ROUTES, RateLimitTier.REDIRECT);
+
+        assertThat(policy.resolve("POST", "/api/auth/public/login")).isEqualTo(RateLimitTier.AUTH);
+        assertThat(policy.resolve("GET", "/api/urls/myurls")).isEqualTo(RateLimitTier.AUTHENTICATED);
+        assertThat(policy.resolve("GET", "/abc123")).isEqualTo(RateLimitTier.REDIRECT);
+        assertThat(policy.resolve("GET", "/api")).isEqualTo(RateLimitTier.REDIRECT);
+    }
+
+    @Test
+    void resolve_LongestPrefixWins_RegardlessOfRuleOrder() {
+        RateLimitPolicy policy = RateLimitPolicy.compile("/api/=AUTHENTICATED, /api/auth/public=AUTH", RateLimitTier.REDIRECT);
+
+        assertThat(policy.resolve("POST", "/api/auth/public/register")).isEqualTo(RateLimitTier.AUTH);
+    }
+
+    @Test
+    void resolve_MethodRule_BeatsAnyMethodRuleForSamePrefix() {
+        RateLimitPolicy policy = RateLimitPolicy.compile("/api/urls=AUTHENTICATED, post /api/urls=AUTH", RateLimitTier.REDIRECT);
+
+        assertThat(policy.resolve("POST", "/api/urls/shorten")).isEqualTo(RateLimitTier.AUTH);
+        assertThat(policy.resolve("GET", "/api/urls/myurls")).isEqualTo(RateLimitTier.AUTHENTICATED);
+    }
+
+    @Test
+    void compile_EmptyRoutes_UsesDefaultTier() {
+        RateLimitPolicy policy = RateLimitPolicy.compile("", RateLimitTier.AUTH);
+
+        assertThat(policy.resolve("GET", "/anything")).isEqualTo(RateLimitTier.AUTH);
+    }
+
+    @Test
+    void compile_InvalidRoute_Throws() {
+        assertThatThrownBy(() -> RateLimitPolicy.compile("/api/urls", RateLimitTier.REDIRECT))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitPolicy.compile("api/urls=AUTH", RateLimitTier.REDIRECT))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitPolicy.compile("/api/urls=UNKNOWN", RateLimitTier.REDIRECT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.razorquake.razorlinks.config;
+
+import io.github.bucket4j.ConsumptionProbe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisRateLimiterTest {
+
+    private static final List<String> AUTH_KEY = List.of("rate-limit:auth:1.2.3.4");
+    private static final List<String> REDIRECT_KEY = List.of("rate-limit:redirect:1.2.3.4");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private RedisRateLimiter redisRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(redisRateLimiter, "maxLeaseSize", 10);
+        ReflectionTestUtils.setField(redisRateLimiter, "leaseTtlMs", 60_000L);
+        ReflectionTestUtils.setField(redisRateLimiter, "retryAfterFailureMs", 60_000L);
+        ReflectionTestUtils.setField(redisRateLimiter, "maximumLeases", 100L);
+    }
+
+    @Test
+    void tryConsume_LeasedTokens_AreServedWithoutRedis() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(REDIRECT_KEY), eq("90"), eq("90"), eq("60000"),
+                anyString(), eq("0")))
+                .thenAnswer(invocation -> List.of(Long.parseLong(invocation.getArgument(5)), 40L, 0L));
+
+        ConsumptionProbe first = redisRateLimiter.tryConsume(RateLimitTier.REDIRECT, "1.2.3.4", 90, 90, 60);
+        for (int i = 0; i < 15; i++) {
+            assertThat(redisRateLimiter.tryConsume(RateLimitTier.REDIRECT, "1.2.3.4", 90, 90, 60).isConsumed()).isTrue();
+        }
+
+        assertThat(first.isConsumed()).isTrue();
+        assertThat(first.getRemainingTokens()).isEqualTo(40);
+        // Leases of 1, 2, 4 and 8 tokens are used up in time, so the next is capped at a tenth of 90
+        verify(redisTemplate, times(5)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any());
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), any(), any(), any(), eq("8"), any());
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), any(), any(), any(), eq("9"), any());
+    }
+
+    @Test
+    void tryConsume_ClientSlowerThanTheLease_PaysOneTokenPerRequest() throws InterruptedException {
+        ReflectionTestUtils.setField(redisRateLimiter, "leaseTtlMs", 20L);
+        AtomicLong bucket = new AtomicLong(15);
+        when(redisTemplate.execute(any(RedisScript.class), eq(REDIRECT_KEY), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    long tokens = Math.min(100, bucket.get() + Long.parseLong(invocation.getArgument(6)));
+                    long granted = Math.min(Long.parseLong(invocation.getArgument(5)), tokens);
+                    bucket.set(tokens - granted);
+                    return List.of(granted, bucket.get(), granted == 0 ? 60_000L : 0L);
+                });
+
+        // A tier of 100 leases up to 10 tokens; forfeiting a whole lease per request would empty 15 in two
+        for (int i = 0; i < 15; i++) {
+            assertThat(redisRateLimiter.tryConsume(RateLimitTier.REDIRECT, "1.2.3.4", 100, 1, 3600).isConsumed())
+                    .isTrue();
+            Thread.sleep(30);
+        }
+
+        assertThat(bucket.get()).isZero();
+    }
+
+    @Test
+    void tryConsume_LeaseSize_IsATenthOfCapacity() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(AUTH_KEY), eq("10"), eq("10"), eq("60000"),
+                eq("1"), eq("0")))
+                .thenReturn(List.of(1L, 9L, 0L))
+                .thenReturn(List.of(1L, 8L, 0L));
+
+        redisRateLimiter.tryConsume(RateLimitTier.AUTH, "1.2.3.4", 10, 10, 60);
+        ConsumptionProbe second = redisRateLimiter.tryConsume(RateLimitTier.AUTH, "1.2.3.4", 10, 10, 60);
+
+        assertThat(second.getRemainingTokens()).isEqualTo(8);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void tryConsume_Rejected_RemembersRejectionLocally() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(AUTH_KEY), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(0L, 0L, 500L));
+
+        ConsumptionProbe first = redisRateLimiter.tryConsume(RateLimitTier.AUTH, "1.2.3.4", 10, 10, 60);
+        ConsumptionProbe second = redisRateLimiter.tryConsume(RateLimitTier.AUTH, "1.2.3.4", 10, 10, 60);
+
+        assertThat(first.isConsumed()).isFalse();
+        assertThat(first.getNanosToWaitForRefill()).isEqualTo(500_000_000L);
+        assertThat(second.isConsumed()).isFalse();
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void tryConsume_RedisUnavailable_ReturnsNullAndBacksOff() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        assertThat(redisRateLimiter.tryConsume(RateLimitTier.AUTH, "1.2.3.4", 10, 10, 60)).isNull();
+        assertThat(redisRateLimiter.tryConsume(RateLimitTier.AUTH, "5.6.7.8", 10, 10, 60)).isNull();
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,101 @@
+package com.razorquake.razorlinks.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object monitor = new Object();
+
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        pinningMonitor = new VirtualThreadPinningMonitor(beanFactory.getBeanProvider(MeterRegistry.class));
+        ReflectionTestUtils.setField(pinningMonitor, "enabled", true);
+        ReflectionTestUtils.setField(pinningMonitor, "thresholdMs", 20L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pinningMonitor.stop();
+    }
+
+    private double pinnedCount(String site) {
+        var counter = meterRegistry.find("razorlinks.virtual-threads.pinned").tag("site", site).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void pinningSite_IsInnermostApplicationFrame() {
+        List<String> frames = List.of(
+                "java.lang.Thread.sleep:500",
+                "com.razorquake.razorlinks.service.ClickCounterService.flush:70",
+                "com.razorquake.razorlinks.controller.RedirectController.redirect:40",
+                "org.apache.tomcat.util.threads.TaskThread.run:20");
+
+        assertThat(VirtualThreadPinningMonitor.pinningSite(frames))
+                .isEqualTo("com.razorquake.razorlinks.service.ClickCounterService.flush:70");
+    }
+
+    @Test
+    void pinningSite_LibraryOnlyStack_IsInnermostFrame() {
+        assertThat(VirtualThreadPinningMonitor.pinningSite(List.of("java.lang.Thread.sleep:500", "java.lang.Thread.run:1")))
+                .isEqualTo("java.lang.Thread.sleep:500");
+        assertThat(VirtualThreadPinningMonitor.pinningSite(List.of())).isEqualTo("unknown");
+    }
+
+    @Test
+    void recordPinning_CountsPerSite() {
+        List<String> frames = List.of("java.lang.Thread.sleep:500", "com.razorquake.razorlinks.Foo.bar:1");
+
+        pinningMonitor.recordPinning(frames, Duration.ofMillis(50));
+        pinningMonitor.recordPinning(frames, Duration.ofMillis(60));
+
+        assertThat(pinnedCount("com.razorquake.razorlinks.Foo.bar:1")).isEqualTo(2.0);
+    }
+
+    @Test
+    void start_SleepInsideSynchronized_IsReported() throws Exception {
+        // From Java 24 on, blocking inside synchronized no longer pins the carrier
+        assumeThat(Runtime.version().feature()).isLessThan(24);
+        pinningMonitor.start();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // Events reach the stream about once a second
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!reportedFromThisTest() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(100);
+        }
+        assertThat(reportedFromThisTest()).isTrue();
+    }
+
+    private boolean reportedFromThisTest() {
+        return meterRegistry.find("razorlinks.virtual-threads.pinned").counters().stream()
+                .anyMatch(counter -> counter.getId().getTag("site").startsWith(VirtualThreadPinningMonitorTest.class.getName()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.razorquake.razorlinks.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class VirtualThreadSelfCheckTest {
+
+    private static HikariDataSource limitConnectionWait(long connectionTimeoutMs) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        VirtualThreadSelfCheck selfCheck =
+                new VirtualThreadSelfCheck(mock(TaskExecutor.class), mock(TaskScheduler.class), dataSource);
+        ReflectionTestUtils.setField(selfCheck, "maxConnectionWaitMs", 5000L);
+
+        selfCheck.limitConnectionWait();
+        return dataSource;
+    }
+
+    @Test
+    void limitConnectionWait_DefaultTimeout_LoweredToMaxWait() {
+        assertThat(limitConnectionWait(30_000).getConnectionTimeout()).isEqualTo(5000);
+    }
+
+    @Test
+    void limitConnectionWait_ShorterTimeout_KeptAsConfigured() {
+        assertThat(limitConnectionWait(2000).getConnectionTimeout()).isEqualTo(2000);
+    }
+
+    @Test
+    void runsOnVirtualThread_VirtualExecutor_ReturnsTrue() {
+        assertThat(VirtualThreadSelfCheck.runsOnVirtualThread(task -> Thread.ofVirtual().start(task))).isTrue();
+    }
+
+    @Test
+    void runsOnVirtualThread_PlatformExecutor_ReturnsFalse() {
+        assertThat(VirtualThreadSelfCheck.runsOnVirtualThread(task -> Thread.ofPlatform().start(task))).isFalse();
+    }
+
+    @Test
+    void runsOnVirtualThread_TaskNeverRuns_ReturnsFalse() {
+        assertThat(VirtualThreadSelfCheck.runsOnVirtualThread(task -> { })).isFalse();
+    }
+}
@@ -4,6 +4,7 @@ import com.razorquake.razorlinks.dtos.UserDTO;
 import com.razorquake.razorlinks.dtos.UserFilter;
 import com.razorquake.razorlinks.models.AppRole;
 import com.razorquake.razorlinks.models.Role;
+import com.razorquake.razorlinks.service.ClickRollupService;
 import com.razorquake.razorlinks.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -62,6 +63,9 @@ class AdminControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private ClickRollupService clickRollupService;
+
     // Mock beans required by the application context but not used in these tests
     @MockitoBean
     private JavaMailSender javaMailSender;
@@ -487,6 +491,30 @@ class AdminControllerTest {
         verify(userService, never()).updateAccountLockStatus(anyLong(), anyBoolean());
         verify(userService, never()).getAllRoles();
     }
+
+    /**
+     * TEST 14: Backfill daily click rollups
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void backfillClickRollups_AdminRole_ReturnsRowCount() throws Exception {
+        when(clickRollupService.backfill()).thenReturn(42);
+
+        mockMvc.perform(post("/api/admin/click-rollups/backfill"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Backfilled 42 daily click rollup rows"));
+
+        verify(clickRollupService, times(1)).backfill();
+    }
+
+    @Test
+    @WithMockUser(username = "regularuser", roles = "USER")
+    void backfillClickRollups_UserRole_ReturnsForbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/click-rollups/backfill"))
+                .andExpect(status().isForbidden());
+
+        verify(clickRollupService, never()).backfill();
+    }
 }
 
 /**
@@ -1,9 +1,13 @@
 package com.razorquake.razorlinks.controller;
 
 import com.razorquake.razorlinks.dtos.AuditLogFilter;
+import com.razorquake.razorlinks.dtos.CursorPage;
+import com.razorquake.razorlinks.exception.InvalidCursorException;
 import com.razorquake.razorlinks.models.AuditLog;
 import com.razorquake.razorlinks.security.jwt.JwtUtils;
 import com.razorquake.razorlinks.service.AuditLogService;
+import com.razorquake.razorlinks.service.ExportService;
+import com.razorquake.razorlinks.service.export.ExportFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -28,9 +32,12 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -38,8 +45,12 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AuditController.class)
@@ -53,12 +64,18 @@ class AuditControllerTest {
     @MockitoBean
     private AuditLogService auditLogService;
 
+    @MockitoBean
+    private ExportService exportService;
+
     @MockitoBean
     private JwtUtils jwtUtils;
 
     @MockitoBean
     private UserDetailsService userDetailsService;
 
+    @MockitoBean
+    private com.razorquake.razorlinks.security.service.UserStatusCache userStatusCache;
+
     @MockitoBean
     private com.razorquake.razorlinks.config.RateLimitConfig rateLimitConfig;
 
@@ -124,6 +141,69 @@ class AuditControllerTest {
         verify(auditLogService).getAuditLogsByUrlId(eq(10L), any(AuditLogFilter.class));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void scrollAuditLogs_AdminRole_ReturnsPageWithCursor() throws Exception {
+        AuditLog log = new AuditLog();
+        log.setId(3L);
+        log.setAction("SHORT_URL_CREATED");
+        when(auditLogService.scrollAuditLogs(any(AuditLogFilter.class)))
+                .thenReturn(new CursorPage<>(List.of(log), "next-token", null));
+
+        mockMvc.perform(get("/api/audit/cursor").param("cursor", "previous-token").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(auditLogService).scrollAuditLogs(argThat(filter ->
+                "previous-token".equals(filter.getCursor()) && filter.getSize() == 50 && !filter.isIncludeTotal()));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void scrollAuditLogs_InvalidCursor_ReturnsBadRequest() throws Exception {
+        when(auditLogService.scrollAuditLogs(any(AuditLogFilter.class)))
+                .thenThrow(new InvalidCursorException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/audit/cursor").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void exportAuditLogs_Ndjson_StreamsFilteredLogs() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2)
+                    .write("{\"id\":1,\"action\":\"SHORT_URL_CREATED\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).writeAuditLogs(any(AuditLogFilter.class), eq(ExportFormat.NDJSON), any());
+
+        MvcResult result = mockMvc.perform(get("/api/audit/export")
+                        .param("format", "NDJSON")
+                        .param("action", "SHORT_URL_CREATED"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"audit-logs.ndjson\""))
+                .andExpect(content().string("{\"id\":1,\"action\":\"SHORT_URL_CREATED\"}\n"));
+
+        verify(exportService).writeAuditLogs(argThat(filter -> "SHORT_URL_CREATED".equals(filter.getAction())),
+                eq(ExportFormat.NDJSON), any());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void exportAuditLogs_UserRole_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get("/api/audit/export"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(exportService);
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void getAllAuditLogs_UserRole_ReturnsForbidden() throws Exception {
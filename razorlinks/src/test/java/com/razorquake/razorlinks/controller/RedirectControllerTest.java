@@ -35,6 +35,9 @@ class RedirectControllerTest {
     @MockitoBean
     private UserDetailsService userDetailsService;
 
+    @MockitoBean
+    private com.razorquake.razorlinks.security.service.UserStatusCache userStatusCache;
+
     @MockitoBean
     private com.razorquake.razorlinks.config.RateLimitConfig rateLimitConfig;
 
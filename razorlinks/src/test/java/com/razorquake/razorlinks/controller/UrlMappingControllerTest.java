@@ -3,13 +3,22 @@ package com.razorquake.razorlinks.controller;
 import com.google.zxing.WriterException;
 import com.razorquake.razorlinks.dtos.ClickAnalyticsFilter;
 import com.razorquake.razorlinks.dtos.ClickEventDTO;
+import com.razorquake.razorlinks.dtos.LinkDeletionResult;
 import com.razorquake.razorlinks.dtos.UrlMappingDTO;
 import com.razorquake.razorlinks.dtos.UrlMappingFilter;
+import com.razorquake.razorlinks.models.UrlMapping;
 import com.razorquake.razorlinks.models.User;
 import com.razorquake.razorlinks.security.jwt.JwtUtils;
-import com.razorquake.razorlinks.service.QRCodeService;
+import com.razorquake.razorlinks.service.ExportService;
+import com.razorquake.razorlinks.service.QRCodeCache;
 import com.razorquake.razorlinks.service.UrlMappingService;
 import com.razorquake.razorlinks.service.UserService;
+import com.razorquake.razorlinks.service.bulk.BulkShortenService;
+import com.razorquake.razorlinks.service.bulk.LinkDeletionService;
+import com.razorquake.razorlinks.service.export.ExportWriter;
+import com.razorquake.razorlinks.service.export.ExportFormat;
+import com.razorquake.razorlinks.service.qr.QRCodeFormat;
+import com.razorquake.razorlinks.service.qr.QRCodeImage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -35,14 +44,22 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import tools.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
@@ -82,7 +99,16 @@ public class UrlMappingControllerTest {
     private UserService userService;
 
     @MockitoBean
-    private QRCodeService qrCodeService;
+    private QRCodeCache qrCodeCache;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private BulkShortenService bulkShortenService;
+
+    @MockitoBean
+    private LinkDeletionService linkDeletionService;
 
     @MockitoBean
     private JwtUtils jwtUtils;
@@ -90,6 +116,9 @@ public class UrlMappingControllerTest {
     @MockitoBean
     private UserDetailsService userDetailsService;
 
+    @MockitoBean
+    private com.razorquake.razorlinks.security.service.UserStatusCache userStatusCache;
+
     @MockitoBean
     private com.razorquake.razorlinks.config.RateLimitConfig rateLimitConfig;
 
@@ -350,8 +379,8 @@ public class UrlMappingControllerTest {
                 0x0D, 0x0A, 0x1A, 0x0A
         };
 
-        when(qrCodeService.generateQRCode(shortUrl, size, size))
-                .thenReturn(fakePngData);
+        when(qrCodeCache.get(shortUrl, size, QRCodeFormat.PNG))
+                .thenReturn(new QRCodeImage(fakePngData, QRCodeFormat.PNG, "\"abc\""));
 
         System.out.println("🎭 Mocked QR code generation");
 
@@ -363,12 +392,14 @@ public class UrlMappingControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.IMAGE_PNG))
-                .andExpect(content().bytes(fakePngData));
+                .andExpect(content().bytes(fakePngData))
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(header().string("Cache-Control", "max-age=86400, private"));
 
         System.out.println("✅ QR code generated successfully");
 
-        verify(qrCodeService, times(1))
-                .generateQRCode(shortUrl, size, size);
+        verify(qrCodeCache, times(1))
+                .get(shortUrl, size, QRCodeFormat.PNG);
     }
 
     /**
@@ -381,8 +412,8 @@ public class UrlMappingControllerTest {
         String shortUrl = "abc12345";
         byte[] fakePngData = new byte[]{(byte) 0x89, 0x50, 0x4E, 0x47};
 
-        when(qrCodeService.generateQRCode(eq(shortUrl), eq(300), eq(300)))
-                .thenReturn(fakePngData);
+        when(qrCodeCache.get(shortUrl, 300, QRCodeFormat.PNG))
+                .thenReturn(new QRCodeImage(fakePngData, QRCodeFormat.PNG, "\"abc\""));
 
         System.out.println("🎭 Testing default QR size");
 
@@ -397,8 +428,34 @@ public class UrlMappingControllerTest {
 
         System.out.println("✅ Default size (300) used correctly");
 
-        verify(qrCodeService, times(1))
-                .generateQRCode(shortUrl, 300, 300);
+        verify(qrCodeCache, times(1))
+                .get(shortUrl, 300, QRCodeFormat.PNG);
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void getQRCode_MatchingETag_ReturnsNotModified() throws Exception {
+        when(qrCodeCache.get("abc12345", 300, QRCodeFormat.PNG))
+                .thenReturn(new QRCodeImage(new byte[]{(byte) 0x89, 0x50, 0x4E, 0x47}, QRCodeFormat.PNG, "\"abc\""));
+
+        mockMvc.perform(get("/api/urls/qr/{shortUrl}", "abc12345")
+                        .header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void getQRCode_SvgFormat_ReturnsSvg() throws Exception {
+        byte[] svg = "<svg/>".getBytes(StandardCharsets.UTF_8);
+        when(qrCodeCache.get("abc12345", 300, QRCodeFormat.SVG))
+                .thenReturn(new QRCodeImage(svg, QRCodeFormat.SVG, "\"def\""));
+
+        mockMvc.perform(get("/api/urls/qr/{shortUrl}", "abc12345")
+                        .param("format", "SVG"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/svg+xml"))
+                .andExpect(content().bytes(svg));
     }
 
     /**
@@ -411,7 +468,7 @@ public class UrlMappingControllerTest {
         String shortUrl = "abc12345";
 
         // Use WriterException which is caught by the controller
-        when(qrCodeService.generateQRCode(anyString(), anyInt(), anyInt()))
+        when(qrCodeCache.get(anyString(), anyInt(), any(QRCodeFormat.class)))
                 .thenThrow(new WriterException("QR generation failed"));
 
         System.out.println("🎭 Simulating QR generation error");
@@ -426,6 +483,107 @@ public class UrlMappingControllerTest {
         System.out.println("✅ Error handled correctly - returns 500");
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void exportClickEvents_OwnLink_StreamsGzippedCsv() throws Exception {
+        UrlMapping urlMapping = new UrlMapping();
+        urlMapping.setId(1L);
+        urlMapping.setShortUrl("abc12345");
+        when(userService.findByUsername("testuser")).thenReturn(testUser);
+        when(urlMappingService.findOwnedUrlMapping("abc12345", testUser)).thenReturn(urlMapping);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("id,clickDate\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).writeClickEvents(eq(1L), any(ClickAnalyticsFilter.class), eq(ExportFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/urls/analytics/{shortUrl}/export", "abc12345")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("clicks-abc12345.csv.gz")))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,clickDate\r\n");
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void exportClickEvents_SomeoneElsesLink_ReturnsNotFound() throws Exception {
+        when(userService.findByUsername("testuser")).thenReturn(testUser);
+        when(urlMappingService.findOwnedUrlMapping("abc12345", testUser)).thenReturn(null);
+
+        mockMvc.perform(get("/api/urls/analytics/{shortUrl}/export", "abc12345"))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void bulkShorten_CsvBody_StreamsOneRowPerUrl() throws Exception {
+        when(userService.findByUsername("testuser")).thenReturn(testUser);
+        doAnswer(invocation -> {
+            Iterator<String> originalUrls = invocation.getArgument(0);
+            ExportWriter writer = invocation.getArgument(2);
+            for (int line = 1; originalUrls.hasNext(); line++) {
+                writer.row(line, originalUrls.next(), "code" + line, null);
+            }
+            writer.flush();
+            return 2;
+        }).when(bulkShortenService).shorten(any(), eq(testUser), any(ExportWriter.class));
+
+        MvcResult result = mockMvc.perform(post("/api/urls/shorten/bulk")
+                        .param("format", "CSV")
+                        .contentType("text/csv")
+                        .content("originalUrl\nhttps://a.example\nhttps://b.example\n")
+                        .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "line,originalUrl,shortUrl,error\r\n" +
+                        "1,https://a.example,code1,\r\n" +
+                        "2,https://b.example,code2,\r\n"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void bulkDelete_ReportsDeletedDeletingAndNotFound() throws Exception {
+        List<String> shortUrls = List.of("small", "large", "missing");
+        when(userService.findByUsername("testuser")).thenReturn(testUser);
+        when(linkDeletionService.delete(shortUrls, testUser)).thenReturn(
+                new LinkDeletionResult(List.of("small"), List.of("large"), List.of("missing")));
+
+        mockMvc.perform(post("/api/urls/delete/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(shortUrls))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted[0]").value("small"))
+                .andExpect(jsonPath("$.deleting[0]").value("large"))
+                .andExpect(jsonPath("$.notFound[0]").value("missing"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void bulkDelete_TooManyLinks_ReturnsBadRequest() throws Exception {
+        List<String> shortUrls = Collections.nCopies(1001, "abc12345");
+
+        mockMvc.perform(post("/api/urls/delete/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(shortUrls))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(linkDeletionService);
+    }
+
     @TestConfiguration
     @EnableWebSecurity
     @EnableMethodSecurity
@@ -92,4 +92,14 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(response.getBody()).containsEntry("message", "Same password");
     }
+
+    @Test
+    void handleShortCodeGenerationException_ReturnsServiceUnavailable() {
+        ResponseEntity<Map<String, Object>> response = handler.handleShortCodeGenerationException(
+                new ShortCodeGenerationException("No free short code")
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody()).containsEntry("message", "No free short code");
+    }
 }
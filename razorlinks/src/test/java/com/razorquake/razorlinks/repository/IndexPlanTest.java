@@ -0,0 +1,143 @@
+package com.razorquake.razorlinks.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates an embedded database, seeds it and checks the planner serves the selective lookup,
+ * filter and analytics queries from the intended indexes rather than a table scan. Also checks a
+ * database from before the migrations, baselined at V1, ends up with the same schema.
+ */
+class IndexPlanTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:index-plan;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.update("INSERT INTO roles (role_id, role_name) VALUES (1, 'ROLE_USER')");
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        for (long user = 1; user <= 20; user++) {
+            users.add(new Object[]{user, "user" + user, "user" + user + "@example.com"});
+            for (long link = 0; link < 10; link++) {
+                long id = user * 100 + link;
+                links.add(new Object[]{id, "https://example.com/" + id, "s" + id,
+                        Timestamp.valueOf(START.plusDays(link)), user});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, account_non_locked, account_non_expired," +
+                " credentials_non_expired, enabled, is_two_factor_enabled, role_id)" +
+                " VALUES (?, ?, ?, TRUE, TRUE, TRUE, TRUE, FALSE, 1)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO url_mapping (id, original_url, short_url, click_count, created_date, user_id)" +
+                " VALUES (?, ?, ?, 0, ?, ?)", links);
+
+        List<Object[]> clicks = new ArrayList<>();
+        List<Object[]> auditLogs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Object[] link = links.get(i % links.size());
+            Timestamp at = Timestamp.valueOf(START.plusMinutes(i * 30L));
+            clicks.add(new Object[]{at, link[0]});
+            auditLogs.add(new Object[]{"URL_CLICKED", "user" + link[4], link[0], link[2], at});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO click_events (click_date, url_mapping_id) VALUES (?, ?)", clicks);
+        jdbcTemplate.batchUpdate("INSERT INTO audit_logs (action, username, url_mapping_id, short_url, timestamp)" +
+                " VALUES (?, ?, ?, ?, ?)", auditLogs);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static List<String> schema(JdbcTemplate jdbc) {
+        List<String> schema = new ArrayList<>(jdbc.queryForList("SELECT TABLE_NAME || '.' || COLUMN_NAME || ' '" +
+                " || DATA_TYPE || ' ' || IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC'" +
+                " AND TABLE_NAME <> 'flyway_schema_history' ORDER BY 1", String.class));
+        // Named indexes only; the generated names of constraint indexes depend on creation order
+        schema.addAll(jdbc.queryForList("SELECT TABLE_NAME || ' ' || INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES" +
+                " WHERE TABLE_SCHEMA = 'PUBLIC' AND INDEX_NAME LIKE 'IDX\\_%' ORDER BY 1", String.class));
+        schema.addAll(jdbc.queryForList("SELECT SEQUENCE_NAME FROM INFORMATION_SCHEMA.SEQUENCES" +
+                " WHERE SEQUENCE_SCHEMA = 'PUBLIC' AND SEQUENCE_NAME NOT LIKE 'SYSTEM\\_SEQUENCE%' ORDER BY 1",
+                String.class));
+        return schema;
+    }
+
+    private static String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toUpperCase();
+    }
+
+    @Test
+    void clickEventsOfOneLinkInDateRange_UseLinkAndDateIndex() {
+        String plan = explain("SELECT id, click_date FROM click_events WHERE url_mapping_id = 105" +
+                " AND click_date >= TIMESTAMP '2026-03-01 00:00:00' AND click_date <= TIMESTAMP '2026-03-31 00:00:00'" +
+                " ORDER BY click_date, id");
+
+        assertThat(plan).contains("IDX_CLICK_EVENTS_URL_MAPPING_CLICK_DATE");
+    }
+
+    @Test
+    void clickEventIdsOfOneMonth_UseDateIndex() {
+        String plan = explain("SELECT MIN(id), MAX(id) FROM click_events" +
+                " WHERE click_date >= TIMESTAMP '2026-02-01 00:00:00' AND click_date < TIMESTAMP '2026-03-01 00:00:00'");
+
+        assertThat(plan).contains("IDX_CLICK_EVENTS_CLICK_DATE");
+    }
+
+    @Test
+    void auditLogsOfOneLink_UseLinkAndTimestampIndex() {
+        String plan = explain("SELECT * FROM audit_logs WHERE url_mapping_id = 105" +
+                " AND timestamp >= TIMESTAMP '2026-03-01 00:00:00' ORDER BY timestamp DESC");
+
+        assertThat(plan).contains("IDX_AUDIT_LOGS_URL_MAPPING_TIMESTAMP");
+    }
+
+    @Test
+    void auditLogsInDateRange_UseTimestampIndex() {
+        String plan = explain("SELECT * FROM audit_logs" +
+                " WHERE timestamp >= TIMESTAMP '2026-02-01 00:00:00' AND timestamp < TIMESTAMP '2026-02-02 00:00:00'" +
+                " ORDER BY timestamp DESC, id DESC");
+
+        assertThat(plan).contains("IDX_AUDIT_LOGS_TIMESTAMP");
+    }
+
+    @Test
+    void userLinksUpToDate_UseUserAndCreatedDateIndex() {
+        String plan = explain("SELECT * FROM url_mapping WHERE user_id = 7" +
+                " AND created_date <= TIMESTAMP '2026-01-05 00:00:00'" +
+                " ORDER BY created_date DESC, id DESC");
+
+        assertThat(plan).contains("IDX_URL_MAPPING_USER_CREATED");
+    }
+
+    @Test
+    void preMigrationDatabaseBaselinedAtV1_GetsTheSameSchema() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:index-plan-baselined;DB_CLOSE_DELAY=-1", "sa", "");
+        // The schema Hibernate created before the migrations existed, without a Flyway history table
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__baseline.sql")).execute(dataSource);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+        JdbcTemplate baselined = new JdbcTemplate(dataSource);
+
+        assertThat(schema(baselined)).isEqualTo(schema(jdbcTemplate));
+        assertThat(schema(baselined)).contains("URL_MAPPING_SEQ", "CLICK_DAILY_ROLLUP.CLICK_COUNT BIGINT NO",
+                "RETENTION_LOG.PERIOD_START DATE YES", "SHORT_CODE_SEQUENCE.NEXT_VALUE BIGINT NO",
+                "CLICK_EVENTS IDX_CLICK_EVENTS_URL_MAPPING_CLICK_DATE", "CLICK_EVENTS IDX_CLICK_EVENTS_CLICK_DATE",
+                "CLICK_EVENTS_SEQ", "AUDIT_LOGS_SEQ");
+    }
+}
@@ -1,15 +1,18 @@
 package com.razorquake.razorlinks.security;
 
 import com.razorquake.razorlinks.config.RateLimitConfig;
+import com.razorquake.razorlinks.config.RateLimitPolicy;
+import com.razorquake.razorlinks.config.RateLimitTier;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.FilterChain;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,7 +34,6 @@ class RateLimitingFilterTest {
     @Mock
     private FilterChain filterChain;
 
-    @InjectMocks
     private RateLimitingFilter rateLimitingFilter;
 
     private MockHttpServletRequest request;
@@ -42,6 +44,7 @@ class RateLimitingFilterTest {
         request = new MockHttpServletRequest();
         response = new MockHttpServletResponse();
         SecurityContextHolder.clearContext();
+        rateLimitingFilter = new RateLimitingFilter(rateLimitConfig, RateLimitPolicy.DEFAULT_ROUTES, RateLimitTier.REDIRECT);
     }
 
     // --- Helper to build a real bucket with a given capacity ---
@@ -54,6 +57,11 @@ class RateLimitingFilterTest {
                 .build();
     }
 
+    // --- Each stubbed call consumes from the real bucket, like RateLimitConfig does ---
+    private static Answer<ConsumptionProbe> consumeFrom(Bucket bucket) {
+        return invocation -> bucket.tryConsumeAndReturnRemaining(1);
+    }
+
     // ========== OPTIONS bypass ==========
 
     @Test
@@ -97,12 +105,12 @@ class RateLimitingFilterTest {
         request.setRemoteAddr("192.168.1.100");
 
         Bucket bucket = buildBucket(10);
-        when(rateLimitConfig.resolveAuthBucket("192.168.1.100")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTH, "192.168.1.100")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        verify(rateLimitConfig).resolveAuthBucket("192.168.1.100");
+        verify(rateLimitConfig).tryConsume(RateLimitTier.AUTH, "192.168.1.100");
         assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("9");
     }
 
@@ -113,11 +121,11 @@ class RateLimitingFilterTest {
         request.addHeader("X-Forwarded-For", "203.0.113.50, 70.41.3.18, 150.172.238.178");
 
         Bucket bucket = buildBucket(5);
-        when(rateLimitConfig.resolveAuthBucket("203.0.113.50")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTH, "203.0.113.50")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
-        verify(rateLimitConfig).resolveAuthBucket("203.0.113.50");
+        verify(rateLimitConfig).tryConsume(RateLimitTier.AUTH, "203.0.113.50");
         verify(filterChain).doFilter(request, response);
     }
 
@@ -135,11 +143,11 @@ class RateLimitingFilterTest {
         SecurityContextHolder.getContext().setAuthentication(userAuth);
 
         Bucket bucket = buildBucket(30);
-        when(rateLimitConfig.resolveAuthenticatedBucket("testuser")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTHENTICATED, "testuser")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
-        verify(rateLimitConfig).resolveAuthenticatedBucket("testuser");
+        verify(rateLimitConfig).tryConsume(RateLimitTier.AUTHENTICATED, "testuser");
         verify(filterChain).doFilter(request, response);
         assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("29");
     }
@@ -152,11 +160,11 @@ class RateLimitingFilterTest {
         // No authentication set — anonymous user
 
         Bucket bucket = buildBucket(10);
-        when(rateLimitConfig.resolveAuthBucket("10.0.0.1")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTH, "10.0.0.1")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
-        verify(rateLimitConfig).resolveAuthBucket("10.0.0.1");
+        verify(rateLimitConfig).tryConsume(RateLimitTier.AUTH, "10.0.0.1");
         verify(filterChain).doFilter(request, response);
     }
 
@@ -169,11 +177,11 @@ class RateLimitingFilterTest {
         request.setRemoteAddr("172.16.0.1");
 
         Bucket bucket = buildBucket(90);
-        when(rateLimitConfig.resolveRedirectBucket("172.16.0.1")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.REDIRECT, "172.16.0.1")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
-        verify(rateLimitConfig).resolveRedirectBucket("172.16.0.1");
+        verify(rateLimitConfig).tryConsume(RateLimitTier.REDIRECT, "172.16.0.1");
         verify(filterChain).doFilter(request, response);
         assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("89");
     }
@@ -189,7 +197,7 @@ class RateLimitingFilterTest {
         // Create a bucket with 0 remaining tokens
         Bucket bucket = buildBucket(1);
         bucket.tryConsume(1); // exhaust the single token
-        when(rateLimitConfig.resolveAuthBucket("1.2.3.4")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTH, "1.2.3.4")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
@@ -212,7 +220,7 @@ class RateLimitingFilterTest {
 
         Bucket bucket = buildBucket(1);
         bucket.tryConsume(1);
-        when(rateLimitConfig.resolveAuthBucket("5.6.7.8")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTH, "5.6.7.8")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
@@ -230,7 +238,7 @@ class RateLimitingFilterTest {
         request.setRemoteAddr("9.9.9.9");
 
         Bucket bucket = buildBucket(3);
-        when(rateLimitConfig.resolveRedirectBucket("9.9.9.9")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.REDIRECT, "9.9.9.9")).thenAnswer(consumeFrom(bucket));
 
         // Request 1
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
@@ -262,11 +270,11 @@ class RateLimitingFilterTest {
         request.addHeader("X-Forwarded-For", "");
 
         Bucket bucket = buildBucket(10);
-        when(rateLimitConfig.resolveRedirectBucket("127.0.0.1")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.REDIRECT, "127.0.0.1")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
-        verify(rateLimitConfig).resolveRedirectBucket("127.0.0.1");
+        verify(rateLimitConfig).tryConsume(RateLimitTier.REDIRECT, "127.0.0.1");
     }
 
     @Test
@@ -282,11 +290,55 @@ class RateLimitingFilterTest {
         SecurityContextHolder.getContext().setAuthentication(userAuth);
 
         Bucket bucket = buildBucket(30);
-        when(rateLimitConfig.resolveAuthenticatedBucket("regularuser")).thenReturn(bucket);
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTHENTICATED, "regularuser")).thenAnswer(consumeFrom(bucket));
 
         rateLimitingFilter.doFilterInternal(request, response, filterChain);
 
         // Should NOT bypass — should resolve a bucket
-        verify(rateLimitConfig).resolveAuthenticatedBucket("regularuser");
+        verify(rateLimitConfig).tryConsume(RateLimitTier.AUTHENTICATED, "regularuser");
+    }
+
+    // ========== Configured routes ==========
+
+    @Test
+    void methodSpecificRoute_AppliesOnlyToThatMethod() throws Exception {
+        rateLimitingFilter = new RateLimitingFilter(rateLimitConfig,
+                "POST /api/urls/shorten=AUTH," + RateLimitPolicy.DEFAULT_ROUTES, RateLimitTier.REDIRECT);
+        var userAuth = new UsernamePasswordAuthenticationToken(
+                "testuser", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+        SecurityContextHolder.getContext().setAuthentication(userAuth);
+        request.setRemoteAddr("10.1.1.1");
+        request.setRequestURI("/api/urls/shorten");
+
+        Bucket bucket = buildBucket(10);
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTH, "10.1.1.1")).thenAnswer(consumeFrom(bucket));
+        when(rateLimitConfig.tryConsume(RateLimitTier.AUTHENTICATED, "testuser")).thenAnswer(consumeFrom(bucket));
+
+        request.setMethod("POST");
+        rateLimitingFilter.doFilterInternal(request, response, filterChain);
+        request.setMethod("GET");
+        rateLimitingFilter.doFilterInternal(request, new MockHttpServletResponse(), filterChain);
+
+        verify(rateLimitConfig).tryConsume(RateLimitTier.AUTH, "10.1.1.1");
+        verify(rateLimitConfig).tryConsume(RateLimitTier.AUTHENTICATED, "testuser");
+    }
+
+    @Test
+    void firstForwardedAddress_ParsesFirstEntry() {
+        assertThat(RateLimitingFilter.firstForwardedAddress("203.0.113.50")).isEqualTo("203.0.113.50");
+        assertThat(RateLimitingFilter.firstForwardedAddress(" 203.0.113.50 , 70.41.3.18")).isEqualTo("203.0.113.50");
+        assertThat(RateLimitingFilter.firstForwardedAddress("2001:db8::1,10.0.0.1")).isEqualTo("2001:db8::1");
+        assertThat(RateLimitingFilter.firstForwardedAddress(" , 10.0.0.1")).isNull();
+        assertThat(RateLimitingFilter.firstForwardedAddress("")).isNull();
+        assertThat(RateLimitingFilter.firstForwardedAddress(null)).isNull();
+    }
+
+    @Test
+    void firstForwardedAddress_SingleAddress_ReturnsHeaderWithoutCopying() {
+        String header = "198.51.100.7";
+
+        assertThat(RateLimitingFilter.firstForwardedAddress(header)).isSameAs(header);
     }
 }
@@ -1,5 +1,11 @@
 package com.razorquake.razorlinks.security.jwt;
 
+import com.razorquake.razorlinks.dtos.UserStatus;
+import com.razorquake.razorlinks.models.AppRole;
+import com.razorquake.razorlinks.security.service.UserDetailsImpl;
+import com.razorquake.razorlinks.security.service.UserStatusCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +18,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import jakarta.servlet.FilterChain;
 
@@ -27,6 +34,9 @@ class JwtAuthenticationFilterTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Mock
+    private UserStatusCache userStatusCache;
+
     @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -42,8 +52,7 @@ class JwtAuthenticationFilterTest {
         FilterChain filterChain = mock(FilterChain.class);
 
         when(jwtUtils.getJwtFromHeader(request)).thenReturn("jwt-token");
-        when(jwtUtils.validateToken("jwt-token")).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken("jwt-token")).thenReturn("testuser");
+        when(jwtUtils.parseClaims("jwt-token")).thenReturn(Jwts.claims().subject("testuser").build());
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(
                 User.withUsername("testuser")
                         .password("password")
@@ -56,6 +65,8 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertThat(authentication).isNotNull();
         assertThat(authentication.getName()).isEqualTo("testuser");
+        verify(jwtUtils).parseClaims("jwt-token");
+        verifyNoMoreInteractions(jwtUtils);
         verify(filterChain).doFilter(request, response);
     }
 
@@ -81,7 +92,51 @@ class JwtAuthenticationFilterTest {
         FilterChain filterChain = mock(FilterChain.class);
 
         when(jwtUtils.getJwtFromHeader(request)).thenReturn("bad-token");
-        when(jwtUtils.validateToken("bad-token")).thenReturn(false);
+        when(jwtUtils.parseClaims("bad-token")).thenReturn(null);
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilter_ClaimsSource_BuildsPrincipalWithoutLoadingUser() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "principalSource", JwtAuthenticationFilter.PrincipalSource.CLAIMS);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain filterChain = mock(FilterChain.class);
+
+        when(jwtUtils.getJwtFromHeader(request)).thenReturn("jwt-token");
+        when(jwtUtils.parseClaims("jwt-token")).thenReturn(claims("ROLE_USER"));
+        when(userStatusCache.get("testuser")).thenReturn(activeStatus(AppRole.ROLE_USER));
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOf(UserDetailsImpl.class);
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.getUsername()).isEqualTo("testuser");
+        assertThat(principal.is2faEnabled()).isTrue();
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilter_ClaimsSourceLockedAccount_DoesNotAuthenticate() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "principalSource", JwtAuthenticationFilter.PrincipalSource.CLAIMS);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain filterChain = mock(FilterChain.class);
+
+        when(jwtUtils.getJwtFromHeader(request)).thenReturn("jwt-token");
+        when(jwtUtils.parseClaims("jwt-token")).thenReturn(claims("ROLE_USER"));
+        when(userStatusCache.get("testuser")).thenReturn(
+                new UserStatus(1L, AppRole.ROLE_USER, false, true, true, true));
 
         jwtAuthenticationFilter.doFilter(request, response, filterChain);
 
@@ -89,4 +144,58 @@ class JwtAuthenticationFilterTest {
         verifyNoInteractions(userDetailsService);
         verify(filterChain).doFilter(request, response);
     }
+
+    @Test
+    void doFilter_ClaimsSourceUnknownUser_DoesNotAuthenticate() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "principalSource", JwtAuthenticationFilter.PrincipalSource.CLAIMS);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain filterChain = mock(FilterChain.class);
+
+        when(jwtUtils.getJwtFromHeader(request)).thenReturn("jwt-token");
+        when(jwtUtils.parseClaims("jwt-token")).thenReturn(claims("ROLE_USER"));
+        when(userStatusCache.get("testuser")).thenReturn(null);
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilter_ClaimsSourceRoleChanged_LoadsUserFromDatabase() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "principalSource", JwtAuthenticationFilter.PrincipalSource.CLAIMS);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain filterChain = mock(FilterChain.class);
+
+        when(jwtUtils.getJwtFromHeader(request)).thenReturn("jwt-token");
+        when(jwtUtils.parseClaims("jwt-token")).thenReturn(claims("ROLE_ADMIN"));
+        when(userStatusCache.get("testuser")).thenReturn(activeStatus(AppRole.ROLE_USER));
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(
+                User.withUsername("testuser")
+                        .password("password")
+                        .authorities("ROLE_USER")
+                        .build()
+        );
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    private static Claims claims(String roles) {
+        return Jwts.claims()
+                .subject("testuser")
+                .add("roles", roles)
+                .add("is2faEnabled", true)
+                .build();
+    }
+
+    private static UserStatus activeStatus(AppRole role) {
+        return new UserStatus(1L, role, true, true, true, true);
+    }
 }
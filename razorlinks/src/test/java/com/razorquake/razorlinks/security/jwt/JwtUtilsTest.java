@@ -4,6 +4,7 @@ import com.razorquake.razorlinks.models.AppRole;
 import com.razorquake.razorlinks.models.Role;
 import com.razorquake.razorlinks.models.User;
 import com.razorquake.razorlinks.security.service.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -73,4 +74,59 @@ class JwtUtilsTest {
 
         assertThat(jwtUtils.validateToken(token)).isFalse();
     }
+
+    @Test
+    void parseClaims_ValidToken_ReturnsClaims() {
+        String token = jwtUtils.generateToken(userDetails);
+
+        Claims claims = jwtUtils.parseClaims(token);
+
+        assertThat(claims).isNotNull();
+        assertThat(claims.getSubject()).isEqualTo("testuser");
+        assertThat(claims.get("roles", String.class)).isEqualTo("ROLE_USER");
+    }
+
+    @Test
+    void parseClaims_ReusesOneParser() {
+        String token = jwtUtils.generateToken(userDetails);
+
+        jwtUtils.parseClaims(token);
+        Object parser = ReflectionTestUtils.getField(jwtUtils, "parser");
+        jwtUtils.parseClaims(token);
+
+        assertThat(parser).isNotNull().isSameAs(ReflectionTestUtils.getField(jwtUtils, "parser"));
+    }
+
+    @Test
+    void parseClaims_CacheDisabled_VerifiesEveryTime() {
+        String token = jwtUtils.generateToken(userDetails);
+
+        assertThat(jwtUtils.parseClaims(token)).isNotSameAs(jwtUtils.parseClaims(token));
+    }
+
+    @Test
+    void parseClaims_CacheEnabled_ReusesVerifiedClaims() {
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheEnabled", true);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheTtlSeconds", 60L);
+        String token = jwtUtils.generateToken(userDetails);
+
+        Claims first = jwtUtils.parseClaims(token);
+
+        assertThat(first).isNotNull();
+        assertThat(jwtUtils.parseClaims(token)).isSameAs(first);
+        assertThat(jwtUtils.parseClaims(token + "x")).isNull();
+    }
+
+    @Test
+    void parseClaims_CacheEnabled_DoesNotCacheExpiredToken() {
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheEnabled", true);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheTtlSeconds", 60L);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", -60000);
+        String token = jwtUtils.generateToken(userDetails);
+
+        assertThat(jwtUtils.parseClaims(token)).isNull();
+        assertThat(jwtUtils.parseClaims(token)).isNull();
+    }
 }
@@ -0,0 +1,69 @@
+package com.razorquake.razorlinks.security.service;
+
+import com.razorquake.razorlinks.dtos.UserStatus;
+import com.razorquake.razorlinks.models.AppRole;
+import com.razorquake.razorlinks.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatusCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserStatusCache userStatusCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userStatusCache, "revalidationSeconds", 30L);
+        ReflectionTestUtils.setField(userStatusCache, "maximumSize", 100L);
+        userStatusCache.init();
+    }
+
+    @Test
+    void get_LoadsStatusOnceWithinRevalidationInterval() {
+        UserStatus status = new UserStatus(1L, AppRole.ROLE_USER, true, true, true, true);
+        when(userRepository.findStatusByUsername("testuser")).thenReturn(Optional.of(status));
+
+        assertThat(userStatusCache.get("testuser")).isEqualTo(status);
+        assertThat(userStatusCache.get("testuser")).isEqualTo(status);
+
+        verify(userRepository, times(1)).findStatusByUsername("testuser");
+    }
+
+    @Test
+    void get_UnknownUser_ReturnsNullAndCachesTheMiss() {
+        when(userRepository.findStatusByUsername("missing")).thenReturn(Optional.empty());
+
+        assertThat(userStatusCache.get("missing")).isNull();
+        assertThat(userStatusCache.get("missing")).isNull();
+
+        verify(userRepository, times(1)).findStatusByUsername("missing");
+    }
+
+    @Test
+    void invalidate_NextGetReloadsStatus() {
+        UserStatus active = new UserStatus(1L, AppRole.ROLE_USER, true, true, true, true);
+        UserStatus locked = new UserStatus(1L, AppRole.ROLE_USER, false, true, true, true);
+        when(userRepository.findStatusByUsername("testuser"))
+                .thenReturn(Optional.of(active))
+                .thenReturn(Optional.of(locked));
+
+        assertThat(userStatusCache.get("testuser").isActive()).isTrue();
+        userStatusCache.invalidate("testuser");
+
+        assertThat(userStatusCache.get("testuser").isActive()).isFalse();
+    }
+}
@@ -0,0 +1,69 @@
+package com.razorquake.razorlinks.security.util;
+
+import com.razorquake.razorlinks.models.EmailOutboxMessage;
+import com.razorquake.razorlinks.repository.EmailOutboxRepository;
+import com.razorquake.razorlinks.service.email.TemplateRenderService;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailServiceTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private TemplateRenderService templateRenderService;
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    @InjectMocks
+    private EmailService emailService;
+
+    @Test
+    void sendVerificationEmail_QueuesMessageWithoutSending() {
+        emailService.sendVerificationEmail("user@example.com", "user", "https://app.test/verify-email?token=abc");
+
+        ArgumentCaptor<EmailOutboxMessage> queued = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(outboxRepository).save(queued.capture());
+        assertThat(queued.getValue().getRecipient()).isEqualTo("user@example.com");
+        assertThat(queued.getValue().getTemplate()).isEqualTo("emails/email-verification.jte");
+        assertThat(queued.getValue().getStatus()).isEqualTo(EmailOutboxMessage.Status.PENDING);
+        assertThat(queued.getValue().getParams())
+                .contains("\"verificationUrl\":\"https://app.test/verify-email?token=abc\"")
+                .contains("\"username\":\"user\"");
+        verifyNoInteractions(mailSender, templateRenderService);
+    }
+
+    @Test
+    void toMimeMessage_RendersTemplateWithQueuedParams() throws Exception {
+        when(mailSender.createMimeMessage()).thenReturn(new MimeMessage(Session.getInstance(new Properties())));
+        when(templateRenderService.render("emails/password-reset.jte",
+                Map.of("resetUrl", "https://app.test/r", "username", "user")))
+                .thenReturn("<p>Reset https://app.test/r</p>");
+        EmailOutboxMessage email = new EmailOutboxMessage("user@example.com", "Password Reset Request - RazorLinks",
+                "emails/password-reset.jte", "{\"resetUrl\":\"https://app.test/r\",\"username\":\"user\"}",
+                LocalDateTime.now());
+
+        MimeMessage message = emailService.toMimeMessage(email);
+
+        assertThat(message.getSubject()).isEqualTo("Password Reset Request - RazorLinks");
+        assertThat(message.getAllRecipients()[0].toString()).isEqualTo("user@example.com");
+    }
+}
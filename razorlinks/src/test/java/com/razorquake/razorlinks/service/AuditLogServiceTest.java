@@ -1,10 +1,12 @@
 package com.razorquake.razorlinks.service;
 
 import com.razorquake.razorlinks.dtos.AuditLogFilter;
+import com.razorquake.razorlinks.dtos.CursorPage;
 import com.razorquake.razorlinks.models.AuditLog;
 import com.razorquake.razorlinks.models.UrlMapping;
 import com.razorquake.razorlinks.models.User;
 import com.razorquake.razorlinks.repository.AuditLogRepository;
+import com.razorquake.razorlinks.service.audit.AuditSink;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,10 +18,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,6 +36,9 @@ class AuditLogServiceTest {
     @Mock
     private AuditLogRepository auditLogRepository;
 
+    @Mock
+    private AuditSink auditSink;
+
     @InjectMocks
     private AuditLogService auditLogService;
 
@@ -55,7 +63,7 @@ class AuditLogServiceTest {
         auditLogService.shortURLCreated(urlMapping);
 
         ArgumentCaptor<AuditLog> logCaptor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository).save(logCaptor.capture());
+        verify(auditSink).write(logCaptor.capture());
 
         AuditLog log = logCaptor.getValue();
         assertThat(log.getAction()).isEqualTo("SHORT_URL_CREATED");
@@ -65,12 +73,30 @@ class AuditLogServiceTest {
         assertThat(log.getTimestamp()).isEqualTo(urlMapping.getCreatedDate());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void shortURLsCreated_WritesAllLogsTogether() {
+        UrlMapping second = new UrlMapping();
+        second.setId(11L);
+        second.setShortUrl("def456");
+        second.setUser(user);
+        second.setCreatedDate(urlMapping.getCreatedDate());
+
+        auditLogService.shortURLsCreated(List.of(urlMapping, second));
+
+        ArgumentCaptor<List<AuditLog>> logsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(auditSink).writeAll(logsCaptor.capture());
+        verify(auditSink, never()).write(any());
+        assertThat(logsCaptor.getValue()).extracting(AuditLog::getShortUrl).containsExactly("abc123", "def456");
+        assertThat(logsCaptor.getValue()).allMatch(log -> log.getAction().equals("SHORT_URL_CREATED"));
+    }
+
     @Test
     void shortURLDeleted_CreatesAuditLog() {
         auditLogService.shortURLDeleted(urlMapping);
 
         ArgumentCaptor<AuditLog> logCaptor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository).save(logCaptor.capture());
+        verify(auditSink).write(logCaptor.capture());
 
         AuditLog log = logCaptor.getValue();
         assertThat(log.getAction()).isEqualTo("SHORT_URL_DELETED");
@@ -81,23 +107,20 @@ class AuditLogServiceTest {
     }
 
     @Test
-    void shortURLClicked_CreatesAuditLog() {
-        auditLogService.shortURLClicked(
-                urlMapping.getId(),
-                urlMapping.getShortUrl(),
-                user.getUsername(),
-                LocalDateTime.of(2024, 1, 5, 12, 30)
-        );
-
-        ArgumentCaptor<AuditLog> logCaptor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository).save(logCaptor.capture());
-
-        AuditLog log = logCaptor.getValue();
-        assertThat(log.getAction()).isEqualTo("SHORT_URL_CLICKED");
-        assertThat(log.getUsername()).isEqualTo("testuser");
-        assertThat(log.getUrlMappingId()).isEqualTo(10L);
-        assertThat(log.getShortUrl()).isEqualTo("abc123");
-        assertThat(log.getTimestamp()).isEqualTo(LocalDateTime.of(2024, 1, 5, 12, 30));
+    @SuppressWarnings("unchecked")
+    void shortURLsDeleted_WritesAllLogsTogether() {
+        UrlMapping second = new UrlMapping();
+        second.setId(11L);
+        second.setShortUrl("def456");
+        second.setUser(user);
+
+        auditLogService.shortURLsDeleted(List.of(urlMapping, second));
+
+        ArgumentCaptor<List<AuditLog>> logsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(auditSink).writeAll(logsCaptor.capture());
+        verify(auditSink, never()).write(any());
+        assertThat(logsCaptor.getValue()).extracting(AuditLog::getUrlMappingId).containsExactly(10L, 11L);
+        assertThat(logsCaptor.getValue()).allMatch(log -> log.getAction().equals("SHORT_URL_DELETED"));
     }
 
     @Test
@@ -113,6 +136,38 @@ class AuditLogServiceTest {
         verify(auditLogRepository).findAll(any(Specification.class), any(Pageable.class));
     }
 
+    @Test
+    void scrollAuditLogs_MorePages_ReturnsNextCursorWithoutCounting() {
+        AuditLog log = new AuditLog();
+        log.setId(5L);
+        log.setTimestamp(LocalDateTime.of(2024, 1, 1, 0, 0));
+        Window<AuditLog> window = Window.from(List.of(log),
+                index -> ScrollPosition.forward(Map.of("timestamp", log.getTimestamp(), "id", log.getId())), true);
+        when(auditLogRepository.findBy(any(Specification.class), any())).thenReturn(window);
+
+        CursorPage<AuditLog> result = auditLogService.scrollAuditLogs(new AuditLogFilter());
+
+        assertThat(result.content()).containsExactly(log);
+        assertThat(result.nextCursor()).isNotBlank();
+        assertThat(result.totalElements()).isNull();
+        verify(auditLogRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void scrollAuditLogs_IncludeTotal_CountsMatches() {
+        AuditLogFilter filter = new AuditLogFilter();
+        filter.setIncludeTotal(true);
+        when(auditLogRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+        when(auditLogRepository.count(any(Specification.class))).thenReturn(0L);
+
+        CursorPage<AuditLog> result = auditLogService.scrollAuditLogs(filter);
+
+        assertThat(result.content()).isEmpty();
+        assertThat(result.nextCursor()).isNull();
+        assertThat(result.totalElements()).isZero();
+    }
+
     @Test
     void getAuditLogsByUrlId_ReturnsPagedRepositoryResults() {
         AuditLog log = new AuditLog();
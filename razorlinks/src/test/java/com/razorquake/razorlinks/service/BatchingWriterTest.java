@@ -0,0 +1,73 @@
+package com.razorquake.razorlinks.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchingWriterTest {
+
+    private final List<List<Integer>> flushed = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstFlush = new CountDownLatch(1);
+
+    private BatchingWriter<Integer> writer(int batchSize, long flushIntervalMs) {
+        // The writer reuses its batch list, so each flush is copied
+        return new BatchingWriter<>(10, batchSize, flushIntervalMs, batch -> {
+            flushed.add(new ArrayList<>(batch));
+            firstFlush.countDown();
+        });
+    }
+
+    @Test
+    void fullBatch_IsFlushedBeforeTheInterval() throws InterruptedException {
+        BatchingWriter<Integer> writer = writer(2, 60_000L);
+        writer.offer(1);
+        writer.offer(2);
+        writer.start(Thread.ofVirtual());
+
+        assertThat(firstFlush.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.stop(5_000L);
+
+        assertThat(flushed.getFirst()).containsExactly(1, 2);
+    }
+
+    @Test
+    void partialBatch_IsFlushedWhenTheIntervalPasses() throws InterruptedException {
+        BatchingWriter<Integer> writer = writer(100, 10L);
+        writer.start(Thread.ofVirtual());
+
+        writer.offer(1);
+        assertThat(firstFlush.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.stop(5_000L);
+
+        assertThat(flushed).containsExactly(List.of(1));
+    }
+
+    @Test
+    void stop_FlushesWhatIsStillQueuedInBatches() throws InterruptedException {
+        BatchingWriter<Integer> writer = writer(2, 60_000L);
+        for (int i = 1; i <= 5; i++) {
+            writer.offer(i);
+        }
+
+        // Never started, so everything is left for the shutdown flush
+        int remaining = writer.stop(5_000L);
+
+        assertThat(remaining).isEqualTo(5);
+        assertThat(flushed).containsExactly(List.of(1, 2), List.of(3, 4), List.of(5));
+        assertThat(writer.size()).isZero();
+    }
+
+    @Test
+    void offer_QueueFull_ReturnsFalse() {
+        BatchingWriter<Integer> writer = new BatchingWriter<>(1, 10, 60_000L, flushed::add);
+
+        assertThat(writer.offer(1)).isTrue();
+        assertThat(writer.offer(2)).isFalse();
+    }
+}
@@ -0,0 +1,125 @@
+package com.razorquake.razorlinks.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.verification.VerificationMode;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickCounterServiceTest {
+
+    private static final String INCREMENT_CLICK_COUNT_SQL =
+            "UPDATE url_mapping SET click_count = click_count + ? WHERE id = ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClickCounterService clickCounterService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clickCounterService = new ClickCounterService(jdbcTemplate, meterRegistry);
+        clickCounterService.registerMetrics();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<Collection<Map.Entry<Long, Long>>> captureUpdates(VerificationMode mode) {
+        ArgumentCaptor<Collection<Map.Entry<Long, Long>>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, mode).batchUpdate(eq(INCREMENT_CLICK_COUNT_SQL), captor.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        return captor;
+    }
+
+    @Test
+    void flush_CoalescesClicksIntoOneUpdatePerLinkOrderedById() {
+        clickCounterService.increment(2L);
+        clickCounterService.increment(1L);
+        clickCounterService.increment(2L);
+        clickCounterService.increment(2L);
+
+        clickCounterService.flush();
+
+        assertThat(new ArrayList<>(captureUpdates(times(1)).getValue()))
+                .containsExactly(Map.entry(1L, 1L), Map.entry(2L, 3L));
+        assertThat(clickCounterService.getUnflushedClicks()).isZero();
+    }
+
+    @Test
+    void flush_NothingCounted_DoesNotTouchDatabase() {
+        clickCounterService.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_DatabaseFailure_KeepsDeltasForNextFlush() {
+        clickCounterService.increment(1L);
+        clickCounterService.increment(1L);
+        when(jdbcTemplate.batchUpdate(eq(INCREMENT_CLICK_COUNT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[][]{{1}});
+
+        clickCounterService.flush();
+        assertThat(clickCounterService.getUnflushedClicks()).isEqualTo(2);
+
+        clickCounterService.flush();
+        assertThat(new ArrayList<>(captureUpdates(times(2)).getAllValues().get(1)))
+                .containsExactly(Map.entry(1L, 2L));
+        assertThat(clickCounterService.getUnflushedClicks()).isZero();
+    }
+
+    @Test
+    void unflushedGauge_ReportsPendingClicks() {
+        clickCounterService.increment(1L);
+        clickCounterService.increment(3L);
+
+        assertThat(meterRegistry.get("razorlinks.clicks.unflushed").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void concurrentIncrements_AreNotLostAcrossFlushes() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    clickCounterService.increment(1L);
+                }
+            });
+        }
+        for (int i = 0; i < 5; i++) {
+            clickCounterService.flush();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        clickCounterService.shutdown();
+
+        long flushed = 0;
+        for (Collection<Map.Entry<Long, Long>> updates : captureUpdates(atLeastOnce()).getAllValues()) {
+            for (Map.Entry<Long, Long> update : updates) {
+                flushed += update.getValue();
+            }
+        }
+        assertThat(flushed).isEqualTo(40_000);
+    }
+}
@@ -0,0 +1,202 @@
+package com.razorquake.razorlinks.service;
+
+import com.razorquake.razorlinks.dtos.ClickRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickIngestionServiceTest {
+
+    private static final String INSERT_CLICK_EVENT_SQL =
+            "INSERT INTO click_events (id, click_date, url_mapping_id) VALUES (?, ?, ?)";
+    private static final String INSERT_CLICK_AUDIT_SQL =
+            "INSERT INTO audit_logs (id, action, username, url_mapping_id, short_url, timestamp) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INCREMENT_ROLLUP_SQL =
+            "UPDATE click_daily_rollup SET click_count = click_count + ? WHERE url_mapping_id = ? AND click_day = ?";
+    private static final String INSERT_ROLLUP_SQL =
+            "INSERT INTO click_daily_rollup (url_mapping_id, click_day, click_count) VALUES (?, ?, ?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SequenceIdAllocator idAllocator;
+
+    @InjectMocks
+    private ClickIngestionService clickIngestionService;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(clickIngestionService, "batchSize", 500);
+        ReflectionTestUtils.setField(clickIngestionService, "overflowPolicy", ClickIngestionService.OverflowPolicy.DROP);
+        // Hands out ids 1, 2, 3, ... for every batch
+        lenient().when(idAllocator.nextIds(any(), anyInt()))
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, invocation.<Integer>getArgument(1)).toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    /**
+     * Makes every rollup row update report one affected row, i.e. all rollup rows already exist.
+     */
+    private void rollupRowsExist() {
+        when(jdbcTemplate.batchUpdate(eq(INCREMENT_ROLLUP_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    int[] counts = new int[invocation.<Collection<?>>getArgument(1).size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][]{counts};
+                });
+    }
+
+    /**
+     * Installs a writer without starting its thread, so nothing drains the queue behind the test's back.
+     */
+    private void useQueueWithoutWriter(int capacity) {
+        ReflectionTestUtils.setField(clickIngestionService, "writer",
+                new BatchingWriter<ClickRecord>(capacity, 500, 60_000L, clickIngestionService::flush));
+    }
+
+    private ClickRecord click(long urlMappingId) {
+        return new ClickRecord(urlMappingId, "short" + urlMappingId, "testuser", now);
+    }
+
+    @Test
+    void record_QueueHasSpace_DoesNotTouchDatabase() {
+        useQueueWithoutWriter(10);
+
+        clickIngestionService.record(click(1L));
+
+        assertThat(clickIngestionService.getQueueDepth()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate, transactionTemplate);
+    }
+
+    @Test
+    void record_QueueFullWithDropPolicy_DropsClick() {
+        useQueueWithoutWriter(1);
+
+        clickIngestionService.record(click(1L));
+        clickIngestionService.record(click(2L));
+
+        assertThat(clickIngestionService.getQueueDepth()).isEqualTo(1);
+        assertThat(clickIngestionService.getDroppedClicks()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate, transactionTemplate);
+    }
+
+    @Test
+    void record_QueueFullWithCallerRunsPolicy_WritesSynchronously() {
+        useQueueWithoutWriter(1);
+        runTransactionsInline();
+        rollupRowsExist();
+        ReflectionTestUtils.setField(clickIngestionService, "overflowPolicy", ClickIngestionService.OverflowPolicy.CALLER_RUNS);
+
+        clickIngestionService.record(click(1L));
+        clickIngestionService.record(click(2L));
+
+        assertThat(clickIngestionService.getDroppedClicks()).isZero();
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_CLICK_EVENT_SQL), eq(List.of(click(2L))), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void flush_WritesClickEventsAndAuditRowsInOneTransaction() {
+        runTransactionsInline();
+        rollupRowsExist();
+        List<ClickRecord> batch = List.of(click(2L), click(1L), click(2L));
+
+        clickIngestionService.flush(batch);
+
+        verify(transactionTemplate).executeWithoutResult(any());
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_CLICK_EVENT_SQL), eq(batch), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_CLICK_AUDIT_SQL), eq(batch), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(eq(INCREMENT_ROLLUP_SQL), anyCollection(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_MissingRollupRows_AreInsertedWithTheirDailyTotals() {
+        runTransactionsInline();
+        when(jdbcTemplate.batchUpdate(eq(INCREMENT_ROLLUP_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}});
+
+        clickIngestionService.flush(List.of(click(2L), click(1L), click(2L)));
+
+        // Link 1 already had a row for the day, link 2 did not
+        ArgumentCaptor<Collection<Map.Entry<?, Long>>> insertCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_ROLLUP_SQL), insertCaptor.capture(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(insertCaptor.getValue()).singleElement()
+                .satisfies(entry -> assertThat(entry.getValue()).isEqualTo(2L));
+    }
+
+    @Test
+    void flush_DatabaseFailure_CountsFailedClicks() {
+        doThrow(new QueryTimeoutException("timeout"))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        clickIngestionService.flush(List.of(click(1L)));
+
+        assertThat(clickIngestionService.getFailedClicks()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stop_DrainsPendingClicks() throws InterruptedException {
+        runTransactionsInline();
+        rollupRowsExist();
+        ReflectionTestUtils.setField(clickIngestionService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(clickIngestionService, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(clickIngestionService, "shutdownTimeoutMs", 5_000L);
+        clickIngestionService.start();
+
+        clickIngestionService.record(click(1L));
+        clickIngestionService.record(click(1L));
+        clickIngestionService.stop();
+
+        ArgumentCaptor<Collection<ClickRecord>> clicksCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(eq(INSERT_CLICK_EVENT_SQL), clicksCaptor.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(clicksCaptor.getAllValues().stream().mapToInt(Collection::size).sum()).isEqualTo(2);
+        assertThat(clickIngestionService.getQueueDepth()).isZero();
+    }
+}
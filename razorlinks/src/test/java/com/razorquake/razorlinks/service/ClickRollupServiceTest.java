@@ -0,0 +1,98 @@
+package com.razorquake.razorlinks.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickRollupServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ClickRollupService clickRollupService;
+
+    @Test
+    void backfill_RebuildsDaysBeforeTodayAMonthPerTransaction() {
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        LocalDate earliest = LocalDate.of(2024, 1, 20);
+        when(jdbcTemplate.queryForObject("SELECT MIN(click_date) FROM click_events", Timestamp.class))
+                .thenReturn(Timestamp.valueOf(earliest.atTime(13, 45)));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM retention_log"), eq(Integer.class), any(LocalDate.class)))
+                .thenReturn(0);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.update(startsWith("INSERT INTO click_daily_rollup"), any(Timestamp.class), any(Timestamp.class)))
+                .thenReturn(7);
+
+        int rows = clickRollupService.backfill(today);
+
+        assertThat(rows).isEqualTo(21);
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(jdbcTemplate).update("DELETE FROM click_daily_rollup WHERE click_day >= ? AND click_day < ?",
+                earliest, LocalDate.of(2024, 2, 1));
+        verify(jdbcTemplate).update("DELETE FROM click_daily_rollup WHERE click_day >= ? AND click_day < ?",
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1));
+        verify(jdbcTemplate).update("DELETE FROM click_daily_rollup WHERE click_day >= ? AND click_day < ?",
+                LocalDate.of(2024, 3, 1), today);
+    }
+
+    @Test
+    void backfill_MonthInRetentionLog_KeepsItsRollups() {
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        when(jdbcTemplate.queryForObject("SELECT MIN(click_date) FROM click_events", Timestamp.class))
+                .thenReturn(Timestamp.valueOf(LocalDate.of(2024, 1, 20).atStartOfDay()));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM retention_log"), eq(Integer.class), any(LocalDate.class)))
+                .thenReturn(0);
+        // January was partly pruned, so its remaining raw events would undercount it
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM retention_log"), eq(Integer.class),
+                eq(LocalDate.of(2024, 1, 1)))).thenReturn(1);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+
+        clickRollupService.backfill(today);
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), eq(LocalDate.of(2024, 1, 20)), any(LocalDate.class));
+    }
+
+    @Test
+    void backfill_NoClickEvents_KeepsExistingRollups() {
+        when(jdbcTemplate.queryForObject("SELECT MIN(click_date) FROM click_events", Timestamp.class)).thenReturn(null);
+
+        assertThat(clickRollupService.backfill()).isZero();
+
+        verifyNoInteractions(transactionTemplate);
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(Object[].class));
+    }
+
+    @Test
+    void rebuild_ReplacesOnlyTheGivenDays() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 2, 1);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.update(startsWith("INSERT INTO click_daily_rollup"), any(Timestamp.class), any(Timestamp.class)))
+                .thenReturn(31);
+
+        assertThat(clickRollupService.rebuild(from, to)).isEqualTo(31);
+
+        verify(jdbcTemplate).update("DELETE FROM click_daily_rollup WHERE click_day >= ? AND click_day < ?", from, to);
+    }
+}
@@ -0,0 +1,92 @@
+package com.razorquake.razorlinks.service;
+
+import com.razorquake.razorlinks.dtos.AuditLogFilter;
+import com.razorquake.razorlinks.dtos.CursorPage;
+import com.razorquake.razorlinks.exception.InvalidCursorException;
+import com.razorquake.razorlinks.models.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPagingTest {
+
+    private static final Set<String> SORT_FIELDS = Set.of("timestamp", "action");
+    private final LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 30);
+
+    @Test
+    void buildSort_AddsIdAsTieBreakerInSameDirection() {
+        AuditLogFilter filter = new AuditLogFilter();
+        filter.setSortOrder("ASC");
+
+        Sort sort = CursorPaging.buildSort(filter, "timestamp", SORT_FIELDS);
+
+        assertThat(sort).containsExactly(Sort.Order.asc("timestamp"), Sort.Order.asc("id"));
+    }
+
+    @Test
+    void position_NoCursor_StartsAtTheBeginning() {
+        AuditLogFilter filter = new AuditLogFilter();
+        Sort sort = CursorPaging.buildSort(filter, "timestamp", SORT_FIELDS);
+
+        ScrollPosition position = CursorPaging.position(filter, sort, AuditLog.class);
+
+        assertThat(position.isInitial()).isTrue();
+    }
+
+    @Test
+    void position_IssuedCursor_RestoresTypedKeys() {
+        AuditLogFilter filter = new AuditLogFilter();
+        Sort sort = CursorPaging.buildSort(filter, "timestamp", SORT_FIELDS);
+        filter.setCursor(CursorPaging.encode(ScrollPosition.forward(Map.of("timestamp", timestamp, "id", 42L)), sort));
+
+        KeysetScrollPosition position = (KeysetScrollPosition) CursorPaging.position(filter, sort, AuditLog.class);
+
+        assertThat(position.getKeys()).isEqualTo(Map.of("timestamp", timestamp, "id", 42L));
+        assertThat(position.scrollsForward()).isTrue();
+    }
+
+    @Test
+    void position_CursorForDifferentSort_IsRejected() {
+        AuditLogFilter filter = new AuditLogFilter();
+        Sort timestampSort = CursorPaging.buildSort(filter, "timestamp", SORT_FIELDS);
+        filter.setCursor(CursorPaging.encode(ScrollPosition.forward(Map.of("timestamp", timestamp, "id", 42L)), timestampSort));
+        filter.setSortBy("action");
+        Sort actionSort = CursorPaging.buildSort(filter, "timestamp", SORT_FIELDS);
+
+        assertThatThrownBy(() -> CursorPaging.position(filter, actionSort, AuditLog.class))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void position_TamperedCursor_IsRejected() {
+        AuditLogFilter filter = new AuditLogFilter();
+        Sort sort = CursorPaging.buildSort(filter, "timestamp", SORT_FIELDS);
+        filter.setCursor("not a cursor");
+
+        assertThatThrownBy(() -> CursorPaging.position(filter, sort, AuditLog.class))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void toCursorPage_LastPage_HasNoNextCursor() {
+        Sort sort = CursorPaging.buildSort(new AuditLogFilter(), "timestamp", SORT_FIELDS);
+        Window<String> window = Window.from(List.of("a", "b"), index -> ScrollPosition.forward(Map.of("id", index)), false);
+
+        CursorPage<String> page = CursorPaging.toCursorPage(window, sort, Function.identity(), 2L);
+
+        assertThat(page.content()).containsExactly("a", "b");
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.totalElements()).isEqualTo(2L);
+    }
+}
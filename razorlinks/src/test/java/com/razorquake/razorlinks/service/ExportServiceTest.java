@@ -0,0 +1,96 @@
+package com.razorquake.razorlinks.service;
+
+import com.razorquake.razorlinks.dtos.ClickAnalyticsFilter;
+import com.razorquake.razorlinks.service.export.ExportFormat;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "fetchSize", 500);
+    }
+
+    @Test
+    void writeClickEvents_StreamsRowsThroughCursor() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(resultSet.getLong(1)).thenReturn(7L);
+        when(resultSet.getTimestamp(2)).thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 1, 2, 8, 15)));
+        doAnswer(invocation -> {
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        ClickAnalyticsFilter filter = new ClickAnalyticsFilter();
+        filter.setStartDate(start);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.writeClickEvents(42L, filter, ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,clickDate\r\n7,2024-01-02T08:15:00\r\n");
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sqlCaptor.capture());
+        assertThat(sqlCaptor.getValue()).isEqualTo("SELECT id, click_date FROM click_events " +
+                "WHERE url_mapping_id = ? AND click_date >= ? ORDER BY click_date ASC, id ASC");
+        verify(statement).setFetchSize(500);
+        verify(statement).setObject(1, 42L);
+        verify(statement).setObject(2, Timestamp.valueOf(start));
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void writeClickEvents_NoClicks_WritesOnlyHeader() throws Exception {
+        ClickAnalyticsFilter filter = new ClickAnalyticsFilter();
+        filter.setSortOrder("DESC");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.writeClickEvents(42L, filter, ExportFormat.NDJSON, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEmpty();
+        verify(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+}
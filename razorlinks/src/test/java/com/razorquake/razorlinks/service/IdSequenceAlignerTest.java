@@ -0,0 +1,67 @@
+package com.razorquake.razorlinks.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdSequenceAlignerTest {
+
+    private static final IdSequenceAligner.SequencedTable URL_MAPPING =
+            new IdSequenceAligner.SequencedTable("url_mapping", "url_mapping_seq", 50);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @InjectMocks
+    private IdSequenceAligner idSequenceAligner;
+
+    @Test
+    void align_EmptyTable_LeavesSequenceAlone() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM url_mapping", Long.class)).thenReturn(null);
+
+        idSequenceAligner.align("PostgreSQL", URL_MAPPING);
+
+        verify(jdbcTemplate, never()).queryForObject(startsWith("SELECT setval"), eq(Long.class), any());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void align_PostgreSql_SetsSequenceToMaxIdUnlessAlreadyPast() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM url_mapping", Long.class)).thenReturn(1234L);
+
+        idSequenceAligner.align("PostgreSQL", URL_MAPPING);
+
+        verify(jdbcTemplate).queryForObject(
+                "SELECT setval('url_mapping_seq', GREATEST(?, (SELECT last_value FROM url_mapping_seq)))",
+                Long.class, 1234L);
+    }
+
+    @Test
+    void align_MySql_MovesEmulatedSequencePastMaxIdPlusOneBlock() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM url_mapping", Long.class)).thenReturn(1234L);
+
+        idSequenceAligner.align("MySQL", URL_MAPPING);
+
+        verify(jdbcTemplate).update("UPDATE url_mapping_seq SET next_val = ? WHERE next_val < ?", 1284L, 1284L);
+    }
+
+    @Test
+    void align_UnsupportedDatabase_OnlyWarns() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM url_mapping", Long.class)).thenReturn(1234L);
+
+        idSequenceAligner.align("H2", URL_MAPPING);
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.razorquake.razorlinks.service;
+
+import com.razorquake.razorlinks.service.qr.QRCodeFormat;
+import com.razorquake.razorlinks.service.qr.QRCodeImage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QRCodeCacheTest {
+
+    @Mock
+    private QRCodeService qrCodeService;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private QRCodeCache qrCodeCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(qrCodeCache, "maximumBytes", 1024L);
+        ReflectionTestUtils.setField(qrCodeCache, "minSize", 100);
+        ReflectionTestUtils.setField(qrCodeCache, "maxSize", 1000);
+        ReflectionTestUtils.setField(qrCodeCache, "sizeStep", 50);
+        qrCodeCache.initCache();
+    }
+
+    @Test
+    void get_RepeatedRequest_RendersOnce() throws Exception {
+        when(qrCodeService.generateQRCode("abc12345", 300, QRCodeFormat.PNG)).thenReturn(new byte[]{1, 2, 3});
+
+        QRCodeImage first = qrCodeCache.get("abc12345", 300, QRCodeFormat.PNG);
+        QRCodeImage second = qrCodeCache.get("abc12345", 300, QRCodeFormat.PNG);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        verify(qrCodeService, times(1)).generateQRCode("abc12345", 300, QRCodeFormat.PNG);
+    }
+
+    @Test
+    void get_NearbySizes_ShareTheQuantizedImage() throws Exception {
+        when(qrCodeService.generateQRCode("abc12345", 300, QRCodeFormat.PNG)).thenReturn(new byte[]{1, 2, 3});
+
+        qrCodeCache.get("abc12345", 290, QRCodeFormat.PNG);
+        qrCodeCache.get("abc12345", 310, QRCodeFormat.PNG);
+
+        verify(qrCodeService, times(1)).generateQRCode("abc12345", 300, QRCodeFormat.PNG);
+    }
+
+    @Test
+    void get_FormatsAreCachedSeparately() throws Exception {
+        when(qrCodeService.generateQRCode("abc12345", 300, QRCodeFormat.PNG)).thenReturn(new byte[]{1});
+        when(qrCodeService.generateQRCode("abc12345", 300, QRCodeFormat.SVG)).thenReturn(new byte[]{2});
+
+        QRCodeImage png = qrCodeCache.get("abc12345", 300, QRCodeFormat.PNG);
+        QRCodeImage svg = qrCodeCache.get("abc12345", 300, QRCodeFormat.SVG);
+
+        assertThat(png.format()).isEqualTo(QRCodeFormat.PNG);
+        assertThat(svg.format()).isEqualTo(QRCodeFormat.SVG);
+        assertThat(png.etag()).isNotEqualTo(svg.etag());
+    }
+
+    @Test
+    void quantize_RoundsToStepAndCapsToBounds() {
+        assertThat(qrCodeCache.quantize(300)).isEqualTo(300);
+        assertThat(qrCodeCache.quantize(324)).isEqualTo(300);
+        assertThat(qrCodeCache.quantize(325)).isEqualTo(350);
+        assertThat(qrCodeCache.quantize(0)).isEqualTo(100);
+        assertThat(qrCodeCache.quantize(-100)).isEqualTo(100);
+        assertThat(qrCodeCache.quantize(100_000)).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,166 @@
+package com.razorquake.razorlinks.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionServiceTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 10);
+    private static final RetentionService.RetainedTable CLICK_EVENTS =
+            new RetentionService.RetainedTable("click_events", "click_date", null, 13, true);
+    private static final RetentionService.RetainedTable AUDIT_LOGS =
+            new RetentionService.RetainedTable("audit_logs", "timestamp", "action", 24, false);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ClickRollupService clickRollupService;
+
+    @InjectMocks
+    private RetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retentionService, "partitionsAhead", 2);
+        ReflectionTestUtils.setField(retentionService, "expiredPartitionAction", RetentionService.ExpiredPartitionAction.DROP);
+        ReflectionTestUtils.setField(retentionService, "deleteChunkSize", 10_000);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private void partitioned(String table, String... partitions) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM pg_partitioned_table"), eq(Integer.class), eq(table)))
+                .thenReturn(1);
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname FROM pg_inherits"), eq(String.class), eq(table)))
+                .thenReturn(List.of(partitions));
+    }
+
+    @Test
+    void applyRetention_Disabled_DoesNothing() {
+        retentionService.applyRetention();
+
+        verifyNoInteractions(jdbcTemplate, transactionTemplate, clickRollupService);
+    }
+
+    @Test
+    void apply_PartitionedTable_CreatesUpcomingPartitionsAndDropsExpiredOnes() {
+        runTransactionsInline();
+        partitioned("click_events", "click_events_p202408", "click_events_p202510", "click_events_default");
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM retention_log"), eq(Integer.class),
+                eq("click_events"), eq(LocalDate.of(2024, 8, 1)))).thenReturn(0);
+        when(jdbcTemplate.query(eq("SELECT 'ALL', COUNT(*) FROM click_events_p202408"), any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry("ALL", 42L)));
+
+        retentionService.apply("PostgreSQL", CLICK_EVENTS, CURRENT);
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS click_events_p202610 PARTITION OF click_events" +
+                " FOR VALUES FROM ('2026-10-01') TO ('2026-11-01')");
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS click_events_p202611 "));
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS click_events_p202612 "));
+        verify(clickRollupService).rebuild(LocalDate.of(2024, 8, 1), LocalDate.of(2024, 9, 1));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO retention_log"), eq("click_events"),
+                eq(LocalDate.of(2024, 8, 1)), eq("ALL"), eq(42L), eq("PARTITION_DROPPED"), any(Timestamp.class));
+        verify(jdbcTemplate).execute("DROP TABLE click_events_p202408");
+        verify(jdbcTemplate, never()).execute("DROP TABLE click_events_p202510");
+        verify(jdbcTemplate, never()).execute("DROP TABLE click_events_default");
+    }
+
+    @Test
+    void apply_DetachPolicy_DetachesExpiredPartitionAndSummarizesByAction() {
+        runTransactionsInline();
+        ReflectionTestUtils.setField(retentionService, "expiredPartitionAction", RetentionService.ExpiredPartitionAction.DETACH);
+        partitioned("audit_logs", "audit_logs_p202401");
+        when(jdbcTemplate.query(startsWith("SELECT COALESCE(action, 'UNKNOWN'), COUNT(*) FROM audit_logs_p202401"),
+                any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry("URL_CREATED", 5L), Map.entry("USER_LOGIN", 7L)));
+        when(jdbcTemplate.update(startsWith("UPDATE retention_log"), any(Object[].class))).thenReturn(1);
+
+        retentionService.apply("PostgreSQL", AUDIT_LOGS, CURRENT);
+
+        verify(jdbcTemplate).execute("ALTER TABLE audit_logs DETACH PARTITION audit_logs_p202401");
+        verify(jdbcTemplate).update(startsWith("UPDATE retention_log"), eq(5L), eq("PARTITION_DETACHED"),
+                any(Timestamp.class), eq("audit_logs"), eq(LocalDate.of(2024, 1, 1)), eq("URL_CREATED"));
+        verify(jdbcTemplate).update(startsWith("UPDATE retention_log"), eq(7L), eq("PARTITION_DETACHED"),
+                any(Timestamp.class), eq("audit_logs"), eq(LocalDate.of(2024, 1, 1)), eq("USER_LOGIN"));
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+        verifyNoInteractions(clickRollupService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void apply_UnpartitionedTable_DeletesExpiredMonthsInChunks() {
+        runTransactionsInline();
+        when(jdbcTemplate.queryForObject("SELECT MIN(click_date) FROM click_events", Timestamp.class))
+                .thenReturn(Timestamp.valueOf(LocalDateTime.of(2025, 8, 20, 9, 0)));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT MIN(id), MAX(id) FROM click_events"), any(RowMapper.class),
+                any(Object[].class)))
+                .thenReturn(new RetentionService.IdRange(1, 25_000));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM retention_log"), eq(Integer.class),
+                eq("click_events"), eq(LocalDate.of(2025, 8, 1)))).thenReturn(0);
+        when(jdbcTemplate.query(startsWith("SELECT 'ALL', COUNT(*) FROM click_events WHERE"), any(RowMapper.class),
+                any(Object[].class)))
+                .thenReturn(List.of(Map.entry("ALL", 10_000L)));
+        when(jdbcTemplate.update(startsWith("UPDATE retention_log"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("DELETE FROM click_events"), any(Object[].class))).thenReturn(10_000);
+
+        retentionService.apply("H2", CLICK_EVENTS, CURRENT);
+
+        // Only August 2025 is past the 13 month cutoff of September 2025
+        verify(clickRollupService).rebuild(LocalDate.of(2025, 8, 1), LocalDate.of(2025, 9, 1));
+        verify(jdbcTemplate, times(3)).update(eq("DELETE FROM click_events WHERE click_date >= ? AND click_date < ?" +
+                " AND id >= ? AND id < ?"), any(Object[].class));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM click_events"),
+                eq(Timestamp.valueOf(LocalDateTime.of(2025, 8, 1, 0, 0))),
+                eq(Timestamp.valueOf(LocalDateTime.of(2025, 9, 1, 0, 0))), eq(20_001L), eq(30_001L));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void apply_NothingExpired_DeletesNothing() {
+        when(jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs", Timestamp.class))
+                .thenReturn(Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0)));
+
+        retentionService.apply("MySQL", AUDIT_LOGS, CURRENT);
+
+        verifyNoInteractions(transactionTemplate);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void partitionMonth_ParsesOnlyPartitionsNamedByTheJob() {
+        assertThat(RetentionService.partitionMonth(CLICK_EVENTS, "click_events_p202402")).isEqualTo(YearMonth.of(2024, 2));
+        assertThat(RetentionService.partitionMonth(CLICK_EVENTS, RetentionService.partitionName(CLICK_EVENTS, CURRENT)))
+                .isEqualTo(CURRENT);
+        assertThat(RetentionService.partitionMonth(CLICK_EVENTS, "click_events_default")).isNull();
+        assertThat(RetentionService.partitionMonth(CLICK_EVENTS, "click_events_p2024xx")).isNull();
+        assertThat(RetentionService.partitionMonth(CLICK_EVENTS, "audit_logs_p202402")).isNull();
+    }
+}
@@ -0,0 +1,59 @@
+package com.razorquake.razorlinks.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SequenceIdAllocatorTest {
+
+    @Test
+    void nextIds_H2_HandsOutConsecutiveBlocksOfTheMigratedSequence() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:sequence-ids;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        SequenceIdAllocator allocator = new SequenceIdAllocator(new JdbcTemplate(dataSource));
+
+        // Sequence values 50, 100 and 150 stand for ids 1-50, 51-100 and 101-150
+        assertThat(allocator.nextIds(IdSequenceAligner.CLICK_EVENTS, 120))
+                .containsExactly(LongStream.rangeClosed(1, 120).toArray());
+        // The unused rest of a block is skipped rather than handed out again
+        assertThat(allocator.nextIds(IdSequenceAligner.CLICK_EVENTS, 2)).containsExactly(151, 152);
+        assertThat(allocator.nextIds(IdSequenceAligner.AUDIT_LOGS, 1)).containsExactly(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nextIds_PostgreSql_TakesOneSequenceValuePerBlock() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForList("SELECT nextval('audit_logs_seq') FROM generate_series(1, ?)", Long.class, 2))
+                .thenReturn(List.of(1050L, 1100L));
+        SequenceIdAllocator allocator = new SequenceIdAllocator(jdbcTemplate);
+
+        long[] ids = allocator.nextIds(IdSequenceAligner.AUDIT_LOGS, 60);
+
+        assertThat(ids).hasSize(60);
+        assertThat(ids[0]).isEqualTo(1001);
+        assertThat(ids[49]).isEqualTo(1050);
+        assertThat(ids[50]).isEqualTo(1051);
+        assertThat(ids[59]).isEqualTo(1060);
+    }
+
+    @Test
+    void nextIds_NoRows_DoesNotTouchTheSequence() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+        assertThat(new SequenceIdAllocator(jdbcTemplate).nextIds(IdSequenceAligner.CLICK_EVENTS, 0)).isEmpty();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -1,23 +1,29 @@
 package com.razorquake.razorlinks.service;
 
 import com.razorquake.razorlinks.dtos.*;
-import com.razorquake.razorlinks.models.ClickEvent;
+import com.razorquake.razorlinks.exception.ShortCodeGenerationException;
 import com.razorquake.razorlinks.models.UrlMapping;
 import com.razorquake.razorlinks.models.User;
+import com.razorquake.razorlinks.repository.ClickDailyRollupRepository;
 import com.razorquake.razorlinks.repository.ClickEventRepository;
 import com.razorquake.razorlinks.repository.UrlMappingRepository;
+import com.razorquake.razorlinks.service.bulk.LinkDeletionService;
+import com.razorquake.razorlinks.service.shortcode.ShortCodeGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -27,6 +33,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -61,12 +68,27 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
     @Mock
     private ClickEventRepository clickEventRepository;
 
+    @Mock
+    private ClickDailyRollupRepository clickDailyRollupRepository;
+
     @Mock
     private UrlRedirectLookupService urlRedirectLookupService;
 
     @Mock
     private AuditLogService auditLogService;
 
+    @Mock
+    private ClickIngestionService clickIngestionService;
+
+    @Mock
+    private LinkDeletionService linkDeletionService;
+
+    @Mock
+    private ClickCounterService clickCounterService;
+
+    @Mock
+    private ShortCodeGenerator shortCodeGenerator;
+
     /**
      * 🎯 @InjectMocks creates the REAL service we're testing
      * and INJECTS the mocks into it automatically!
@@ -116,6 +138,7 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
 
         // 🎭 MOCK: Tell the repository what to return when save() is called
         // "When someone calls save() with ANY UrlMapping, return testUrlMapping"
+        when(shortCodeGenerator.generate()).thenReturn("abc12345");
         when(urlMappingRepository.save(any(UrlMapping.class)))
                 .thenReturn(testUrlMapping);
 
@@ -141,25 +164,56 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
     }
 
     /**
-     * TEST 2: Getting original URL and incrementing click count
-     * This test shows HOW POWERFUL mocking is!
+     * TEST 1b: Creating a short URL when the code was taken concurrently
      */
     @Test
-    void getOriginalUrl_ValidShortLink_IncrementsClickCount() {
+    void createShortUrl_DuplicateCode_RetriesWithNewCode() {
         // ====== ARRANGE ======
-        String shortUrl = "abc12345";
+        when(shortCodeGenerator.generate()).thenReturn("taken123", "abc12345");
+        when(urlMappingRepository.save(any(UrlMapping.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate shortUrl"))
+                .thenReturn(testUrlMapping);
 
-        // 🎭 MOCK: Tell repository what to return
-        when(clickEventRepository.save(any(ClickEvent.class)))
-                .thenReturn(new ClickEvent());
-        when(urlRedirectLookupService.resolve(shortUrl))
-                .thenReturn(testUrlRedirectCache);
-        when(urlMappingRepository.getReferenceById(testUrlMapping.getId()))
-                        .thenReturn(testUrlMapping);
+        // ====== ACT ======
+        UrlMappingDTO result = urlMappingService.createShortUrl("https://example.com", testUser);
 
+        // ====== ASSERT ======
+        assertThat(result.getShortUrl()).isEqualTo("abc12345");
+        ArgumentCaptor<UrlMapping> mappingCaptor = ArgumentCaptor.forClass(UrlMapping.class);
+        verify(urlMappingRepository, times(2)).save(mappingCaptor.capture());
+        assertThat(mappingCaptor.getAllValues().get(1).getShortUrl()).isEqualTo("abc12345");
+        verify(auditLogService, times(1)).shortURLCreated(testUrlMapping);
+    }
 
+    /**
+     * TEST 1c: Creating a short URL gives up after repeated duplicates
+     */
+    @Test
+    void createShortUrl_RepeatedDuplicates_ThrowsShortCodeGenerationException() {
+        // ====== ARRANGE ======
+        when(shortCodeGenerator.generate()).thenReturn("taken123");
+        when(urlMappingRepository.save(any(UrlMapping.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate shortUrl"));
 
-        System.out.println("🎭 Initial click count: " + testUrlMapping.getClickCount());
+        // ====== ACT & ASSERT ======
+        assertThatThrownBy(() -> urlMappingService.createShortUrl("https://example.com", testUser))
+                .isInstanceOf(ShortCodeGenerationException.class);
+        verify(urlMappingRepository, times(3)).save(any(UrlMapping.class));
+        verifyNoInteractions(auditLogService);
+    }
+
+    /**
+     * TEST 2: Getting original URL hands the click to the ingestion pipeline
+     * The redirect itself must not touch the database at all!
+     */
+    @Test
+    void getOriginalUrl_ValidShortLink_RecordsClick() {
+        // ====== ARRANGE ======
+        String shortUrl = "abc12345";
+
+        // 🎭 MOCK: Tell the lookup service what to return
+        when(urlRedirectLookupService.resolve(shortUrl))
+                .thenReturn(testUrlRedirectCache);
 
         // ====== ACT ======
         String result = urlMappingService.getOriginalUrl(shortUrl);
@@ -168,25 +222,21 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
         assertThat(result).isNotNull();
         assertThat(result).isEqualTo("https://example.com");
 
-        // 🎯 IMPORTANT: Check the click count was incremented!
-        // We use ArgumentCaptor to "capture" what was passed to save()
-        verify(urlMappingRepository).incrementClickCount(testUrlMapping.getId());
-        verify(urlMappingRepository).getReferenceById(testUrlMapping.getId());
-
-        System.out.println("✅ Click count after redirect: " + testUrlMapping.getClickCount());
-
-        // Verify a click event was created
-        verify(clickEventRepository, times(1)).save(any(ClickEvent.class));
-        System.out.println("✅ Click event was created");
-
-        // Verify audit Log
-        verify(auditLogService).shortURLClicked(
-                eq(testUrlMapping.getId()),
-                eq(testUrlMapping.getShortUrl()),
-                eq(testUser.getUsername()),
-                any(LocalDateTime.class)
-        );
-        System.out.println("✅ Audit log for click was created");
+        // 🎯 IMPORTANT: Check the click was queued with the cached redirect data
+        ArgumentCaptor<ClickRecord> clickCaptor = ArgumentCaptor.forClass(ClickRecord.class);
+        verify(clickIngestionService).record(clickCaptor.capture());
+
+        ClickRecord click = clickCaptor.getValue();
+        assertThat(click.urlMappingId()).isEqualTo(testUrlMapping.getId());
+        assertThat(click.shortUrl()).isEqualTo(testUrlMapping.getShortUrl());
+        assertThat(click.username()).isEqualTo(testUser.getUsername());
+        assertThat(click.clickDate()).isNotNull();
+        verify(clickCounterService).increment(testUrlMapping.getId());
+        System.out.println("✅ Click was queued for ingestion and counted");
+
+        // 🔍 VERIFY: No synchronous writes on the redirect path
+        verifyNoInteractions(urlMappingRepository, clickEventRepository, auditLogService);
+        System.out.println("✅ No database writes during the redirect");
     }
 
     /**
@@ -198,11 +248,11 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
         // ====== ARRANGE ======
         String invalidShortUrl = "invalid123";
 
-        // 🎭 MOCK: Tell repository to return null (URL not found)
+        // 🎭 MOCK: Tell the lookup service to return null (URL not found)
         when(urlRedirectLookupService.resolve(invalidShortUrl))
                 .thenReturn(null);
 
-        System.out.println("🎭 Mocked repository to return null for: " + invalidShortUrl);
+        System.out.println("🎭 Mocked lookup to return null for: " + invalidShortUrl);
 
         // ====== ACT ======
         String result = urlMappingService.getOriginalUrl(invalidShortUrl);
@@ -212,11 +262,11 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
 
         System.out.println("✅ Result is null (expected)");
 
-        // 🔍 VERIFY: Save should NEVER be called if URL wasn't found
-        verify(urlMappingRepository, never()).incrementClickCount(any(Long.class));
-        verify(clickEventRepository, never()).save(any(ClickEvent.class));
+        // 🔍 VERIFY: No click should be recorded if URL wasn't found
+        verify(clickIngestionService, never()).record(any(ClickRecord.class));
+        verifyNoInteractions(clickCounterService);
 
-        System.out.println("✅ Verified save() was NEVER called (correct!)");
+        System.out.println("✅ Verified no click was recorded (correct!)");
     }
 
     /**
@@ -256,78 +306,31 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
     }
 
     /**
-     * TEST 5: Deleting URL mapping - user OWNS the URL
-     */
-    @Test
-    void deleteUrlMapping_UserOwnsUrl_DeletesSuccessfully() {
-        // ====== ARRANGE ======
-        String shortUrl = "abc12345";
-
-        when(urlMappingRepository.findByShortUrl(shortUrl))
-                .thenReturn(testUrlMapping);
-        when(clickEventRepository.findByUrlMapping(testUrlMapping))
-                .thenReturn(List.of());
-
-        System.out.println("🎭 User " + testUser.getUsername() + " trying to delete " + shortUrl);
-
-        // ====== ACT ======
-        urlMappingService.deleteUrlMapping(shortUrl, testUser);
-
-        // ====== ASSERT ======
-        verify(urlMappingRepository, times(1)).delete(testUrlMapping);
-        verify(auditLogService, times(1)).shortURLDeleted(testUrlMapping);
-
-        System.out.println("✅ URL was deleted successfully");
-        System.out.println("✅ Audit log was created");
-    }
-
-    /**
-     * TEST 6: Deleting URL mapping - user DOES NOT own the URL
-     * This is a SECURITY test! Very important!
+     * TEST 5: Deleting URL mapping - handed to LinkDeletionService
+     * Ownership, not-found and the click cleanup are covered in LinkDeletionServiceTest
      */
     @Test
-    void deleteUrlMapping_UserDoesNotOwnUrl_DoesNotDelete() {
-        // ====== ARRANGE ======
-        String shortUrl = "abc12345";
-
-        // Create a DIFFERENT user
-        User differentUser = new User();
-        differentUser.setId(2L);
-        differentUser.setUsername("hacker");
-
-        when(urlMappingRepository.findByShortUrl(shortUrl))
-                .thenReturn(testUrlMapping); // Belongs to testUser, not differentUser
-
-        System.out.println("🎭 User 'hacker' trying to delete testuser's URL!");
-
+    void deleteUrlMapping_DelegatesToLinkDeletionService() {
         // ====== ACT ======
-        urlMappingService.deleteUrlMapping(shortUrl, differentUser);
+        urlMappingService.deleteUrlMapping("abc12345", testUser);
 
         // ====== ASSERT ======
-        // 🔒 SECURITY: Delete should NEVER be called!
+        verify(linkDeletionService, times(1)).delete(List.of("abc12345"), testUser);
         verify(urlMappingRepository, never()).delete(any(UrlMapping.class));
-        verify(auditLogService, never()).shortURLDeleted(any(UrlMapping.class));
-
-        System.out.println("✅ Delete was BLOCKED (security works!)");
-        System.out.println("✅ Audit log was NOT created (correct!)");
     }
 
     /**
-     * TEST 7: Delete URL mapping - not found
+     * TEST 6: A link that is being purged has no owner any more
      */
     @Test
-    void deleteUrlMapping_UrlNotFound_DoesNothing() {
+    void findOwnedUrlMapping_DetachedLink_ReturnsNull() {
         // ====== ARRANGE ======
-        when(urlMappingRepository.findByShortUrl("missing"))
-                .thenReturn(null);
-
-        // ====== ACT ======
-        urlMappingService.deleteUrlMapping("missing", testUser);
+        testUrlMapping.setUser(null);
+        when(urlMappingRepository.findByShortUrl("deleting:1"))
+                .thenReturn(testUrlMapping);
 
-        // ====== ASSERT ======
-        verify(urlMappingRepository, never()).delete(any(UrlMapping.class));
-        verify(clickEventRepository, never()).deleteAll(any());
-        verify(auditLogService, never()).shortURLDeleted(any(UrlMapping.class));
+        // ====== ACT & ASSERT ======
+        assertThat(urlMappingService.findOwnedUrlMapping("deleting:1", testUser)).isNull();
     }
 
     /**
@@ -345,40 +348,33 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
 
         // ====== ASSERT ======
         assertThat(result.getContent().isEmpty()).isTrue();
-        verify(clickEventRepository, never()).findByUrlMappingAndClickDateBetween(any(), any(), any());
+        verifyNoInteractions(clickEventRepository, clickDailyRollupRepository);
     }
 
     /**
-     * TEST 9: Get click events by date - grouped results
+     * TEST 9: Get click events by date - grouped in SQL from raw click events
      */
     @Test
-    void getClickEventByDate_ValidUrl_GroupsByDate() {
+    void getClickEventByDate_RawSource_UsesGroupedProjectionQuery() {
         // ====== ARRANGE ======
+        ReflectionTestUtils.setField(urlMappingService, "clickAnalyticsSource", "raw");
         ClickAnalyticsFilter filter = new ClickAnalyticsFilter();
         filter.setStartDate(LocalDateTime.of(2024, 1, 1, 0, 0));
         filter.setEndDate(LocalDateTime.of(2024, 1, 3, 0, 0));
         filter.setSortBy("clickDate");
         filter.setSortOrder("ASC");
 
-        ClickEvent event1 = new ClickEvent();
-        event1.setUrlMapping(testUrlMapping);
-        event1.setClickDate(LocalDateTime.of(2024, 1, 1, 10, 0));
-
-        ClickEvent event2 = new ClickEvent();
-        event2.setUrlMapping(testUrlMapping);
-        event2.setClickDate(LocalDateTime.of(2024, 1, 1, 12, 0));
-
-        ClickEvent event3 = new ClickEvent();
-        event3.setUrlMapping(testUrlMapping);
-        event3.setClickDate(LocalDateTime.of(2024, 1, 2, 9, 30));
-
         when(urlMappingRepository.findByShortUrl(testUrlMapping.getShortUrl()))
                 .thenReturn(testUrlMapping);
-        when(clickEventRepository.findByUrlMappingAndClickDateBetween(
+        when(clickEventRepository.findDailyClicks(
                 eq(testUrlMapping),
                 any(LocalDateTime.class),
-                any(LocalDateTime.class))
-        ).thenReturn(List.of(event1, event2, event3));
+                any(LocalDateTime.class),
+                any(Pageable.class))
+        ).thenReturn(new PageImpl<>(List.of(
+                dailyClickCount(LocalDate.of(2024, 1, 1), 2),
+                dailyClickCount(LocalDate.of(2024, 1, 2), 1)
+        )));
 
         // ====== ACT ======
         Page<ClickEventDTO> result = urlMappingService.getClickEventByDate(testUrlMapping.getShortUrl(), filter);
@@ -392,36 +388,38 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
 
         assertThat(counts.get(LocalDate.of(2024, 1, 1))).isEqualTo(2L);
         assertThat(counts.get(LocalDate.of(2024, 1, 2))).isEqualTo(1L);
+
+        // 🔍 VERIFY: The end of the range is exclusive, one second after the inclusive filter end
+        verify(clickEventRepository).findDailyClicks(
+                eq(testUrlMapping),
+                eq(LocalDateTime.of(2024, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2024, 1, 3, 0, 0, 1)),
+                any(Pageable.class)
+        );
     }
 
     /**
-     * TEST 10: Get total clicks by user and date range
+     * TEST 10: Get total clicks by user and date range - grouped in SQL from raw click events
      */
     @Test
-    void getTotalClicksByUserAndDate_ReturnsPagedCounts() {
+    void getTotalClicksByUserAndDate_RawSource_ReturnsPagedCounts() {
         // ====== ARRANGE ======
+        ReflectionTestUtils.setField(urlMappingService, "clickAnalyticsSource", "raw");
         ClickAnalyticsFilter filter = new ClickAnalyticsFilter();
         filter.setStartDate(LocalDateTime.of(2024, 1, 5, 0, 0));
         filter.setEndDate(LocalDateTime.of(2024, 1, 6, 23, 59, 59));
+        filter.setSortBy("count");
+        filter.setSortOrder("DESC");
 
-        ClickEvent event1 = new ClickEvent();
-        event1.setUrlMapping(testUrlMapping);
-        event1.setClickDate(LocalDateTime.of(2024, 1, 5, 10, 0));
-
-        ClickEvent event2 = new ClickEvent();
-        event2.setUrlMapping(testUrlMapping);
-        event2.setClickDate(LocalDateTime.of(2024, 1, 5, 12, 0));
-
-        ClickEvent event3 = new ClickEvent();
-        event3.setUrlMapping(testUrlMapping);
-        event3.setClickDate(LocalDateTime.of(2024, 1, 6, 9, 0));
-
-        when(urlMappingRepository.findByUser(testUser)).thenReturn(List.of(testUrlMapping));
-        when(clickEventRepository.findByUrlMappingInAndClickDateBetween(
-                eq(List.of(testUrlMapping)),
+        when(clickEventRepository.findDailyClicksByUser(
+                eq(testUser),
                 any(LocalDateTime.class),
-                any(LocalDateTime.class))
-        ).thenReturn(List.of(event1, event2, event3));
+                any(LocalDateTime.class),
+                any(Pageable.class))
+        ).thenReturn(new PageImpl<>(List.of(
+                dailyClickCount(LocalDate.of(2024, 1, 5), 2),
+                dailyClickCount(LocalDate.of(2024, 1, 6), 1)
+        )));
 
         // ====== ACT ======
         Page<ClickEventDTO> result = urlMappingService.getTotalClicksByUserAndDate(testUser, filter);
@@ -432,6 +430,92 @@ public class UrlMappingServiceTest {    // 🔑 This enables Mockito magic!
 
         assertThat(counts.get(LocalDate.of(2024, 1, 5))).isEqualTo(2L);
         assertThat(counts.get(LocalDate.of(2024, 1, 6))).isEqualTo(1L);
+
+        // 🔍 VERIFY: Sorting and paging are pushed down, no link list is loaded first
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(clickEventRepository).findDailyClicksByUser(eq(testUser), any(), any(), pageableCaptor.capture());
+        assertThat(pageableCaptor.getValue().getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "clickCount").and(Sort.by(Sort.Direction.DESC, "clickDate")));
+        verifyNoInteractions(urlMappingRepository);
+    }
+
+    private DailyClickCount dailyClickCount(LocalDate clickDate, long clickCount) {
+        return new DailyClickCount() {
+            @Override
+            public LocalDate getClickDate() {
+                return clickDate;
+            }
+
+            @Override
+            public Long getClickCount() {
+                return clickCount;
+            }
+        };
+    }
+
+    /**
+     * TEST 11: Get click events by date from the daily rollup table
+     */
+    @Test
+    void getClickEventByDate_RollupSource_ReadsPagedRollups() {
+        // ====== ARRANGE ======
+        ClickAnalyticsFilter filter = new ClickAnalyticsFilter();
+        filter.setStartDate(LocalDateTime.of(2024, 1, 1, 10, 0));
+        filter.setEndDate(LocalDateTime.of(2024, 1, 3, 8, 0));
+        filter.setSortBy("count");
+        filter.setSortOrder("DESC");
+
+        when(urlMappingRepository.findByShortUrl(testUrlMapping.getShortUrl()))
+                .thenReturn(testUrlMapping);
+        when(clickDailyRollupRepository.findDailyClicks(eq(testUrlMapping), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(
+                        dailyClickCount(LocalDate.of(2024, 1, 2), 5),
+                        dailyClickCount(LocalDate.of(2024, 1, 1), 2)
+                )));
+
+        // ====== ACT ======
+        Page<ClickEventDTO> result = urlMappingService.getClickEventByDate(testUrlMapping.getShortUrl(), filter);
+
+        // ====== ASSERT ======
+        assertThat(result.getContent().size()).isEqualTo(2);
+        assertThat(result.getContent().get(0).getClickDate()).isEqualTo(LocalDate.of(2024, 1, 2));
+        assertThat(result.getContent().get(0).getCount()).isEqualTo(5L);
+
+        // 🔍 VERIFY: Timestamps are widened to whole days and "count" maps to the projection alias
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(clickDailyRollupRepository).findDailyClicks(
+                eq(testUrlMapping),
+                eq(LocalDate.of(2024, 1, 1)),
+                eq(LocalDate.of(2024, 1, 3)),
+                pageableCaptor.capture()
+        );
+        assertThat(pageableCaptor.getValue().getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "clickCount").and(Sort.by(Sort.Direction.DESC, "clickDate")));
+        verifyNoInteractions(clickEventRepository);
+    }
+
+    /**
+     * TEST 12: Get total clicks by user from the daily rollup table
+     */
+    @Test
+    void getTotalClicksByUserAndDate_RollupSource_ReadsPagedRollups() {
+        // ====== ARRANGE ======
+        ClickAnalyticsFilter filter = new ClickAnalyticsFilter();
+
+        when(clickDailyRollupRepository.findDailyClicksByUser(eq(testUser), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(dailyClickCount(LocalDate.of(2024, 1, 5), 3))));
+
+        // ====== ACT ======
+        Page<ClickEventDTO> result = urlMappingService.getTotalClicksByUserAndDate(testUser, filter);
+
+        // ====== ASSERT ======
+        assertThat(result.getContent().size()).isEqualTo(1);
+        assertThat(result.getContent().get(0).getCount()).isEqualTo(3L);
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(clickDailyRollupRepository).findDailyClicksByUser(eq(testUser), any(), any(), pageableCaptor.capture());
+        assertThat(pageableCaptor.getValue().getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "clickDate"));
+        verifyNoInteractions(clickEventRepository, urlMappingRepository);
     }
 }
 
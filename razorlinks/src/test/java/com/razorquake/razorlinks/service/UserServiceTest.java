@@ -16,6 +16,7 @@ import com.razorquake.razorlinks.repository.UserRepository;
 import com.razorquake.razorlinks.security.jwt.JwtAuthenticationResponse;
 import com.razorquake.razorlinks.security.jwt.JwtUtils;
 import com.razorquake.razorlinks.security.service.UserDetailsImpl;
+import com.razorquake.razorlinks.security.service.UserStatusCache;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -80,6 +81,9 @@ public class UserServiceTest {
     @Mock
     private EmailVerificationService emailVerificationService;
 
+    @Mock
+    private UserStatusCache userStatusCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -465,6 +469,7 @@ public class UserServiceTest {
 
         User savedUser = userCaptor.getValue();
         assertThat(savedUser.isAccountNonLocked()).isFalse();  // Lock=true means NonLocked=false
+        verify(userStatusCache).invalidate(savedUser.getUsername());  // Next request sees the lock
 
         System.out.println("✅ Account locked successfully");
     }
@@ -650,6 +655,7 @@ public class UserServiceTest {
 
         User savedUser = userCaptor.getValue();
         assertThat(savedUser.isEnabled()).isFalse();
+        verify(userStatusCache).invalidate(savedUser.getUsername());
 
         System.out.println("✅ Account enabled status updated");
     }
@@ -0,0 +1,184 @@
+package com.razorquake.razorlinks.service.audit;
+
+import com.razorquake.razorlinks.models.AuditLog;
+import com.razorquake.razorlinks.service.BatchingWriter;
+import com.razorquake.razorlinks.service.SequenceIdAllocator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BufferedAuditSinkTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SequenceIdAllocator idAllocator;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BufferedAuditSink auditSink;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        auditSink = new BufferedAuditSink(jdbcTemplate, idAllocator, meterRegistry);
+        // Hands out ids 1, 2, 3, ... for every batch
+        lenient().when(idAllocator.nextIds(any(), anyInt()))
+                .thenAnswer(invocation -> LongStream.rangeClosed(1, invocation.<Integer>getArgument(1)).toArray());
+        ReflectionTestUtils.setField(auditSink, "queueCapacity", 10);
+        ReflectionTestUtils.setField(auditSink, "batchSize", 2);
+        ReflectionTestUtils.setField(auditSink, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(auditSink, "shutdownTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(auditSink, "overflowPolicy", BufferedAuditSink.OverflowPolicy.DROP);
+    }
+
+    @Test
+    void insertSql_BuildsOneRowGroupPerRecord() {
+        assertThat(BufferedAuditSink.insertSql(2)).isEqualTo(
+                "INSERT INTO audit_logs (id, action, username, url_mapping_id, short_url, timestamp) VALUES "
+                        + "(?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?)");
+    }
+
+    @Test
+    void flush_WritesBatchAsSingleMultiRowInsert() throws Exception {
+        ReflectionTestUtils.setField(auditSink, "fullBatchSql", BufferedAuditSink.insertSql(2));
+        List<AuditLog> batch = List.of(
+                auditLog("SHORT_URL_CREATED", 10L),
+                auditLog("SHORT_URL_DELETED", null)
+        );
+
+        auditSink.flush(batch);
+
+        ArgumentCaptor<PreparedStatementSetter> setter = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).update(eq(BufferedAuditSink.insertSql(2)), setter.capture());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps);
+        verify(ps).setLong(1, 1L);
+        verify(ps).setString(2, "SHORT_URL_CREATED");
+        verify(ps).setString(3, "testuser");
+        verify(ps).setObject(4, 10L, Types.BIGINT);
+        verify(ps).setString(5, "abc123");
+        verify(ps).setTimestamp(6, Timestamp.valueOf(now));
+        verify(ps).setLong(7, 2L);
+        verify(ps).setString(8, "SHORT_URL_DELETED");
+        verify(ps).setObject(10, null, Types.BIGINT);
+    }
+
+    @Test
+    void flush_DatabaseFailure_CountsFailedRecords() {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        auditSink.flush(List.of(auditLog("SHORT_URL_CREATED", 10L)));
+
+        assertThat(auditSink.getFailedRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void write_QueueFullWithDropPolicy_DropsRecord() {
+        useQueueWithoutWriter(1);
+
+        auditSink.write(auditLog("SHORT_URL_CREATED", 10L));
+        auditSink.write(auditLog("SHORT_URL_CREATED", 11L));
+
+        assertThat(auditSink.getQueueDepth()).isEqualTo(1);
+        assertThat(auditSink.getDroppedRecords()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void write_QueueFullWithCallerRunsPolicy_WritesOnCallingThread() {
+        useQueueWithoutWriter(1);
+        ReflectionTestUtils.setField(auditSink, "overflowPolicy", BufferedAuditSink.OverflowPolicy.CALLER_RUNS);
+
+        auditSink.write(auditLog("SHORT_URL_CREATED", 10L));
+        auditSink.write(auditLog("SHORT_URL_CREATED", 11L));
+
+        assertThat(auditSink.getDroppedRecords()).isZero();
+        verify(jdbcTemplate).update(eq(BufferedAuditSink.insertSql(1)), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void writeAll_WritesOnCallingThreadInFullBatches() {
+        useQueueWithoutWriter(10);
+        ReflectionTestUtils.setField(auditSink, "fullBatchSql", BufferedAuditSink.insertSql(2));
+
+        auditSink.writeAll(List.of(
+                auditLog("SHORT_URL_CREATED", 10L),
+                auditLog("SHORT_URL_CREATED", 11L),
+                auditLog("SHORT_URL_CREATED", 12L)
+        ));
+
+        assertThat(auditSink.getQueueDepth()).isZero();
+        verify(jdbcTemplate).update(eq(BufferedAuditSink.insertSql(2)), any(PreparedStatementSetter.class));
+        verify(jdbcTemplate).update(eq(BufferedAuditSink.insertSql(1)), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void stop_FlushesEverythingWrittenBeforeShutdown() throws Exception {
+        auditSink.start();
+
+        for (int i = 0; i < 5; i++) {
+            auditSink.write(auditLog("SHORT_URL_CREATED", (long) i));
+        }
+        auditSink.stop();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).update(sql.capture(), any(PreparedStatementSetter.class));
+        int rows = sql.getAllValues().stream()
+                .mapToInt(statement -> statement.split("\\(\\?").length - 1)
+                .sum();
+        assertThat(rows).isEqualTo(5);
+        assertThat(auditSink.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void start_RegistersQueueAndDropMetrics() throws Exception {
+        auditSink.start();
+        try {
+            assertThat(meterRegistry.get("razorlinks.audit.queue.depth").gauge().value()).isZero();
+            assertThat(meterRegistry.get("razorlinks.audit.dropped").functionCounter().count()).isZero();
+            assertThat(meterRegistry.get("razorlinks.audit.failed").functionCounter().count()).isZero();
+        } finally {
+            auditSink.stop();
+        }
+    }
+
+    private void useQueueWithoutWriter(int capacity) {
+        ReflectionTestUtils.setField(auditSink, "writer",
+                new BatchingWriter<AuditLog>(capacity, 2, 60_000L, auditSink::flush));
+    }
+
+    private AuditLog auditLog(String action, Long urlMappingId) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setAction(action);
+        auditLog.setUsername("testuser");
+        auditLog.setUrlMappingId(urlMappingId);
+        auditLog.setShortUrl("abc123");
+        auditLog.setTimestamp(now);
+        return auditLog;
+    }
+}
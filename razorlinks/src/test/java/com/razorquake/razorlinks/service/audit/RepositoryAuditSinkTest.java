@@ -0,0 +1,42 @@
+package com.razorquake.razorlinks.service.audit;
+
+import com.razorquake.razorlinks.models.AuditLog;
+import com.razorquake.razorlinks.repository.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryAuditSinkTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @InjectMocks
+    private RepositoryAuditSink auditSink;
+
+    @Test
+    void write_SavesRecordImmediately() {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setAction("SHORT_URL_CREATED");
+
+        auditSink.write(auditLog);
+
+        verify(auditLogRepository).save(auditLog);
+    }
+
+    @Test
+    void writeAll_SavesRecordsTogether() {
+        List<AuditLog> auditLogs = List.of(new AuditLog(), new AuditLog());
+
+        auditSink.writeAll(auditLogs);
+
+        verify(auditLogRepository).saveAll(auditLogs);
+    }
+}
@@ -0,0 +1,59 @@
+package com.razorquake.razorlinks.service.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkShortenInputTest {
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> readAll(Iterator<String> urls) {
+        List<String> result = new ArrayList<>();
+        urls.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    void json_StringsAndObjects_ReadsEachUrl() {
+        Iterator<String> urls = BulkShortenInput.json(body(
+                "[\"https://a.example\", {\"originalUrl\": \"https://b.example\"}, {\"other\": 1}]"));
+
+        assertThat(readAll(urls)).containsExactly("https://a.example", "https://b.example", null);
+    }
+
+    @Test
+    void json_MalformedSecondElement_ThrowsWhenReached() {
+        Iterator<String> urls = BulkShortenInput.json(body("[\"https://a.example\", {\"originalUrl\": ]"));
+
+        assertThat(urls.next()).isEqualTo("https://a.example");
+        assertThatThrownBy(urls::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Malformed JSON input");
+    }
+
+    @Test
+    void csv_SkipsByteOrderMarkHeaderAndBlankLines() {
+        Iterator<String> urls = BulkShortenInput.csv(body(
+                "\uFEFForiginalUrl\r\nhttps://a.example\r\n\r\n\"https://b.example/?q=1,2\"\r\n"));
+
+        assertThat(readAll(urls)).containsExactly("https://a.example", "https://b.example/?q=1,2");
+    }
+
+    @Test
+    void csv_WithoutHeader_ReadsFirstLine() {
+        Iterator<String> urls = BulkShortenInput.csv(body("https://a.example\nhttps://b.example"));
+
+        assertThat(readAll(urls)).containsExactly("https://a.example", "https://b.example");
+    }
+}
@@ -0,0 +1,197 @@
+package com.razorquake.razorlinks.service.bulk;
+
+import com.razorquake.razorlinks.models.UrlMapping;
+import com.razorquake.razorlinks.models.User;
+import com.razorquake.razorlinks.repository.UrlMappingRepository;
+import com.razorquake.razorlinks.service.AuditLogService;
+import com.razorquake.razorlinks.service.export.ExportFormat;
+import com.razorquake.razorlinks.service.export.ExportWriter;
+import com.razorquake.razorlinks.service.shortcode.ShortCodeGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BulkShortenServiceTest {
+
+    @Mock
+    private UrlMappingRepository urlMappingRepository;
+
+    @Mock
+    private ShortCodeGenerator shortCodeGenerator;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BulkShortenService bulkShortenService;
+
+    private final AtomicInteger codes = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private User user;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(bulkShortenService, "chunkSize", 2);
+        ReflectionTestUtils.setField(bulkShortenService, "maxLinks", 100);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("marketing");
+
+        when(shortCodeGenerator.generateBatch(anyInt())).thenAnswer(invocation -> {
+            List<String> batch = new ArrayList<>();
+            for (int i = 0; i < invocation.<Integer>getArgument(0); i++) {
+                batch.add("code" + codes.incrementAndGet());
+            }
+            return batch;
+        });
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(urlMappingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<UrlMapping> urlMappings = invocation.getArgument(0);
+            urlMappings.forEach(urlMapping -> urlMapping.setId(ids.incrementAndGet()));
+            return urlMappings;
+        });
+    }
+
+    private int shorten(String... originalUrls) throws Exception {
+        return bulkShortenService.shorten(List.of(originalUrls).iterator(), user,
+                ExportWriter.open(ExportFormat.CSV, out, BulkShortenService.RESULT_COLUMNS));
+    }
+
+    private String result() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shorten_ValidUrls_InsertsAndAuditsOneChunkAtATime() throws Exception {
+        int created = shorten("https://a.example", "https://b.example", "https://c.example");
+
+        assertThat(created).isEqualTo(3);
+        verify(urlMappingRepository, times(2)).saveAll(anyList());
+        verify(auditLogService, times(2)).shortURLsCreated(anyList());
+        assertThat(result()).isEqualTo("""
+                line,originalUrl,shortUrl,error\r
+                1,https://a.example,code1,\r
+                2,https://b.example,code2,\r
+                3,https://c.example,code3,\r
+                """);
+    }
+
+    @Test
+    void shorten_InvalidUrls_ReportedWithoutHoldingUpTheChunk() throws Exception {
+        int created = shorten("ftp://a.example", "https://b.example", "", "not a url");
+
+        assertThat(created).isEqualTo(1);
+        assertThat(result())
+                .contains("1,ftp://a.example,,originalUrl must be an absolute http or https URL\r\n")
+                .contains("2,https://b.example,code1,\r\n")
+                .contains("3,,,originalUrl is required\r\n")
+                .contains("4,not a url,,originalUrl must be an absolute http or https URL\r\n");
+    }
+
+    @Test
+    void shorten_CodeAlreadyTaken_RetriesChunkWithFreshCodes() throws Exception {
+        when(urlMappingRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate short_url"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        int created = shorten("https://a.example", "https://b.example");
+
+        assertThat(created).isEqualTo(2);
+        assertThat(result()).contains("1,https://a.example,code3,\r\n").contains("2,https://b.example,code4,\r\n");
+    }
+
+    @Test
+    void shorten_EveryAttemptCollides_ReportsChunkAndContinues() throws Exception {
+        when(urlMappingRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate short_url"))
+                .thenThrow(new DataIntegrityViolationException("duplicate short_url"))
+                .thenThrow(new DataIntegrityViolationException("duplicate short_url"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        int created = shorten("https://a.example", "https://b.example", "https://c.example");
+
+        assertThat(created).isEqualTo(1);
+        assertThat(result())
+                .contains("1,https://a.example,,Could not generate unique short URLs, please try again\r\n")
+                .contains("3,https://c.example,code7,\r\n");
+        verify(auditLogService, times(1)).shortURLsCreated(anyList());
+    }
+
+    @Test
+    void shorten_MoreThanMaxLinks_StopsWithErrorRow() throws Exception {
+        ReflectionTestUtils.setField(bulkShortenService, "maxLinks", 2);
+
+        int created = shorten("https://a.example", "https://b.example", "https://c.example");
+
+        assertThat(created).isEqualTo(2);
+        assertThat(result()).endsWith("3,,,Only the first 2 links of a request are shortened\r\n");
+    }
+
+    @Test
+    void shorten_MalformedInput_KeepsLinksReadSoFar() throws Exception {
+        Iterator<String> urls = new Iterator<>() {
+            private boolean read;
+
+            @Override
+            public boolean hasNext() {
+                if (read) {
+                    throw new IllegalArgumentException("Malformed JSON input: unexpected end");
+                }
+                return true;
+            }
+
+            @Override
+            public String next() {
+                read = true;
+                return "https://a.example";
+            }
+        };
+
+        int created = bulkShortenService.shorten(urls, user,
+                ExportWriter.open(ExportFormat.CSV, out, BulkShortenService.RESULT_COLUMNS));
+
+        assertThat(created).isEqualTo(1);
+        assertThat(result())
+                .contains("1,https://a.example,code1,\r\n")
+                .endsWith("2,,,Malformed JSON input: unexpected end\r\n");
+    }
+
+    @Test
+    void validationError_TooLong_IsRejected() {
+        String url = "https://example.com/" + "a".repeat(BulkShortenService.MAX_URL_LENGTH);
+
+        assertThat(BulkShortenService.validationError(url)).contains("longer than");
+        assertThat(BulkShortenService.validationError("https://example.com/path?q=1")).isNull();
+    }
+}
@@ -0,0 +1,203 @@
+package com.razorquake.razorlinks.service.bulk;
+
+import com.razorquake.razorlinks.dtos.LinkDeletionResult;
+import com.razorquake.razorlinks.models.UrlMapping;
+import com.razorquake.razorlinks.models.User;
+import com.razorquake.razorlinks.repository.UrlMappingRepository;
+import com.razorquake.razorlinks.service.AuditLogService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LinkDeletionServiceTest {
+
+    private static final LocalDateTime FIRST_CLICK = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    private UrlMappingRepository urlMappingRepository;
+    private AuditLogService auditLogService;
+    private ConcurrentMapCacheManager cacheManager;
+    private ExecutorService purger;
+    private LinkDeletionService linkDeletionService;
+    private User user;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:link-deletion;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM link_deletion");
+        jdbcTemplate.update("DELETE FROM click_events");
+        jdbcTemplate.update("DELETE FROM click_daily_rollup");
+        jdbcTemplate.update("DELETE FROM url_mapping");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (id, username, account_non_locked, account_non_expired," +
+                " credentials_non_expired, enabled, is_two_factor_enabled) VALUES (1, 'owner', true, true, true, true, false)");
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("owner");
+
+        urlMappingRepository = mock(UrlMappingRepository.class);
+        auditLogService = mock(AuditLogService.class);
+        cacheManager = new ConcurrentMapCacheManager(LinkDeletionService.REDIRECT_CACHE);
+        // Purges are run by hand, so each test sees the detached state first
+        purger = mock(ExecutorService.class);
+        linkDeletionService = service(jdbcTemplate);
+    }
+
+    private LinkDeletionService service(JdbcTemplate jdbc) {
+        LinkDeletionService service = new LinkDeletionService(urlMappingRepository, jdbc, transactionTemplate,
+                auditLogService, cacheManager);
+        ReflectionTestUtils.setField(service, "asyncThreshold", 5);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "purger", purger);
+        return service;
+    }
+
+    private UrlMapping link(long id, String shortUrl, int clicks) {
+        jdbcTemplate.update("INSERT INTO url_mapping (id, original_url, short_url, click_count, created_date, user_id)" +
+                " VALUES (?, 'https://example.com', ?, ?, ?, 1)", id, shortUrl, clicks, Timestamp.valueOf(FIRST_CLICK));
+        for (int i = 0; i < clicks; i++) {
+            jdbcTemplate.update("INSERT INTO click_events (click_date, url_mapping_id) VALUES (?, ?)",
+                    Timestamp.valueOf(FIRST_CLICK.plusMinutes(i)), id);
+        }
+        jdbcTemplate.update("INSERT INTO click_daily_rollup (url_mapping_id, click_day, click_count) VALUES (?, ?, ?)",
+                id, FIRST_CLICK.toLocalDate(), clicks);
+
+        UrlMapping urlMapping = new UrlMapping();
+        urlMapping.setId(id);
+        urlMapping.setShortUrl(shortUrl);
+        urlMapping.setClickCount(clicks);
+        urlMapping.setUser(user);
+        return urlMapping;
+    }
+
+    private void owns(UrlMapping... urlMappings) {
+        when(urlMappingRepository.findByUserAndShortUrlIn(eq(user), anyCollection())).thenReturn(List.of(urlMappings));
+    }
+
+    private int count(String table, long urlMappingId) {
+        String column = table.equals("url_mapping") ? "id" : "url_mapping_id";
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?",
+                Integer.class, urlMappingId);
+    }
+
+    private void runScheduledPurges() {
+        ArgumentCaptor<Runnable> purges = ArgumentCaptor.forClass(Runnable.class);
+        verify(purger, atLeastOnce()).execute(purges.capture());
+        purges.getAllValues().forEach(Runnable::run);
+    }
+
+    @Test
+    void delete_SmallLinks_DeletesClicksRollupsAndLinksAtOnce() {
+        owns(link(1, "small1", 3), link(2, "small2", 1));
+        cacheManager.getCache(LinkDeletionService.REDIRECT_CACHE).put("small1", "cached");
+
+        LinkDeletionResult result = linkDeletionService.delete(List.of("small1", "small2", "missing"), user);
+
+        assertThat(result.deleted()).containsExactly("small1", "small2");
+        assertThat(result.deleting()).isEmpty();
+        assertThat(result.notFound()).containsExactly("missing");
+        for (long id : new long[]{1, 2}) {
+            assertThat(count("click_events", id)).isZero();
+            assertThat(count("click_daily_rollup", id)).isZero();
+            assertThat(count("url_mapping", id)).isZero();
+        }
+        assertThat(cacheManager.getCache(LinkDeletionService.REDIRECT_CACHE).get("small1")).isNull();
+        verify(auditLogService).shortURLsDeleted(anyList());
+        verifyNoInteractions(purger);
+    }
+
+    @Test
+    void delete_LargeLink_DetachesAtOnceThenPurgesInChunks() {
+        UrlMapping large = link(1, "large", 7);
+        // Decided by the click events themselves; the counter may not have been flushed yet
+        large.setClickCount(0);
+        owns(large);
+
+        LinkDeletionResult result = linkDeletionService.delete(List.of("large"), user);
+
+        assertThat(result.deleting()).containsExactly("large");
+        assertThat(jdbcTemplate.queryForMap("SELECT short_url, user_id FROM url_mapping WHERE id = 1"))
+                .containsEntry("SHORT_URL", LinkDeletionService.TOMBSTONE_PREFIX + 1)
+                .containsEntry("USER_ID", null);
+        assertThat(count("click_events", 1)).isEqualTo(7);
+        assertThat(count("link_deletion", 1)).isEqualTo(1);
+
+        runScheduledPurges();
+
+        assertThat(count("link_deletion", 1)).isZero();
+        assertThat(count("click_events", 1)).isZero();
+        assertThat(count("click_daily_rollup", 1)).isZero();
+        assertThat(count("url_mapping", 1)).isZero();
+    }
+
+    @Test
+    void purge_MoreThanAChunkOnOneDate_StillDeletesInChunks() {
+        link(1, "large", 0);
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO click_events (click_date, url_mapping_id) VALUES (?, 1)",
+                    Timestamp.valueOf(FIRST_CLICK));
+        }
+        JdbcTemplate jdbc = spy(jdbcTemplate);
+
+        service(jdbc).purge(1L);
+
+        // Two full chunks ordered by id within the shared date; the final delete only takes the fifth click
+        verify(jdbc, times(2)).update(eq(LinkDeletionService.DELETE_CLICK_EVENTS_CHUNK_SQL), any(), any(), any(), any());
+        assertThat(count("click_events", 1)).isZero();
+        assertThat(count("url_mapping", 1)).isZero();
+    }
+
+    @Test
+    void resumeDetached_SchedulesEachPendingLinkOnce() {
+        link(1, LinkDeletionService.TOMBSTONE_PREFIX + 1, 2);
+        jdbcTemplate.update("INSERT INTO link_deletion (url_mapping_id, requested_at) VALUES (1, ?)",
+                Timestamp.valueOf(FIRST_CLICK));
+        link(2, "live", 2);
+
+        linkDeletionService.resumeDetached();
+        linkDeletionService.resumeDetached();
+
+        runScheduledPurges();
+        verify(purger, times(1)).execute(any());
+        assertThat(count("url_mapping", 1)).isZero();
+        assertThat(count("url_mapping", 2)).isEqualTo(1);
+    }
+
+    @Test
+    void delete_NothingOwned_ReportsNotFoundWithoutWriting() {
+        owns();
+
+        LinkDeletionResult result = linkDeletionService.delete(List.of("someone-elses"), user);
+
+        assertThat(result.notFound()).containsExactly("someone-elses");
+        verifyNoInteractions(auditLogService, purger);
+    }
+}
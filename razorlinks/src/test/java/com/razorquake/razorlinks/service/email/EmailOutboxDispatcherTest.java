@@ -0,0 +1,187 @@
+package com.razorquake.razorlinks.service.email;
+
+import com.razorquake.razorlinks.models.EmailOutboxMessage;
+import com.razorquake.razorlinks.security.util.EmailService;
+import jakarta.mail.internet.MimeMessage;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherTest {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private FakeSmtpServer smtpServer;
+    private JavaMailSenderImpl mailSender;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:email-outbox;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        smtpServer = new FakeSmtpServer();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+        mailSender.setPort(smtpServer.port());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "2000");
+        properties.put("mail.smtp.timeout", "2000");
+        mailSender.setJavaMailProperties(properties);
+
+        EmailService emailService = mock(EmailService.class);
+        when(emailService.toMimeMessage(any())).thenAnswer(invocation -> {
+            EmailOutboxMessage email = invocation.getArgument(0);
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+            helper.setFrom("noreply@razorlinks.test");
+            helper.setTo(email.getRecipient());
+            helper.setSubject(email.getSubject());
+            helper.setText("Hello");
+            return message;
+        });
+
+        dispatcher = new EmailOutboxDispatcher(jdbcTemplate, mailSender, emailService);
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 8);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 30_000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 3_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "claimTimeoutMs", 300_000L);
+        // Tests dispatch by hand; the poller never gets to run
+        ReflectionTestUtils.setField(dispatcher, "pollIntervalMs", 600_000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (ReflectionTestUtils.getField(dispatcher, "executor") != null) {
+            dispatcher.stop();
+        }
+        smtpServer.close();
+    }
+
+    private void enqueue(String recipient, int attempts, LocalDateTime nextAttemptAt) {
+        jdbcTemplate.update("INSERT INTO email_outbox (recipient, subject, template, params, status, attempts," +
+                        " next_attempt_at, created_at) VALUES (?, 'Subject', 'emails/email-verification.jte', '{}'," +
+                        " 'PENDING', ?, ?, ?)",
+                recipient, attempts, Timestamp.valueOf(nextAttemptAt), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private int outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class);
+    }
+
+    private Map<String, Object> onlyRow() {
+        return jdbcTemplate.queryForMap("SELECT status, attempts, next_attempt_at, last_error FROM email_outbox");
+    }
+
+    @Test
+    void dispatch_DueMessages_SentOverOneConnectionAndDeleted() {
+        dispatcher.start();
+        for (int i = 0; i < 3; i++) {
+            enqueue("user" + i + "@example.com", 0, LocalDateTime.now().minusSeconds(1));
+        }
+
+        dispatcher.dispatch();
+
+        assertThat(smtpServer.messages()).hasSize(3);
+        assertThat(smtpServer.connections()).isEqualTo(1);
+        assertThat(outboxSize()).isZero();
+    }
+
+    @Test
+    void dispatch_SeveralWorkers_EachSendsItsShareOverItsOwnConnection() {
+        ReflectionTestUtils.setField(dispatcher, "workers", 2);
+        dispatcher.start();
+        for (int i = 0; i < 4; i++) {
+            enqueue("user" + i + "@example.com", 0, LocalDateTime.now().minusSeconds(1));
+        }
+
+        dispatcher.dispatch();
+
+        assertThat(smtpServer.messages()).hasSize(4);
+        assertThat(smtpServer.connections()).isEqualTo(2);
+        assertThat(outboxSize()).isZero();
+    }
+
+    @Test
+    void dispatch_NotYetDue_IsNotSent() {
+        dispatcher.start();
+        enqueue("user@example.com", 1, LocalDateTime.now().plusMinutes(5));
+
+        dispatcher.dispatch();
+
+        assertThat(smtpServer.connections()).isZero();
+        assertThat(outboxSize()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatch_MailServerDown_SchedulesRetryWithBackoff() throws Exception {
+        dispatcher.start();
+        smtpServer.close();
+        enqueue("user@example.com", 0, LocalDateTime.now().minusSeconds(1));
+
+        dispatcher.dispatch();
+
+        Map<String, Object> row = onlyRow();
+        assertThat(row.get("STATUS")).isEqualTo("PENDING");
+        assertThat(row.get("ATTEMPTS")).isEqualTo(1);
+        assertThat(((Timestamp) row.get("NEXT_ATTEMPT_AT")).toLocalDateTime())
+                .isAfter(LocalDateTime.now().plusSeconds(20));
+        assertThat(row.get("LAST_ERROR")).isNotNull();
+    }
+
+    @Test
+    void dispatch_LastAttemptFails_MarksFailed() throws Exception {
+        dispatcher.start();
+        smtpServer.close();
+        enqueue("user@example.com", 7, LocalDateTime.now().minusSeconds(1));
+
+        dispatcher.dispatch();
+
+        Map<String, Object> row = onlyRow();
+        assertThat(row.get("STATUS")).isEqualTo("FAILED");
+        assertThat(row.get("ATTEMPTS")).isEqualTo(8);
+    }
+
+    @Test
+    void claimDue_ClaimedMessage_IsNotClaimedAgain() {
+        enqueue("user@example.com", 0, LocalDateTime.now().minusSeconds(1));
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(dispatcher.claimDue(now)).hasSize(1);
+        assertThat(dispatcher.claimDue(now)).isEmpty();
+    }
+
+    @Test
+    void backoffMs_DoublesUpToTheMaximum() {
+        assertThat(dispatcher.backoffMs(1)).isEqualTo(30_000L);
+        assertThat(dispatcher.backoffMs(2)).isEqualTo(60_000L);
+        assertThat(dispatcher.backoffMs(3)).isEqualTo(120_000L);
+        assertThat(dispatcher.backoffMs(20)).isEqualTo(3_600_000L);
+    }
+}
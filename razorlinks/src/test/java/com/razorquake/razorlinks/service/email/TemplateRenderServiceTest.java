@@ -0,0 +1,107 @@
+package com.razorquake.razorlinks.service.email;
+
+import gg.jte.ContentType;
+import gg.jte.TemplateEngine;
+import gg.jte.TemplateException;
+import gg.jte.TemplateOutput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TemplateRenderServiceTest {
+
+    private TemplateEngine templateEngine;
+    private TemplateRenderService renderService;
+
+    @BeforeEach
+    void setUp() {
+        templateEngine = mock(TemplateEngine.class);
+        renderService = newService(templateEngine);
+    }
+
+    private static TemplateRenderService newService(TemplateEngine templateEngine) {
+        TemplateRenderService service = new TemplateRenderService(templateEngine);
+        ReflectionTestUtils.setField(service, "bufferPoolSize", 2);
+        ReflectionTestUtils.setField(service, "bufferCapacity", 64);
+        service.initPool();
+        return service;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void renderGreeting() {
+        doAnswer(invocation -> {
+            Map<String, Object> params = invocation.getArgument(1);
+            TemplateOutput output = invocation.getArgument(2);
+            String username = params.get("username").toString();
+            output.writeContent("<p>Hello ");
+            output.writeContent("[" + username + "]", 1, username.length() + 1);
+            output.writeContent("</p>");
+            return null;
+        }).when(templateEngine).render(eq("greeting.jte"), any(Map.class), any(TemplateOutput.class));
+    }
+
+    @Test
+    void render_ReusesThePooledBuffer() {
+        renderGreeting();
+
+        assertThat(renderService.render("greeting.jte", Map.of("username", "alice"))).isEqualTo("<p>Hello alice</p>");
+        assertThat(renderService.render("greeting.jte", Map.of("username", "bob"))).isEqualTo("<p>Hello bob</p>");
+        assertThat(renderService.pooledBuffers()).isEqualTo(1);
+    }
+
+    @Test
+    void renderAll_RendersEachRecipientInOrder() {
+        renderGreeting();
+
+        List<String> rendered = renderService.renderAll("greeting.jte",
+                List.of(Map.of("username", "alice"), Map.of("username", "bob"), Map.of("username", "carol")));
+
+        assertThat(rendered).containsExactly("<p>Hello alice</p>", "<p>Hello bob</p>", "<p>Hello carol</p>");
+        assertThat(renderService.pooledBuffers()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void render_TemplateFails_ReturnsBufferToPool() {
+        doThrow(new TemplateException("missing parameter"))
+                .when(templateEngine).render(eq("broken.jte"), any(Map.class), any(TemplateOutput.class));
+
+        assertThatThrownBy(() -> renderService.render("broken.jte", Map.of()))
+                .isInstanceOf(TemplateException.class);
+        assertThat(renderService.pooledBuffers()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void render_OversizedBuffer_IsNotPooled() {
+        doAnswer(invocation -> {
+            invocation.<TemplateOutput>getArgument(2).writeContent("x".repeat(64 * 9));
+            return null;
+        }).when(templateEngine).render(eq("huge.jte"), any(Map.class), any(TemplateOutput.class));
+
+        renderService.render("huge.jte", Map.of());
+
+        assertThat(renderService.pooledBuffers()).isZero();
+    }
+
+    @Test
+    void render_PrecompiledVerificationTemplate_EscapesParams() {
+        TemplateRenderService precompiled = newService(TemplateEngine.createPrecompiled(ContentType.Html));
+
+        String html = precompiled.render("emails/email-verification.jte",
+                Map.of("verificationUrl", "https://app.test/verify-email?token=abc", "username", "<b>alice</b>"));
+
+        assertThat(html)
+                .contains("https://app.test/verify-email?token=abc")
+                .contains("&lt;b")
+                .doesNotContain("<b>alice</b>");
+    }
+}
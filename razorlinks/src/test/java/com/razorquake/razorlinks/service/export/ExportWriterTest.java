@@ -0,0 +1,51 @@
+package com.razorquake.razorlinks.service.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportWriterTest {
+
+    private final LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 30);
+
+    @Test
+    void csv_WritesHeaderAndEscapedRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ExportWriter writer = ExportWriter.open(ExportFormat.CSV, out, "id", "timestamp", "username");
+        writer.row(1L, timestamp, "plain");
+        writer.row(2L, null, "with, comma and \"quotes\"");
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,timestamp,username\r\n" +
+                "1,2024-01-01T12:30:00,plain\r\n" +
+                "2,,\"with, comma and \"\"quotes\"\"\"\r\n");
+    }
+
+    @Test
+    void csv_PrefixesValuesThatLookLikeFormulas() {
+        assertThat(ExportWriter.csvValue("=HYPERLINK(\"x\")")).isEqualTo("\"'=HYPERLINK(\"\"x\"\")\"");
+        assertThat(ExportWriter.csvValue("@user")).isEqualTo("'@user");
+        assertThat(ExportWriter.csvValue("user")).isEqualTo("user");
+    }
+
+    @Test
+    void ndjson_WritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ExportWriter writer = ExportWriter.open(ExportFormat.NDJSON, out, "id", "timestamp", "username");
+        writer.row(1L, timestamp, "a\"b");
+        writer.row(2L, null, null);
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":1,\"timestamp\":\"2024-01-01T12:30:00\",\"username\":\"a\\\"b\"}\n" +
+                "{\"id\":2,\"timestamp\":null,\"username\":null}\n");
+    }
+}
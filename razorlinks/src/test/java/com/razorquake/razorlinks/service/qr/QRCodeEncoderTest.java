@@ -0,0 +1,62 @@
+package com.razorquake.razorlinks.service.qr;
+
+import com.google.zxing.common.BitMatrix;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QRCodeEncoderTest {
+
+    private static BitMatrix checkerboard(int size) {
+        BitMatrix matrix = new BitMatrix(size, size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if ((x + y) % 2 == 0) {
+                    matrix.set(x, y);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    @Test
+    void writePng_DecodesToTheSameModules() throws Exception {
+        // Odd width, so the last byte of each scanline is partially filled
+        BitMatrix matrix = checkerboard(13);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        QRCodeEncoder.writePng(matrix, out);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(image.getWidth()).isEqualTo(13);
+        assertThat(image.getHeight()).isEqualTo(13);
+        for (int y = 0; y < 13; y++) {
+            for (int x = 0; x < 13; x++) {
+                int expected = matrix.get(x, y) ? 0x000000 : 0xFFFFFF;
+                assertThat(image.getRGB(x, y) & 0xFFFFFF).as("pixel %d,%d", x, y).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void writeSvg_DrawsOneRectanglePerRunOfDarkModules() throws Exception {
+        BitMatrix matrix = new BitMatrix(4, 2);
+        matrix.setRegion(0, 0, 3, 1);
+        matrix.set(1, 1);
+        matrix.set(3, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        QRCodeEncoder.writeSvg(matrix, 200, out);
+
+        String svg = out.toString(StandardCharsets.UTF_8);
+        assertThat(svg).startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"200\" height=\"200\" viewBox=\"0 0 4 2\"");
+        assertThat(svg).contains("d=\"M0 0h3v1h-3zM1 1h1v1h-1zM3 1h1v1h-1z\"");
+        assertThat(svg).endsWith("</svg>");
+    }
+}
@@ -0,0 +1,96 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+import com.razorquake.razorlinks.exception.ShortCodeGenerationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BlockShortCodeGeneratorTest {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Integer> allocations = new ArrayList<>();
+
+    private synchronized long allocate(int blockSize) {
+        allocations.add(blockSize);
+        return sequence.getAndAdd(blockSize);
+    }
+
+    @Test
+    void generate_AllocatesBlocksOnlyWhenExhausted() {
+        BlockShortCodeGenerator generator = new BlockShortCodeGenerator(this::allocate, 10);
+
+        for (int i = 0; i < 25; i++) {
+            generator.generate();
+        }
+
+        assertThat(allocations).containsExactly(10, 10, 10);
+    }
+
+    @Test
+    void generate_ReturnsDistinctSevenCharacterCodes() {
+        BlockShortCodeGenerator generator = new BlockShortCodeGenerator(this::allocate, 100);
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            codes.add(generator.generate());
+        }
+
+        assertThat(codes).hasSize(10_000);
+        assertThat(codes).allMatch(code -> code.matches("[A-Za-z0-9]{7}"));
+    }
+
+    @Test
+    void generate_ConcurrentCallers_NeverShareACode() throws Exception {
+        BlockShortCodeGenerator generator = new BlockShortCodeGenerator(this::allocate, 50);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    codes.add(generator.generate());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(codes).hasSize(8000);
+    }
+
+    @Test
+    void scramble_IsABijectionOnTheCodeSpace() {
+        Set<Long> scrambled = new HashSet<>();
+        for (long id = 0; id < 100_000; id++) {
+            long value = BlockShortCodeGenerator.scramble(id);
+            assertThat(value).isBetween(0L, BlockShortCodeGenerator.CODE_SPACE - 1);
+            scrambled.add(value);
+        }
+        assertThat(scrambled).hasSize(100_000);
+
+        // The largest id must not overflow
+        assertThat(BlockShortCodeGenerator.scramble(BlockShortCodeGenerator.CODE_SPACE - 1)).isNotNegative();
+    }
+
+    @Test
+    void generate_CodeSpaceExhausted_Throws() {
+        BlockShortCodeGenerator generator = new BlockShortCodeGenerator(
+                blockSize -> BlockShortCodeGenerator.CODE_SPACE, 10);
+
+        assertThatThrownBy(generator::generate).isInstanceOf(ShortCodeGenerationException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcShortCodeBlockAllocatorTest {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE short_code_sequence SET next_value = next_value + ? WHERE name = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO short_code_sequence (name, next_value) VALUES (?, ?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private JdbcShortCodeBlockAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Long>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void allocate_ExistingSequence_ReturnsStartOfReservedBlock() {
+        when(jdbcTemplate.update(INCREMENT_SQL, 100, "url_mapping")).thenReturn(1);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("url_mapping"))).thenReturn(700L);
+
+        assertThat(allocator.allocate(100)).isEqualTo(600L);
+        verify(jdbcTemplate, never()).update(eq(INSERT_SQL), any(), any());
+    }
+
+    @Test
+    void allocate_MissingSequence_CreatesRowAndReturnsFirstBlock() {
+        when(jdbcTemplate.update(INCREMENT_SQL, 100, "url_mapping")).thenReturn(0);
+
+        assertThat(allocator.allocate(100)).isZero();
+        verify(jdbcTemplate).update(INSERT_SQL, "url_mapping", 100);
+    }
+
+    @Test
+    void allocate_SequenceCreatedConcurrently_RetriesIncrement() {
+        when(jdbcTemplate.update(INCREMENT_SQL, 100, "url_mapping")).thenReturn(0, 1);
+        when(jdbcTemplate.update(INSERT_SQL, "url_mapping", 100)).thenThrow(new DuplicateKeyException("exists"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("url_mapping"))).thenReturn(200L);
+
+        assertThat(allocator.allocate(100)).isEqualTo(100L);
+    }
+}
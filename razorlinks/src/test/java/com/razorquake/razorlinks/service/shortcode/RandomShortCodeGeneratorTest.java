@@ -0,0 +1,76 @@
+package com.razorquake.razorlinks.service.shortcode;
+
+import com.razorquake.razorlinks.exception.ShortCodeGenerationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RandomShortCodeGeneratorTest {
+
+    @ParameterizedTest
+    @EnumSource(RandomShortCodeGenerator.Source.class)
+    void generate_ReturnsBase62CodesOfFixedLength(RandomShortCodeGenerator.Source source) {
+        RandomShortCodeGenerator generator = new RandomShortCodeGenerator(source, code -> false, 5);
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            codes.add(generator.generate());
+        }
+
+        assertThat(codes).hasSize(1000);
+        assertThat(codes).allMatch(code -> code.matches("[A-Za-z0-9]{8}"));
+    }
+
+    @Test
+    void generate_CodeTaken_RetriesUntilFree() {
+        AtomicInteger checks = new AtomicInteger();
+        RandomShortCodeGenerator generator = new RandomShortCodeGenerator(
+                RandomShortCodeGenerator.Source.THREAD_LOCAL,
+                code -> checks.incrementAndGet() < 3,
+                5
+        );
+
+        assertThat(generator.generate()).hasSize(RandomShortCodeGenerator.CODE_LENGTH);
+        assertThat(checks.get()).isEqualTo(3);
+    }
+
+    @Test
+    void generate_EveryCodeTaken_ThrowsAfterMaxAttempts() {
+        AtomicInteger checks = new AtomicInteger();
+        RandomShortCodeGenerator generator = new RandomShortCodeGenerator(
+                RandomShortCodeGenerator.Source.THREAD_LOCAL,
+                code -> {
+                    checks.incrementAndGet();
+                    return true;
+                },
+                4
+        );
+
+        assertThatThrownBy(generator::generate).isInstanceOf(ShortCodeGenerationException.class);
+        assertThat(checks.get()).isEqualTo(4);
+    }
+
+    @Test
+    void generateBatch_DrawsDistinctCodesWithoutLookups() {
+        AtomicInteger checks = new AtomicInteger();
+        RandomShortCodeGenerator generator = new RandomShortCodeGenerator(
+                RandomShortCodeGenerator.Source.THREAD_LOCAL,
+                code -> checks.incrementAndGet() > 0,
+                5
+        );
+
+        List<String> codes = generator.generateBatch(1000);
+
+        assertThat(codes).hasSize(1000).doesNotHaveDuplicates();
+        assertThat(codes).allMatch(code -> code.matches("[A-Za-z0-9]{8}"));
+        assertThat(checks.get()).isZero();
+    }
+}